@@ -0,0 +1,60 @@
+package com.anjesh.tickets.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Keeps verified tokens until they expire, so a client reusing its access token only pays for
+ * parsing and signature verification on the first request. Only tokens the delegate accepted
+ * are cached and each entry is evicted at its exp claim.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final Supplier<JwtDecoder> delegate;
+    private final Cache<String, Jwt> verifiedJwts;
+
+    public CachingJwtDecoder(Supplier<JwtDecoder> delegate, Cache<String, Jwt> verifiedJwts) {
+        this.delegate = delegate;
+        this.verifiedJwts = verifiedJwts;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        Jwt jwt = verifiedJwts.getIfPresent(token);
+        if (null != jwt) {
+            return jwt;
+        }
+
+        jwt = delegate.get().decode(token);
+        if (null != jwt.getExpiresAt()) {
+            verifiedJwts.put(token, jwt);
+        }
+        return jwt;
+    }
+
+    public static Expiry<String, Jwt> untilExpiresAt() {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(String token, Jwt jwt, long currentTime) {
+                return Math.max(0, Duration.between(Instant.now(), jwt.getExpiresAt()).toNanos());
+            }
+
+            @Override
+            public long expireAfterUpdate(String token, Jwt jwt, long currentTime, long currentDuration) {
+                return expireAfterCreate(token, jwt, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(String token, Jwt jwt, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+}
@@ -0,0 +1,134 @@
+package com.anjesh.tickets.config;
+
+import com.anjesh.tickets.repositories.EventRepository;
+import com.anjesh.tickets.repositories.QrCodeRepository;
+import com.anjesh.tickets.repositories.TicketRepository;
+import com.anjesh.tickets.repositories.TicketTypeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * One-time data fixes for columns added after rows already existed. Every step
+ * only touches rows that have not been migrated yet, so it is safe to run on every startup.
+ * Hibernate's schema update never relaxes or adds constraints on existing columns, so
+ * those changes are applied here as PostgreSQL DDL.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DatabaseMigrationRunner implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final EventRepository eventRepository;
+    private final TicketTypeRepository ticketTypeRepository;
+    private final QrCodeRepository qrCodeRepository;
+    private final TicketRepository ticketRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${tickets.qr-codes.store-images:true}")
+    private boolean storeQrCodeImages;
+
+    @Value("${tickets.qr-codes.purge-stored-images:false}")
+    private boolean purgeStoredQrCodeImages;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (isPostgres()) {
+            // QR images are rendered after the purchase commits
+            jdbcTemplate.execute("ALTER TABLE qr_codes ALTER COLUMN value DROP NOT NULL");
+
+            // Published event search, names rank above venues
+            jdbcTemplate.execute("ALTER TABLE events ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+                    "GENERATED ALWAYS AS (" +
+                    "setweight(to_tsvector('english', COALESCE(name, '')), 'A') || " +
+                    "setweight(to_tsvector('english', COALESCE(venue, '')), 'B')) STORED");
+            // Built without blocking writes or startup, search scans events until it is ready
+            Thread.ofVirtual().name("search-index").start(this::createSearchIndex);
+
+            // Replaced by idx_events_status_ends_at_start, date filters no longer read event_end
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_events_status_start_end");
+        }
+
+        // Optimistic locking compares against the stored version, which must not be null
+        int versioned = jdbcTemplate.update("UPDATE events SET version = 0 WHERE version IS NULL")
+                + jdbcTemplate.update("UPDATE ticket_types SET version = 0 WHERE version IS NULL");
+        if (versioned > 0) {
+            log.info("Backfilled version for {} events and ticket types", versioned);
+        }
+
+        int ticketTypes = transactionTemplate.execute(status -> ticketTypeRepository.backfillTicketsSold());
+        if (ticketTypes > 0) {
+            log.info("Backfilled tickets sold counter for {} ticket types", ticketTypes);
+        }
+
+        int events = transactionTemplate.execute(status -> eventRepository.backfillEndsAt());
+        if (events > 0) {
+            log.info("Backfilled end time for {} events", events);
+        }
+
+        int tickets = transactionTemplate.execute(status -> ticketRepository.backfillRedeemedAt());
+        if (tickets > 0) {
+            log.info("Backfilled redemption time for {} tickets", tickets);
+        }
+
+        if (!storeQrCodeImages && purgeStoredQrCodeImages) {
+            purgeStoredQrCodeImages();
+        }
+    }
+
+    // Images are rendered on request in this mode, the stored copies are dead weight
+    private void purgeStoredQrCodeImages() {
+        int purged = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> qrCodeRepository.clearStoredImages(BATCH_SIZE));
+            purged += batch;
+        } while (batch > 0);
+
+        if (purged > 0) {
+            log.info("Cleared {} stored QR code images", purged);
+        }
+    }
+
+    // CONCURRENTLY cannot run in a transaction, the template's statements run in autocommit here
+    private void createSearchIndex() {
+        try {
+            List<Boolean> valid = jdbcTemplate.queryForList("SELECT i.indisvalid FROM pg_index i " +
+                    "JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = 'idx_events_search_vector'", Boolean.class);
+            if (valid.contains(Boolean.FALSE)) {
+                // Another node may still be building it, an interrupted build has to be dropped by hand
+                log.warn("Event search index idx_events_search_vector is not valid yet, "
+                        + "drop it with DROP INDEX CONCURRENTLY if no build is running");
+                return;
+            }
+            if (!valid.isEmpty()) {
+                return;
+            }
+
+            long started = System.nanoTime();
+            jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_events_search_vector ON events " +
+                    "USING GIN (search_vector) WHERE status = 'PUBLISHED'");
+            log.info("Built event search index in {} ms", (System.nanoTime() - started) / 1_000_000);
+        } catch (DataAccessException ex) {
+            log.error("Failed to build event search index, search scans events until it exists", ex);
+        }
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equals(product);
+    }
+}
@@ -1,5 +1,7 @@
 package com.anjesh.tickets.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -11,10 +13,15 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Component
 public class JwtAuthenticationConverter implements Converter<Jwt, JwtAuthenticationToken> {
+
+    // Users share a handful of role sets, so authorities are built once per distinct set
+    private final Cache<List<String>, List<GrantedAuthority>> authoritiesByRoles = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .build();
+
     @Override
     public JwtAuthenticationToken convert(Jwt jwt) {
         Collection<GrantedAuthority> authorities = extractAuthorities(jwt);
@@ -31,9 +38,13 @@ public class JwtAuthenticationConverter implements Converter<Jwt, JwtAuthenticat
         @SuppressWarnings("unchecked")
         List<String> roles = (List<String>)realmAccess.get("roles");
 
+        return authoritiesByRoles.get(roles, JwtAuthenticationConverter::toAuthorities);
+    }
+
+    private static List<GrantedAuthority> toAuthorities(List<String> roles) {
         return roles.stream()
                 .filter(role -> role.startsWith("ROLE_"))
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
     }
 }
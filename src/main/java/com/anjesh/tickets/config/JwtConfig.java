@@ -0,0 +1,83 @@
+package com.anjesh.tickets.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+@Configuration
+@Slf4j
+public class JwtConfig {
+
+    @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
+    private String issuerUri;
+
+    @Value("${tickets.security.jwks-warm-up:true}")
+    private boolean jwksWarmUp;
+
+    private final AtomicReference<JWKSource<SecurityContext>> jwkSource = new AtomicReference<>();
+
+    // Resolved on first use like the auto-configured decoder, so startup does not depend on the issuer
+    private final SingletonSupplier<JwtDecoder> issuerJwtDecoder = SingletonSupplier.of(() -> {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withIssuerLocation(issuerUri)
+                .jwtProcessorCustomizer(processor -> {
+                    if (processor.getJWSKeySelector() instanceof JWSVerificationKeySelector<SecurityContext> keySelector) {
+                        jwkSource.set(keySelector.getJWKSource());
+                    }
+                })
+                .build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+        return decoder;
+    });
+
+    @Bean
+    public JwtDecoder jwtDecoder(
+            MeterRegistry meterRegistry,
+            @Value("${tickets.security.jwt-cache.max-size:10000}") long maxSize) {
+        Cache<String, Jwt> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(CachingJwtDecoder.untilExpiresAt())
+                .recordStats()
+                .build();
+        return new CachingJwtDecoder(issuerJwtDecoder, CaffeineCacheMetrics.monitor(meterRegistry, cache, "verifiedJwts"));
+    }
+
+    // Fetches the issuer metadata and signing keys off the request path instead of on the first login
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpSigningKeys() {
+        if (!jwksWarmUp) {
+            return;
+        }
+        Thread.ofVirtual().name("jwks-warm-up").start(() -> {
+            try {
+                issuerJwtDecoder.obtain();
+                JWKSource<SecurityContext> source = jwkSource.get();
+                if (null != source) {
+                    int keys = source.get(new JWKSelector(new JWKMatcher.Builder().build()), null).size();
+                    log.info("Loaded {} signing keys from {}", keys, issuerUri);
+                }
+            } catch (Exception ex) {
+                log.warn("Could not load signing keys from {}, they will be fetched on the first request: {}",
+                        issuerUri, ex.getMessage());
+            }
+        });
+    }
+}
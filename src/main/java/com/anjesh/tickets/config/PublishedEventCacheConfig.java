@@ -0,0 +1,68 @@
+package com.anjesh.tickets.config;
+
+import com.anjesh.tickets.domain.Versioned;
+import com.anjesh.tickets.domain.dtos.GetPublishedEventDetailsResponseDto;
+import com.anjesh.tickets.domain.dtos.ListPublishedEventResponseDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Node-local caches of published events. The writing node evicts on commit, every other node
+ * drops its caches once PublishedEventCacheJob sees the shared generation move, and the TTL only
+ * bounds memory.
+ */
+@Configuration
+public class PublishedEventCacheConfig {
+
+    // Published listing pages with totals and their ETag, keyed by generation and page request
+    @Bean
+    public Cache<String, Versioned<Page<ListPublishedEventResponseDto>>> publishedEventPageCache(
+            MeterRegistry meterRegistry,
+            @Value("${tickets.published-events.cache.max-pages:1000}") long maxPages,
+            @Value("${tickets.published-events.cache.ttl:PT10M}") Duration ttl) {
+        Cache<String, Versioned<Page<ListPublishedEventResponseDto>>> cache = Caffeine.newBuilder()
+                .maximumSize(maxPages)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "publishedEventPages");
+    }
+
+    // Published listing slices without totals, keyed by generation and page request
+    @Bean
+    public Cache<String, Slice<ListPublishedEventResponseDto>> publishedEventSliceCache(
+            MeterRegistry meterRegistry,
+            @Value("${tickets.published-events.cache.max-pages:1000}") long maxPages,
+            @Value("${tickets.published-events.cache.ttl:PT10M}") Duration ttl) {
+        Cache<String, Slice<ListPublishedEventResponseDto>> cache = Caffeine.newBuilder()
+                .maximumSize(maxPages)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "publishedEventSlices");
+    }
+
+    // Published event details and their ETag keyed by generation and event ID, empty for IDs that are not published
+    @Bean
+    public Cache<String, Optional<Versioned<GetPublishedEventDetailsResponseDto>>> publishedEventDetailsCache(
+            MeterRegistry meterRegistry,
+            @Value("${tickets.published-events.cache.max-events:10000}") long maxEvents,
+            @Value("${tickets.published-events.cache.ttl:PT10M}") Duration ttl) {
+        Cache<String, Optional<Versioned<GetPublishedEventDetailsResponseDto>>> cache = Caffeine.newBuilder()
+                .maximumSize(maxEvents)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "publishedEventDetails");
+    }
+}
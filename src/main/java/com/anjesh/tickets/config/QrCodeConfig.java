@@ -1,8 +1,15 @@
 package com.anjesh.tickets.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.zxing.qrcode.QRCodeWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
 
 @Configuration
 public class QrCodeConfig {
@@ -12,4 +19,17 @@ public class QrCodeConfig {
         return new QRCodeWriter();
     }
 
+    // Rendered PNGs keyed by the encoded content, so a rescheduled event misses, bounded by total image bytes
+    @Bean
+    public Cache<String, byte[]> qrCodeImageCache(
+            MeterRegistry meterRegistry,
+            @Value("${tickets.qr-codes.image-cache.max-size:32MB}") DataSize maxSize) {
+        Cache<String, byte[]> cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String content, byte[] image) -> content.length() + image.length)
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "qrCodeImages");
+    }
+
 }
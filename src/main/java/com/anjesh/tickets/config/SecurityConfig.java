@@ -1,7 +1,14 @@
 package com.anjesh.tickets.config;
 
 import com.anjesh.tickets.filters.UserProvisioningFilter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -31,7 +38,9 @@ public class SecurityConfig {
             .requestMatchers("/actuator/**").permitAll()
             .requestMatchers("/error").permitAll()
             .requestMatchers(HttpMethod.POST, "/api/v1/events").hasRole("ORGANIZER")
-            .requestMatchers("/api/v1/ticket-validations").hasRole("STAFF")
+            .requestMatchers("/api/v1/ticket-validations", "/api/v1/ticket-validations/**").hasRole("STAFF")
+            .requestMatchers("/api/v1/gate-manifests/**").hasRole("STAFF")
+            .requestMatchers(WebSocketConfig.SCANNER_PATH).hasRole("STAFF")
             .anyRequest().authenticated())
         .csrf(csrf -> csrf.disable())
         .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -41,6 +50,20 @@ public class SecurityConfig {
     return http.build();
   }
 
+  // Subjects already provisioned, so authenticated requests skip the users table
+  @Bean
+  public Cache<UUID, Boolean> knownUserCache(
+      MeterRegistry meterRegistry,
+      @Value("${tickets.users.known-user-cache.max-size:10000}") long maxSize,
+      @Value("${tickets.users.known-user-cache.ttl:PT1H}") Duration ttl) {
+    Cache<UUID, Boolean> cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .build();
+    return CaffeineCacheMetrics.monitor(meterRegistry, cache, "knownUsers");
+  }
+
   @Bean
   public CorsConfigurationSource corsConfigurationSource() {
     CorsConfiguration configuration = new CorsConfiguration();
@@ -0,0 +1,25 @@
+package com.anjesh.tickets.config;
+
+import com.anjesh.tickets.websocket.ScannerWebSocketHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    public static final String SCANNER_PATH = "/ws/scanner";
+
+    private final ScannerWebSocketHandler scannerWebSocketHandler;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // No allowed origins: scanner apps send no Origin header, browsers on other sites are refused.
+        // The handshake carries the token in the Authorization header like any other request.
+        registry.addHandler(scannerWebSocketHandler, SCANNER_PATH);
+    }
+}
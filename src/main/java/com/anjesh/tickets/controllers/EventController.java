@@ -4,16 +4,21 @@ import com.anjesh.tickets.domain.CreateEventRequest;
 import com.anjesh.tickets.domain.UpdateEventRequest;
 import com.anjesh.tickets.domain.dtos.*;
 import com.anjesh.tickets.mappers.EventMapper;
+import com.anjesh.tickets.services.AttendanceService;
 import com.anjesh.tickets.services.EventService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.UUID;
 
@@ -25,6 +30,7 @@ import static com.anjesh.tickets.util.JwtUtil.parseUserId;
 public class EventController {
     private final EventMapper eventMapper;
     private final EventService eventService;
+    private final AttendanceService attendanceService;
 
     @PostMapping
     public ResponseEntity<CreateEventResponseDto> createEvent(
@@ -58,16 +64,57 @@ public class EventController {
         return ResponseEntity.ok(events);
     }
 
+    @GetMapping(params = {"total=false", "!cursor"})
+    public ResponseEntity<SliceResponseDto<ListEventResponseDto>> sliceEvents(
+            @AuthenticationPrincipal Jwt jwt, Pageable pageable) {
+        UUID userId = parseUserId(jwt);
+        return ResponseEntity.ok(eventService.sliceEventsForOrganizer(userId, pageable));
+    }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageResponseDto<ListEventResponseDto>> scrollEvents(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        UUID userId = parseUserId(jwt);
+        return ResponseEntity.ok(eventService.scrollEventsForOrganizer(userId, cursor, size));
+    }
+
     @GetMapping(path = "/{eventId}")
     public ResponseEntity<GetEventDetailsResponseDto> getEvent(
             @AuthenticationPrincipal Jwt jwt,
-            @PathVariable UUID eventId) {
+            @PathVariable UUID eventId,
+            WebRequest webRequest) {
         UUID userID = parseUserId(jwt);
+        String eTag = eventService.getEventVersionForOrganizer(userID, eventId).orElse(null);
+        if (null == eTag) {
+            return ResponseEntity.notFound().build();
+        }
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache().cachePrivate()).build();
+        }
+
         return eventService.getEventForOrganizer(userID, eventId)
-                .map(ResponseEntity::ok)
+                .map(event -> ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache().cachePrivate()).body(event))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping(path = "/{eventId}/attendance")
+    public ResponseEntity<EventAttendanceResponseDto> getAttendance(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable UUID eventId) {
+        UUID userId = parseUserId(jwt);
+        return ResponseEntity.ok(attendanceService.getAttendanceForOrganizer(userId, eventId));
+    }
+
+    @GetMapping(path = "/{eventId}/attendance/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAttendance(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable UUID eventId) {
+        UUID userId = parseUserId(jwt);
+        return attendanceService.streamAttendanceForOrganizer(userId, eventId);
+    }
+
     @DeleteMapping(path = "/{eventId}")
     public ResponseEntity<Void> deleteEvent(
             @AuthenticationPrincipal Jwt jwt,
@@ -0,0 +1,27 @@
+package com.anjesh.tickets.controllers;
+
+import com.anjesh.tickets.services.GateManifestService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping(path = "/api/v1/gate-manifests")
+@RequiredArgsConstructor
+public class GateManifestController {
+
+    private final GateManifestService gateManifestService;
+
+    @GetMapping(path = "/{eventId}")
+    public ResponseEntity<byte[]> getGateManifest(
+            @PathVariable UUID eventId,
+            @RequestParam(required = false) Long since
+    ) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(gateManifestService.getManifest(eventId, since));
+    }
+}
@@ -4,6 +4,7 @@ import com.anjesh.tickets.domain.dtos.ErrorDto;
 import com.anjesh.tickets.exceptions.*;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -59,6 +60,48 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDto, HttpStatus.BAD_REQUEST);
     }
 
+    // Stale versions sent by the client and concurrent edits that lost the race at flush
+    @ExceptionHandler(EventVersionConflictException.class)
+    public ResponseEntity<ErrorDto> handleEventVersionConflictException(EventVersionConflictException ex){
+        log.error("Caught EventVersionConflictException",ex);
+        ErrorDto errorDto = new ErrorDto();
+        errorDto.setError("Event was changed by someone else, reload it and try again");
+        return new ResponseEntity<>(errorDto, HttpStatus.CONFLICT);
+    }
+
+    // Any versioned row written concurrently, not only events
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorDto> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex){
+        log.error("Caught OptimisticLockingFailureException",ex);
+        ErrorDto errorDto = new ErrorDto();
+        errorDto.setError("The resource was changed by someone else, reload it and try again");
+        return new ResponseEntity<>(errorDto, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorDto> handleInvalidCursorException(InvalidCursorException ex){
+        log.error("Caught InvalidCursorException",ex);
+        ErrorDto errorDto = new ErrorDto();
+        errorDto.setError("Invalid page cursor");
+        return new ResponseEntity<>(errorDto, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidEventFilterException.class)
+    public ResponseEntity<ErrorDto> handleInvalidEventFilterException(InvalidEventFilterException ex){
+        log.error("Caught InvalidEventFilterException",ex);
+        ErrorDto errorDto = new ErrorDto();
+        errorDto.setError(ex.getMessage());
+        return new ResponseEntity<>(errorDto, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidPurchaseException.class)
+    public ResponseEntity<ErrorDto> handleInvalidPurchaseException(InvalidPurchaseException ex){
+        log.error("Caught InvalidPurchaseException",ex);
+        ErrorDto errorDto = new ErrorDto();
+        errorDto.setError(ex.getMessage());
+        return new ResponseEntity<>(errorDto, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(TicketTypeNotFoundException.class)
     public ResponseEntity<ErrorDto> handleTicketTypeNotFoundException(TicketTypeNotFoundException ex){
         log.error("Caught TicketTypeNotFoundException",ex);
@@ -1,14 +1,28 @@
 package com.anjesh.tickets.controllers;
 
+import com.anjesh.tickets.domain.PublishedEventFilter;
+import com.anjesh.tickets.domain.Versioned;
+import com.anjesh.tickets.domain.dtos.CursorPageResponseDto;
+import com.anjesh.tickets.domain.dtos.EventSuggestionResponseDto;
 import com.anjesh.tickets.domain.dtos.GetPublishedEventDetailsResponseDto;
 import com.anjesh.tickets.domain.dtos.ListPublishedEventResponseDto;
+import com.anjesh.tickets.domain.dtos.PublishedEventFacetsResponseDto;
+import com.anjesh.tickets.domain.dtos.PublishedEventFilterRequestDto;
+import com.anjesh.tickets.domain.dtos.SliceResponseDto;
+import com.anjesh.tickets.exceptions.InvalidEventFilterException;
+import com.anjesh.tickets.mappers.EventMapper;
 import com.anjesh.tickets.services.EventService;
+import com.anjesh.tickets.services.EventSuggestionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -16,25 +30,91 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class PublishedEventController {
 
+    // Shared caches may store published responses but have to revalidate them
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePublic();
+
     private final EventService eventService;
+    private final EventSuggestionService eventSuggestionService;
+    private final EventMapper eventMapper;
 
     @GetMapping
     public ResponseEntity<Page<ListPublishedEventResponseDto>> listPublishedEvents(
             @RequestParam(required = false) String q,
-            Pageable pageable) {
+            PublishedEventFilterRequestDto filterDto,
+            Pageable pageable,
+            WebRequest webRequest) {
 
-        if (null != q && !q.trim().isEmpty()) {
-            return ResponseEntity.ok(eventService.searchPublishedEvents(q, pageable));
-        } else {
-            return ResponseEntity.ok(eventService.listPublishedEvents(pageable));
+        // Filtered listings are not cached, a ticket type price change would not move the ETag
+        PublishedEventFilter filter = eventMapper.fromDto(filterDto);
+        rejectFilterWith("q", q, filter);
+        if (!filter.isEmpty()) {
+            return ResponseEntity.ok(eventService.filterPublishedEvents(filter, pageable));
         }
+
+        Versioned<Page<ListPublishedEventResponseDto>> events = null != q && !q.trim().isEmpty()
+                ? eventService.searchPublishedEvents(q, pageable)
+                : eventService.listPublishedEvents(pageable);
+        if (webRequest.checkNotModified(events.getETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CACHE_CONTROL).build();
+        }
+        return ResponseEntity.ok().eTag(events.getETag()).cacheControl(CACHE_CONTROL).body(events.getBody());
+    }
+
+    // Pages without totals, opted into with ?total=false, skip the count query
+    @GetMapping(params = {"total=false", "!cursor"})
+    public ResponseEntity<SliceResponseDto<ListPublishedEventResponseDto>> slicePublishedEvents(
+            @RequestParam(required = false) String q,
+            PublishedEventFilterRequestDto filterDto,
+            Pageable pageable) {
+        PublishedEventFilter filter = eventMapper.fromDto(filterDto);
+        rejectFilterWith("q", q, filter);
+        return ResponseEntity.ok(eventService.slicePublishedEvents(q, filter, pageable));
+    }
+
+    // Keyset pages, opted into with ?cursor= and continued with the returned nextCursor
+    @GetMapping(params = {"cursor", "!q"})
+    public ResponseEntity<CursorPageResponseDto<ListPublishedEventResponseDto>> scrollPublishedEvents(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            PublishedEventFilterRequestDto filterDto) {
+        rejectFilterWith("cursor", cursor, eventMapper.fromDto(filterDto));
+        return ResponseEntity.ok(eventService.scrollPublishedEvents(cursor, size));
+    }
+
+    // Counts for narrowing the listing, each facet ignores its own filter
+    @GetMapping(path = "/facets")
+    public ResponseEntity<PublishedEventFacetsResponseDto> getPublishedEventFacets(
+            PublishedEventFilterRequestDto filterDto) {
+        return ResponseEntity.ok(eventService.getPublishedEventFacets(eventMapper.fromDto(filterDto)));
+    }
+
+    // Search-as-you-type, answered from memory without touching the database
+    @GetMapping(path = "/suggestions")
+    public ResponseEntity<List<EventSuggestionResponseDto>> suggestPublishedEvents(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(eventSuggestionService.suggest(q, limit));
     }
 
     @GetMapping(path = "/{eventId}")
     public ResponseEntity<GetPublishedEventDetailsResponseDto> getPublishedEventDetails(
-            @PathVariable UUID eventId) {
-        return eventService.getPublishedEvent(eventId)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+            @PathVariable UUID eventId,
+            WebRequest webRequest) {
+        Versioned<GetPublishedEventDetailsResponseDto> event = eventService.getPublishedEvent(eventId).orElse(null);
+        if (null == event) {
+            return ResponseEntity.notFound().build();
+        }
+        if (webRequest.checkNotModified(event.getETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CACHE_CONTROL).build();
+        }
+        return ResponseEntity.ok().eTag(event.getETag()).cacheControl(CACHE_CONTROL).body(event.getBody());
+    }
+
+    // Search and keyset pages do not apply the filters, so a combination would silently drop them
+    private static void rejectFilterWith(String param, String value, PublishedEventFilter filter) {
+        if (null != value && !value.isBlank() && !filter.isEmpty()) {
+            throw new InvalidEventFilterException(
+                    String.format("Filters cannot be combined with %s", param));
+        }
     }
-}
\ No newline at end of file
+}
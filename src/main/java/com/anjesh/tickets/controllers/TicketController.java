@@ -1,22 +1,36 @@
 package com.anjesh.tickets.controllers;
 
+import com.anjesh.tickets.domain.PurchaseTicketsRequest;
+import com.anjesh.tickets.domain.dtos.CursorPageResponseDto;
 import com.anjesh.tickets.domain.dtos.GetTicketResponseDto;
 import com.anjesh.tickets.domain.dtos.ListTicketResponseDto;
+import com.anjesh.tickets.domain.dtos.PurchaseTicketsRequestDto;
+import com.anjesh.tickets.domain.dtos.SliceResponseDto;
+import com.anjesh.tickets.mappers.TicketMapper;
 import com.anjesh.tickets.services.QrCodeService;
 import com.anjesh.tickets.services.TicketService;
+import com.anjesh.tickets.services.TicketTypeService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.List;
 import java.util.UUID;
 
 import static com.anjesh.tickets.util.JwtUtil.parseUserId;
@@ -28,6 +42,21 @@ public class TicketController {
 
         private final TicketService ticketService;
         private final QrCodeService qrCodeService;
+        private final TicketTypeService ticketTypeService;
+        private final TicketMapper ticketMapper;
+
+        @PostMapping
+        public ResponseEntity<List<ListTicketResponseDto>> purchaseTickets(
+                        @AuthenticationPrincipal Jwt jwt,
+                        @Valid @RequestBody PurchaseTicketsRequestDto purchaseTicketsRequestDto) {
+                PurchaseTicketsRequest purchaseTicketsRequest = ticketMapper.fromDto(purchaseTicketsRequestDto);
+                List<ListTicketResponseDto> tickets = ticketTypeService
+                                .purchaseTickets(parseUserId(jwt), purchaseTicketsRequest)
+                                .stream()
+                                .map(ticketMapper::toListTicketResponseDto)
+                                .toList();
+                return new ResponseEntity<>(tickets, HttpStatus.CREATED);
+        }
 
         @GetMapping
         public Page<ListTicketResponseDto> listTickets(
@@ -38,23 +67,61 @@ public class TicketController {
                                 pageable);
         }
 
+        @GetMapping(params = {"total=false", "!cursor"})
+        public SliceResponseDto<ListTicketResponseDto> sliceTickets(
+                        @AuthenticationPrincipal Jwt jwt,
+                        Pageable pageable) {
+                return ticketService.sliceTicketsForUser(parseUserId(jwt), pageable);
+        }
+
+        @GetMapping(params = "cursor")
+        public CursorPageResponseDto<ListTicketResponseDto> scrollTickets(
+                        @AuthenticationPrincipal Jwt jwt,
+                        @RequestParam String cursor,
+                        @RequestParam(defaultValue = "20") int size) {
+                return ticketService.scrollTicketsForUser(parseUserId(jwt), cursor, size);
+        }
+
         @GetMapping(path = "/{ticketId}")
         public ResponseEntity<GetTicketResponseDto> getTicket(
                         @AuthenticationPrincipal Jwt jwt,
-                        @PathVariable UUID ticketId) {
+                        @PathVariable UUID ticketId,
+                        WebRequest webRequest) {
+                UUID userId = parseUserId(jwt);
+                String eTag = ticketService.getTicketVersionForUser(userId, ticketId).orElse(null);
+                if (null == eTag) {
+                        return ResponseEntity.notFound().build();
+                }
+                if (webRequest.checkNotModified(eTag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                        .cacheControl(CacheControl.noCache().cachePrivate())
+                                        .build();
+                }
+
                 return ticketService
-                                .getTicketForUser(parseUserId(jwt), ticketId)
-                                .map(ResponseEntity::ok)
+                                .getTicketForUser(userId, ticketId)
+                                .map(ticket -> ResponseEntity.ok()
+                                                .eTag(eTag)
+                                                .cacheControl(CacheControl.noCache().cachePrivate())
+                                                .body(ticket))
                                 .orElse(ResponseEntity.notFound().build());
         }
 
         @GetMapping(path = "/{ticketId}/qr-codes")
         public ResponseEntity<byte[]> getTicketQrCode(
                         @AuthenticationPrincipal Jwt jwt,
-                        @PathVariable UUID ticketId) {
-                byte[] qrCodeImage = qrCodeService.getQrCodeImageForUserAndTicket(
-                                parseUserId(jwt),
-                                ticketId);
+                        @PathVariable UUID ticketId,
+                        WebRequest webRequest) {
+                UUID userId = parseUserId(jwt);
+                // Revalidated on every use, the code changes when the organizer moves the event
+                String eTag = qrCodeService.getQrCodeVersionForUserAndTicket(userId, ticketId);
+                if (webRequest.checkNotModified(eTag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                        .cacheControl(CacheControl.noCache().cachePrivate())
+                                        .build();
+                }
+
+                byte[] qrCodeImage = qrCodeService.getQrCodeImageForUserAndTicket(userId, ticketId);
 
                 HttpHeaders headers = new HttpHeaders();
                 headers.setContentType(MediaType.IMAGE_PNG);
@@ -62,6 +129,8 @@ public class TicketController {
 
                 return ResponseEntity.ok()
                                 .headers(headers)
+                                .eTag(eTag)
+                                .cacheControl(CacheControl.noCache().cachePrivate())
                                 .body(qrCodeImage);
         }
 
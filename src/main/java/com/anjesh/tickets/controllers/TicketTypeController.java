@@ -1,6 +1,10 @@
 package com.anjesh.tickets.controllers;
 
+import com.anjesh.tickets.domain.PurchaseTicketsItemRequest;
+import com.anjesh.tickets.domain.PurchaseTicketsRequest;
 import com.anjesh.tickets.services.TicketTypeService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -8,15 +12,19 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
 import java.util.UUID;
 
 import static com.anjesh.tickets.util.JwtUtil.parseUserId;
 
 @RestController
 @RequiredArgsConstructor
+@Validated
 @RequestMapping(path = "/api/v1/events/{eventId}/ticket-types")
 public class TicketTypeController {
 
@@ -25,9 +33,12 @@ public class TicketTypeController {
     @PostMapping(path = "/{ticketTypeId}/tickets")
     public ResponseEntity<Void> purchaseTicket(
             @AuthenticationPrincipal Jwt jwt,
-            @PathVariable UUID ticketTypeId
+            @PathVariable UUID ticketTypeId,
+            @RequestParam(defaultValue = "1") @Min(1) @Max(20) int quantity
     ){
-        ticketTypeService.purchaseTicket(parseUserId(jwt), ticketTypeId);
+        PurchaseTicketsRequest request = new PurchaseTicketsRequest(
+                List.of(new PurchaseTicketsItemRequest(ticketTypeId, quantity)));
+        ticketTypeService.purchaseTickets(parseUserId(jwt), request);
 
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
@@ -1,11 +1,14 @@
 package com.anjesh.tickets.controllers;
 
+import com.anjesh.tickets.domain.ValidateTicketsRequest;
 import com.anjesh.tickets.domain.dtos.TicketValidationRequestDto;
 import com.anjesh.tickets.domain.dtos.TicketValidationResponseDto;
+import com.anjesh.tickets.domain.dtos.ValidateTicketsRequestDto;
 import com.anjesh.tickets.domain.entities.TicketValidation;
 import com.anjesh.tickets.domain.entities.TicketValidationMethod;
 import com.anjesh.tickets.mappers.TicketValidationMapper;
 import com.anjesh.tickets.services.TicketValidationService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -13,6 +16,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping(path = "/api/v1/ticket-validations")
 @RequiredArgsConstructor
@@ -27,7 +32,11 @@ public class TicketValidationController {
     ){
         TicketValidationMethod method = ticketValidationRequestDto.getMethod();
         TicketValidation ticketValidation;
-        if(TicketValidationMethod.MANUAL.equals(method)){
+        if(null != ticketValidationRequestDto.getPayload()){
+            ticketValidation = ticketValidationService.validateTicketByQrPayload(
+                    ticketValidationRequestDto.getPayload(),
+                    ticketValidationRequestDto.getEventId());
+        }else if(TicketValidationMethod.MANUAL.equals(method)){
             ticketValidation = ticketValidationService.validateTicketManually(
                     ticketValidationRequestDto.getId());
         }else {
@@ -40,4 +49,17 @@ public class TicketValidationController {
 
     }
 
+    @PostMapping(path = "/batch")
+    public ResponseEntity<List<TicketValidationResponseDto>> validateTickets(
+            @Valid @RequestBody ValidateTicketsRequestDto validateTicketsRequestDto
+    ){
+        ValidateTicketsRequest validateTicketsRequest = ticketValidationMapper.fromDto(validateTicketsRequestDto);
+        List<TicketValidationResponseDto> ticketValidations = ticketValidationService
+                .validateTickets(validateTicketsRequest)
+                .stream()
+                .map(ticketValidationMapper::toTicketValidationResponseDto)
+                .toList();
+        return ResponseEntity.ok(ticketValidations);
+    }
+
 }
@@ -12,5 +12,6 @@ public class CreateTicketTypeRequest {
     private Double price;
     private String description;
     private Integer totalAvailable;
+    private Integer inventoryShardCount;
 
 }
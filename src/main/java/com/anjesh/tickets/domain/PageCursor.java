@@ -0,0 +1,51 @@
+package com.anjesh.tickets.domain;
+
+import com.anjesh.tickets.exceptions.InvalidCursorException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position after the last row of a keyset page, ordered by creation time then ID. Clients only
+ * ever see it as an opaque token.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageCursor {
+
+    private static final int TOKEN_BYTES = 28;
+
+    private LocalDateTime createdAt;
+    private UUID id;
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(TOKEN_BYTES)
+                .putLong(createdAt.toEpochSecond(ZoneOffset.UTC))
+                .putInt(createdAt.getNano())
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token);
+            if (bytes.length != TOKEN_BYTES) {
+                throw new InvalidCursorException("Cursor has the wrong length");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            LocalDateTime createdAt = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            return new PageCursor(createdAt, new UUID(buffer.getLong(), buffer.getLong()));
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new InvalidCursorException("Cursor is not a valid token", ex);
+        }
+    }
+}
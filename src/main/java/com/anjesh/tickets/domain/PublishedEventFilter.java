@@ -0,0 +1,24 @@
+package com.anjesh.tickets.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PublishedEventFilter {
+    // Events taking place at any point between from and to
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private String venue;
+    // Events with at least one ticket type priced from minPrice up to but not including maxPrice
+    private Double minPrice;
+    private Double maxPrice;
+
+    public boolean isEmpty() {
+        return null == from && null == to && null == venue && null == minPrice && null == maxPrice;
+    }
+}
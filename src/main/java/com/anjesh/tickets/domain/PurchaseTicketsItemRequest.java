@@ -0,0 +1,15 @@
+package com.anjesh.tickets.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PurchaseTicketsItemRequest {
+    private UUID ticketTypeId;
+    private Integer quantity;
+}
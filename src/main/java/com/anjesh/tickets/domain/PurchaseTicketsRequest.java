@@ -0,0 +1,15 @@
+package com.anjesh.tickets.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PurchaseTicketsRequest {
+    private List<PurchaseTicketsItemRequest> items = new ArrayList<>();
+}
@@ -0,0 +1,19 @@
+package com.anjesh.tickets.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QrCodePayload {
+    private UUID qrCodeId;
+    private UUID ticketId;
+    private UUID eventId;
+    private LocalDateTime validFrom;
+    private LocalDateTime validUntil;
+}
@@ -0,0 +1,19 @@
+package com.anjesh.tickets.domain;
+
+import com.anjesh.tickets.domain.entities.TicketValidationMethod;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketScan {
+    private UUID id;
+    private String payload;
+    private TicketValidationMethod method;
+    private LocalDateTime scannedAt;
+}
@@ -22,6 +22,7 @@ public class UpdateEventRequest {
     private LocalDateTime salesStart;
     private LocalDateTime salesEnd;
     private EventStatusEnum status;
+    private Long version;
     private List<UpdateTicketTypeRequest> ticketTypes = new ArrayList<>();
 
 
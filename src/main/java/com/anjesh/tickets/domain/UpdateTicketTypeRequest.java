@@ -15,5 +15,6 @@ public class UpdateTicketTypeRequest {
     private Double price;
     private String description;
     private Integer totalAvailable;
+    private Integer inventoryShardCount;
 
 }
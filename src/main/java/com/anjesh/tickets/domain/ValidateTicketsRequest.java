@@ -0,0 +1,17 @@
+package com.anjesh.tickets.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ValidateTicketsRequest {
+    private UUID eventId;
+    private List<TicketScan> scans = new ArrayList<>();
+}
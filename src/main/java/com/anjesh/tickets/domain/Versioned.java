@@ -0,0 +1,15 @@
+package com.anjesh.tickets.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A representation together with the ETag of the state it was read from, cached as one value
+ * so a response can never pair a body with the validator of a different version.
+ */
+@Getter
+@AllArgsConstructor
+public class Versioned<T> {
+    private final String eTag;
+    private final T body;
+}
@@ -24,6 +24,7 @@ public class CreateEventResponseDto {
     private List<CreateTicketTypeResponseDto> ticketTypes;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 
 
 
@@ -0,0 +1,17 @@
+package com.anjesh.tickets.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageResponseDto<T> {
+    private List<T> content = new ArrayList<>();
+    // Null on the last page
+    private String nextCursor;
+}
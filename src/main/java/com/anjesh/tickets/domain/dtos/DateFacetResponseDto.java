@@ -0,0 +1,17 @@
+package com.anjesh.tickets.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DateFacetResponseDto {
+    private String label;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private long count;
+}
@@ -0,0 +1,22 @@
+package com.anjesh.tickets.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventAttendanceResponseDto {
+    private UUID eventId;
+    private long admitted;
+    // Admissions during the last full second
+    private long entriesPerSecond;
+    private List<TicketTypeAttendanceResponseDto> ticketTypes = new ArrayList<>();
+    private LocalDateTime timestamp;
+}
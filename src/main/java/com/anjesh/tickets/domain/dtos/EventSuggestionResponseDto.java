@@ -0,0 +1,18 @@
+package com.anjesh.tickets.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventSuggestionResponseDto {
+    private UUID id;
+    private String name;
+    private String venue;
+    private LocalDateTime start;
+}
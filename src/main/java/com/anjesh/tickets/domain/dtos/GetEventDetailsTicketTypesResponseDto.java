@@ -16,6 +16,7 @@ public class GetEventDetailsTicketTypesResponseDto {
     private Double price;
     private String description;
     private Integer totalAvailable;
+    private Integer inventoryShardCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -0,0 +1,14 @@
+package com.anjesh.tickets.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PriceFacetResponseDto {
+    private Double minPrice;
+    private Double maxPrice;
+    private long count;
+}
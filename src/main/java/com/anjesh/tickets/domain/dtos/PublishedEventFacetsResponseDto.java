@@ -0,0 +1,18 @@
+package com.anjesh.tickets.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PublishedEventFacetsResponseDto {
+    private long total;
+    private List<VenueFacetResponseDto> venues = new ArrayList<>();
+    private List<PriceFacetResponseDto> prices = new ArrayList<>();
+    private List<DateFacetResponseDto> dates = new ArrayList<>();
+}
@@ -0,0 +1,24 @@
+package com.anjesh.tickets.domain.dtos;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PurchaseTicketsItemRequestDto {
+
+    @NotNull(message = "Ticket type ID must be provided")
+    private UUID ticketTypeId;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    @Max(value = 20, message = "Quantity must be at most 20")
+    private Integer quantity;
+}
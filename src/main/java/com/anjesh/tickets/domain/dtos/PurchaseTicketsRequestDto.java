@@ -0,0 +1,21 @@
+package com.anjesh.tickets.domain.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PurchaseTicketsRequestDto {
+
+    @NotEmpty(message = "At least one ticket type is required")
+    @Size(max = 10, message = "A purchase can contain at most 10 ticket types")
+    @Valid
+    private List<PurchaseTicketsItemRequestDto> items;
+}
@@ -0,0 +1,20 @@
+package com.anjesh.tickets.domain.dtos;
+
+import com.anjesh.tickets.domain.entities.TicketValidationMethod;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ScanMessageDto {
+    // Echoed back so devices can match results to scans
+    private Long seq;
+    private UUID id;
+    private String payload;
+    private TicketValidationMethod method;
+    private UUID eventId;
+}
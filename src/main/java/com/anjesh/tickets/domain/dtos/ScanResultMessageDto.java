@@ -0,0 +1,18 @@
+package com.anjesh.tickets.domain.dtos;
+
+import com.anjesh.tickets.domain.entities.TicketValidationStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ScanResultMessageDto {
+    private Long seq;
+    private UUID ticketId;
+    private TicketValidationStatusEnum status;
+    private String error;
+}
@@ -0,0 +1,18 @@
+package com.anjesh.tickets.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SliceResponseDto<T> {
+    private List<T> content = new ArrayList<>();
+    private int number;
+    private int size;
+    private boolean hasNext;
+}
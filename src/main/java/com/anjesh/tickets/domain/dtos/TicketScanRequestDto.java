@@ -0,0 +1,22 @@
+package com.anjesh.tickets.domain.dtos;
+
+import com.anjesh.tickets.domain.entities.TicketValidationMethod;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketScanRequestDto {
+    private UUID id;
+    private String payload;
+    private TicketValidationMethod method;
+
+    @NotNull(message = "Scan time must be provided")
+    private LocalDateTime scannedAt;
+}
@@ -0,0 +1,17 @@
+package com.anjesh.tickets.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketTypeAttendanceResponseDto {
+    private UUID id;
+    private String name;
+    private long admitted;
+    private long entriesPerSecond;
+}
@@ -13,4 +13,8 @@ import java.util.UUID;
 public class TicketValidationRequestDto {
     private UUID id;
     private TicketValidationMethod method;
+    // Raw QR content, either a QR code ID or a signed payload
+    private String payload;
+    // Event the gate is admitting for, codes for any other event are rejected
+    private UUID eventId;
 }
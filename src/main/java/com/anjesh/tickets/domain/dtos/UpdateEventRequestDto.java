@@ -38,6 +38,10 @@ public class UpdateEventRequestDto {
     @NotNull(message = "Event status must be provided")
     private EventStatusEnum status;
 
+    // The version the edit was based on, a newer one on the server rejects the update
+    @NotNull(message = "Event version must be provided")
+    private Long version;
+
     @NotEmpty(message = "At least one ticket type is required")
     @Valid
     private List<UpdateTicketTypeRequestDto> ticketTypes;
@@ -24,6 +24,7 @@ public class UpdateEventResponseDto {
     private List<UpdateTicketTypeResponseDto> ticketTypes;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 
 
 
@@ -1,5 +1,7 @@
 package com.anjesh.tickets.domain.dtos;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -24,4 +26,8 @@ public class UpdateTicketTypeRequestDto {
     private Double price;
     private String description;
     private Integer totalAvailable;
+
+    @Min(value = 1, message = "Inventory shard count must be at least 1")
+    @Max(value = 64, message = "Inventory shard count must be at most 64")
+    private Integer inventoryShardCount;
 }
@@ -0,0 +1,24 @@
+package com.anjesh.tickets.domain.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ValidateTicketsRequestDto {
+
+    private UUID eventId;
+
+    @NotEmpty(message = "At least one scan is required")
+    @Size(max = 1000, message = "A batch can contain at most 1000 scans")
+    @Valid
+    private List<TicketScanRequestDto> scans;
+}
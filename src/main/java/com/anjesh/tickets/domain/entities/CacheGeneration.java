@@ -0,0 +1,36 @@
+package com.anjesh.tickets.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Objects;
+
+// A counter bumped by every write to the cached data, nodes compare it to notice writes made elsewhere
+@Entity
+@Table(name = "cache_generations")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheGeneration {
+
+    @Id
+    @Column(name = "name", nullable = false, updatable = false)
+    private String name;
+
+    @Column(name = "generation", nullable = false)
+    private Long generation;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CacheGeneration that = (CacheGeneration) o;
+        return Objects.equals(getName(), that.getName()) && Objects.equals(getGeneration(), that.getGeneration());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getName(), getGeneration());
+    }
+}
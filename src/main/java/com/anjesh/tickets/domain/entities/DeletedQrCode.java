@@ -0,0 +1,43 @@
+package com.anjesh.tickets.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+// Tombstone of a QR code deleted with its ticket type, so delta gate manifests can revoke it
+@Entity
+@Table(name = "deleted_qr_codes", indexes = {
+        @Index(name = "idx_deleted_qr_codes_event_deleted_at", columnList = "event_id, deleted_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeletedQrCode {
+
+    @Id
+    @Column(name = "qr_code_id", nullable = false, updatable = false)
+    private UUID qrCodeId;
+
+    @Column(name = "event_id", nullable = false, updatable = false)
+    private UUID eventId;
+
+    @Column(name = "deleted_at", nullable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DeletedQrCode that = (DeletedQrCode) o;
+        return Objects.equals(getQrCodeId(), that.getQrCodeId()) && Objects.equals(getDeletedAt(), that.getDeletedAt());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getQrCodeId(), getDeletedAt());
+    }
+}
@@ -5,6 +5,7 @@ import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -12,7 +13,12 @@ import java.util.Objects;
 import java.util.UUID;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+        @Index(name = "idx_events_status_created_at_id", columnList = "status, created_at, id"),
+        @Index(name = "idx_events_organizer_created_at_id", columnList = "organizer_id, created_at, id"),
+        @Index(name = "idx_events_status_ends_at_start", columnList = "status, ends_at, event_start"),
+        @Index(name = "idx_events_status_venue", columnList = "status, venue")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,6 +26,9 @@ import java.util.UUID;
 @Builder
 public class Event {
 
+    // How long an event without an end counts as taking place
+    public static final Duration OPEN_ENDED_DURATION = Duration.ofDays(1);
+
     @Id
     @Column(name = "id", updatable = false, nullable = false)
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -34,6 +43,11 @@ public class Event {
     @Column(name = "event_end")
     private LocalDateTime end;
 
+    // The end, or the assumed end of an open-ended event, so date filters are plain ranges on an index
+    @Column(name = "ends_at")
+    @Setter(AccessLevel.NONE)
+    private LocalDateTime endsAt;
+
     @Column(name = "venue", nullable = false)
     private String venue;
 
@@ -60,6 +74,11 @@ public class Event {
     @OneToMany(mappedBy = "event", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<TicketType> ticketTypes = new ArrayList<>();
 
+    // A stale organizer edit fails instead of overwriting a newer one
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @CreatedDate
     @Column(name = "created_at", updatable = false, nullable = false)
     private LocalDateTime createdAt;
@@ -68,6 +87,12 @@ public class Event {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    @PrePersist
+    @PreUpdate
+    void updateEndsAt() {
+        endsAt = null != end || null == start ? end : start.plus(OPEN_ENDED_DURATION);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
@@ -16,7 +17,7 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-public class QrCode {
+public class QrCode implements Persistable<UUID> {
 
     @Id
     @Column(name = "id", nullable = false, updatable = false)
@@ -26,7 +27,8 @@ public class QrCode {
     @Enumerated(EnumType.STRING)
     private QrCodeStatusEnum status;
 
-    @Column(name = "value",columnDefinition = "TEXT",nullable = false)
+    // Base64 PNG, null until the image has been rendered
+    @Column(name = "value",columnDefinition = "TEXT")
     private String value;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -41,6 +43,24 @@ public class QrCode {
     @Column(name = "updated_at",nullable = false)
     private LocalDateTime updatedAt;
 
+    // IDs are assigned up front, without this save would merge and select every new code first
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newQrCode = true;
+
+    @Override
+    public boolean isNew() {
+        return newQrCode;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newQrCode = false;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -12,7 +12,9 @@ import java.util.Objects;
 import java.util.UUID;
 
 @Entity
-@Table(name = "tickets")
+@Table(name = "tickets", indexes = {
+        @Index(name = "idx_tickets_purchaser_created_at_id", columnList = "purchaser_id, created_at, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -37,6 +39,10 @@ public class Ticket {
     @JoinColumn(name = "purchaser_id")
     private User purchaser;
 
+    // Set by the first successful validation, later scans are rejected
+    @Column(name = "redeemed_at")
+    private LocalDateTime redeemedAt;
+
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL)
     private List<TicketValidation> validations = new ArrayList<>();
 
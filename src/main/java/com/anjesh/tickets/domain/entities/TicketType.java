@@ -2,6 +2,7 @@ package com.anjesh.tickets.domain.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
@@ -12,12 +13,15 @@ import java.util.Objects;
 import java.util.UUID;
 
 @Entity
-@Table(name = "ticket_types")  // Confirmed on page 89
+@Table(name = "ticket_types", indexes = {  // Confirmed on page 89
+        @Index(name = "idx_ticket_types_event_price", columnList = "event_id, price")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@DynamicUpdate
 public class TicketType {
 
     @Id
@@ -37,13 +41,35 @@ public class TicketType {
     @Column(name = "total_available")
     private Integer totalAvailable;
 
+    // Maintained by TicketTypeRepository.reserveTickets, never written from a loaded entity
+    @Column(name = "tickets_sold")
+    private Integer ticketsSold;
+
+    // More than one shard spreads remaining stock over InventoryShard rows to avoid a single hot row
+    @Column(name = "inventory_shard_count")
+    private Integer inventoryShardCount;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "event_id")
     private Event event;
 
     @OneToMany(mappedBy = "ticketType", cascade = CascadeType.ALL)
+    @Builder.Default
     private List<Ticket> tickets = new ArrayList<>();
 
+    @OneToMany(mappedBy = "ticketType", cascade = CascadeType.REMOVE)
+    @Builder.Default
+    private List<InventoryShard> inventoryShards = new ArrayList<>();
+
+    @OneToMany(mappedBy = "ticketType", cascade = CascadeType.REMOVE)
+    @Builder.Default
+    private List<InventoryLease> inventoryLeases = new ArrayList<>();
+
+    // Bulk stock updates do not bump it, so sales never conflict with organizer edits
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @CreatedDate
     @Column(name = "created_at", updatable = false, nullable = false)
     private LocalDateTime createdAt;
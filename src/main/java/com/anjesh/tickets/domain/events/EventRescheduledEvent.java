@@ -0,0 +1,12 @@
+package com.anjesh.tickets.domain.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class EventRescheduledEvent {
+    private UUID eventId;
+}
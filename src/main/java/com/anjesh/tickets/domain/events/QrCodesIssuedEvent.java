@@ -0,0 +1,13 @@
+package com.anjesh.tickets.domain.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class QrCodesIssuedEvent {
+    private List<UUID> qrCodeIds;
+}
@@ -0,0 +1,18 @@
+package com.anjesh.tickets.domain.projections;
+
+import com.anjesh.tickets.domain.entities.EventStatusEnum;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface EventListItem {
+    UUID getId();
+    String getName();
+    LocalDateTime getStart();
+    LocalDateTime getEnd();
+    String getVenue();
+    LocalDateTime getSalesStart();
+    LocalDateTime getSalesEnd();
+    EventStatusEnum getStatus();
+    LocalDateTime getCreatedAt();
+}
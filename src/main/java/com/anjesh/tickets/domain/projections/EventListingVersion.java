@@ -0,0 +1,8 @@
+package com.anjesh.tickets.domain.projections;
+
+import java.time.LocalDateTime;
+
+public interface EventListingVersion {
+    LocalDateTime getUpdatedAt();
+    Long getEventCount();
+}
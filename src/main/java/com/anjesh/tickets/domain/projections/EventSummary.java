@@ -0,0 +1,11 @@
+package com.anjesh.tickets.domain.projections;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface EventSummary {
+    UUID getId();
+    String getName();
+    String getVenue();
+    LocalDateTime getStart();
+}
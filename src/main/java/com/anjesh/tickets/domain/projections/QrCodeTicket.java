@@ -0,0 +1,7 @@
+package com.anjesh.tickets.domain.projections;
+
+import java.util.UUID;
+
+public interface QrCodeTicket extends TicketAdmission {
+    UUID getId();
+}
@@ -0,0 +1,9 @@
+package com.anjesh.tickets.domain.projections;
+
+import java.util.UUID;
+
+public interface TicketAdmission {
+    UUID getTicketId();
+    UUID getTicketTypeId();
+    UUID getEventId();
+}
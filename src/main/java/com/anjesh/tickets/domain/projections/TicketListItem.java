@@ -0,0 +1,15 @@
+package com.anjesh.tickets.domain.projections;
+
+import com.anjesh.tickets.domain.entities.TicketStatusEnum;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface TicketListItem {
+    UUID getId();
+    TicketStatusEnum getStatus();
+    LocalDateTime getCreatedAt();
+    UUID getTicketTypeId();
+    String getTicketTypeName();
+    Double getTicketTypePrice();
+}
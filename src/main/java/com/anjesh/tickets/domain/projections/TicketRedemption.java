@@ -0,0 +1,7 @@
+package com.anjesh.tickets.domain.projections;
+
+import com.anjesh.tickets.domain.entities.TicketValidationStatusEnum;
+
+public interface TicketRedemption extends TicketAdmission {
+    TicketValidationStatusEnum getStatus();
+}
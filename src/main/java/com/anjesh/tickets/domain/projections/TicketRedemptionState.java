@@ -0,0 +1,11 @@
+package com.anjesh.tickets.domain.projections;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface TicketRedemptionState {
+    UUID getTicketId();
+    UUID getQrCodeId();
+    UUID getTicketTypeId();
+    LocalDateTime getRedeemedAt();
+}
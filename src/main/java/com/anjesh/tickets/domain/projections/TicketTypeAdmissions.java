@@ -0,0 +1,10 @@
+package com.anjesh.tickets.domain.projections;
+
+import java.util.UUID;
+
+public interface TicketTypeAdmissions {
+    UUID getEventId();
+    UUID getTicketTypeId();
+    String getName();
+    Long getAdmitted();
+}
@@ -0,0 +1,12 @@
+package com.anjesh.tickets.domain.projections;
+
+import java.util.UUID;
+
+public interface TicketTypeListItem {
+    UUID getId();
+    UUID getEventId();
+    String getName();
+    Double getPrice();
+    String getDescription();
+    Integer getTotalAvailable();
+}
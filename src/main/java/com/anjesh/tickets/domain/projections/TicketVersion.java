@@ -0,0 +1,9 @@
+package com.anjesh.tickets.domain.projections;
+
+import java.time.LocalDateTime;
+
+public interface TicketVersion {
+    LocalDateTime getUpdatedAt();
+    LocalDateTime getTicketTypeUpdatedAt();
+    LocalDateTime getEventUpdatedAt();
+}
@@ -0,0 +1,22 @@
+package com.anjesh.tickets.exceptions;
+
+public class InvalidEventFilterException extends EventTicketException{
+    public InvalidEventFilterException() {
+    }
+
+    public InvalidEventFilterException(String message) {
+        super(message);
+    }
+
+    public InvalidEventFilterException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public InvalidEventFilterException(Throwable cause) {
+        super(cause);
+    }
+
+    public InvalidEventFilterException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
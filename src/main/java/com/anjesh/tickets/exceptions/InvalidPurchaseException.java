@@ -0,0 +1,22 @@
+package com.anjesh.tickets.exceptions;
+
+public class InvalidPurchaseException extends EventTicketException{
+    public InvalidPurchaseException() {
+    }
+
+    public InvalidPurchaseException(String message) {
+        super(message);
+    }
+
+    public InvalidPurchaseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public InvalidPurchaseException(Throwable cause) {
+        super(cause);
+    }
+
+    public InvalidPurchaseException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
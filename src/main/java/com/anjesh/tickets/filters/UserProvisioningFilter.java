@@ -1,7 +1,7 @@
 package com.anjesh.tickets.filters;
 
-import com.anjesh.tickets.domain.entities.User;
 import com.anjesh.tickets.repositories.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,6 +14,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Component
@@ -21,6 +22,7 @@ import java.util.UUID;
 public class UserProvisioningFilter extends OncePerRequestFilter {
 
     private final UserRepository userRepository;
+    private final Cache<UUID, Boolean> knownUserCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -33,13 +35,13 @@ public class UserProvisioningFilter extends OncePerRequestFilter {
 
             UUID keycloakId = UUID.fromString(jwt.getSubject());
 
-            if(!userRepository.existsById(keycloakId)){
-
-                User user = new User();
-                user.setId(keycloakId);
-                user.setName(jwt.getClaimAsString("preferred_username"));
-                user.setEmail(jwt.getClaimAsString("email"));
-                userRepository.save(user);
+            if (null == knownUserCache.getIfPresent(keycloakId)) {
+                userRepository.insertIfAbsent(
+                        keycloakId,
+                        jwt.getClaimAsString("preferred_username"),
+                        jwt.getClaimAsString("email"),
+                        LocalDateTime.now());
+                knownUserCache.put(keycloakId, Boolean.TRUE);
             }
 
         }
@@ -0,0 +1,25 @@
+package com.anjesh.tickets.jobs;
+
+import com.anjesh.tickets.services.AttendanceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class AttendanceJob {
+
+    private final AttendanceService attendanceService;
+
+    @Scheduled(fixedRate = 1000)
+    public void publishEntryRates() {
+        attendanceService.publishEntryRates();
+    }
+
+    @Scheduled(fixedDelayString = "${tickets.attendance.reconcile-interval-ms:30000}")
+    public void reconcile() {
+        attendanceService.reconcile();
+    }
+}
@@ -0,0 +1,22 @@
+package com.anjesh.tickets.jobs;
+
+import com.anjesh.tickets.services.InventoryLeaseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class InventoryLeaseExpiryJob {
+
+    private final InventoryLeaseService inventoryLeaseService;
+
+    @Scheduled(fixedDelayString = "${tickets.inventory.lease.expiry-check-interval-ms:5000}")
+    public void releaseExpiredLeases() {
+        if (inventoryLeaseService.isEnabled()) {
+            inventoryLeaseService.releaseExpiredLeases();
+        }
+    }
+}
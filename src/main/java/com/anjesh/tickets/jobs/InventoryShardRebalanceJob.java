@@ -0,0 +1,31 @@
+package com.anjesh.tickets.jobs;
+
+import com.anjesh.tickets.repositories.InventoryShardRepository;
+import com.anjesh.tickets.services.InventoryShardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+// Scheduled beans must be created eagerly, the application runs with lazy initialization
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class InventoryShardRebalanceJob {
+
+    private final InventoryShardRepository inventoryShardRepository;
+    private final InventoryShardService inventoryShardService;
+
+    @Value("${tickets.inventory.shards.low-watermark:5}")
+    private int lowWatermark;
+
+    @Scheduled(fixedDelayString = "${tickets.inventory.shards.rebalance-interval-ms:5000}")
+    public void rebalanceLowShards() {
+        for (UUID ticketTypeId : inventoryShardRepository.findTicketTypeIdsToRebalance(lowWatermark)) {
+            inventoryShardService.rebalance(ticketTypeId);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.anjesh.tickets.jobs;
+
+import com.anjesh.tickets.services.EventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class PublishedEventCacheJob {
+
+    private final EventService eventService;
+
+    @Scheduled(fixedDelayString = "${tickets.published-events.cache.generation-check-interval-ms:5000}")
+    public void checkGeneration() {
+        eventService.checkPublishedEventGeneration();
+    }
+}
@@ -0,0 +1,54 @@
+package com.anjesh.tickets.jobs;
+
+import com.anjesh.tickets.repositories.QrCodeRepository;
+import com.anjesh.tickets.services.QrCodeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Picks up QR codes whose image was never rendered, e.g. after a full queue or a restart
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+@Slf4j
+public class QrCodeRenderingJob {
+
+    private final QrCodeRepository qrCodeRepository;
+    private final QrCodeService qrCodeService;
+
+    @Value("${tickets.qr-codes.store-images:true}")
+    private boolean storeImages;
+
+    @Value("${tickets.qr-codes.rendering.sweep-batch-size:100}")
+    private int batchSize;
+
+    @Value("${tickets.qr-codes.rendering.sweep-grace-period:PT30S}")
+    private Duration gracePeriod;
+
+    @Scheduled(fixedDelayString = "${tickets.qr-codes.rendering.sweep-interval-ms:30000}")
+    public void renderPendingQrCodes() {
+        if (!storeImages) {
+            return;
+        }
+
+        List<UUID> qrCodeIds = qrCodeRepository.findIdsWithoutImage(
+                LocalDateTime.now().minus(gracePeriod), PageRequest.of(0, batchSize));
+
+        for (UUID qrCodeId : qrCodeIds) {
+            try {
+                qrCodeService.renderQrCode(qrCodeId);
+            } catch (RuntimeException ex) {
+                log.error("Failed to render QR code {}", qrCodeId, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.anjesh.tickets.jobs;
+
+import com.anjesh.tickets.services.RedemptionIndexService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class RedemptionIndexJob {
+
+    private final RedemptionIndexService redemptionIndexService;
+
+    @Scheduled(fixedDelayString = "${tickets.gate.redemption-index.refresh-interval-ms:60000}")
+    public void refreshIndexes() {
+        if (redemptionIndexService.isEnabled()) {
+            redemptionIndexService.refreshIndexes();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tickets.gate.redemption-index.revocation-interval-ms:5000}")
+    public void revokeDeactivatedQrCodes() {
+        if (redemptionIndexService.isEnabled()) {
+            redemptionIndexService.revokeDeactivatedQrCodes();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tickets.gate.redemption-index.flush-interval-ms:250}")
+    public void flushValidations() {
+        if (redemptionIndexService.isEnabled()) {
+            redemptionIndexService.flush();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.anjesh.tickets.jobs;
+
+import com.anjesh.tickets.services.EventSuggestionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Picks up events published, edited or deleted on other nodes, the first build runs on startup
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class TypeaheadIndexRebuildJob {
+
+    private final EventSuggestionService eventSuggestionService;
+
+    @Scheduled(fixedDelayString = "${tickets.published-events.typeahead.rebuild-interval-ms:300000}",
+            initialDelayString = "${tickets.published-events.typeahead.rebuild-interval-ms:300000}")
+    public void rebuildIndex() {
+        eventSuggestionService.rebuild();
+    }
+}
@@ -0,0 +1,24 @@
+package com.anjesh.tickets.listeners;
+
+import com.anjesh.tickets.domain.events.PublishedEventChangedEvent;
+import com.anjesh.tickets.services.EventSuggestionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Re-reads a changed event into the typeahead index after commit, adding newly published
+ * events and dropping ones that were unpublished or deleted.
+ */
+@Component
+@RequiredArgsConstructor
+public class EventSuggestionListener {
+
+    private final EventSuggestionService eventSuggestionService;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPublishedEventChanged(PublishedEventChangedEvent event) {
+        eventSuggestionService.refresh(event.getEventId());
+    }
+}
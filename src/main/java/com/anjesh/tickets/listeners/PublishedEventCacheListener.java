@@ -0,0 +1,30 @@
+package com.anjesh.tickets.listeners;
+
+import com.anjesh.tickets.domain.events.PublishedEventChangedEvent;
+import com.anjesh.tickets.services.EventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts cached published listings and details once an organizer's change has committed, so
+ * a reader can never repopulate the cache from the state before the change. The shared
+ * generation is bumped in the same transaction so other nodes drop their caches too.
+ */
+@Component
+@RequiredArgsConstructor
+public class PublishedEventCacheListener {
+
+    private final EventService eventService;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onPublishedEventChanging(PublishedEventChangedEvent event) {
+        eventService.recordPublishedEventChange();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPublishedEventChanged(PublishedEventChangedEvent event) {
+        eventService.evictPublishedEvent(event.getEventId());
+    }
+}
@@ -0,0 +1,78 @@
+package com.anjesh.tickets.listeners;
+
+import com.anjesh.tickets.domain.events.EventRescheduledEvent;
+import com.anjesh.tickets.domain.events.QrCodesIssuedEvent;
+import com.anjesh.tickets.services.QrCodeService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders QR images on a bounded worker pool after the purchase commits. Work that does not
+ * fit in the queue, or is lost on shutdown, is picked up by QrCodeRenderingJob or rendered
+ * on demand when the ticket holder asks for the image.
+ */
+@Component
+@Slf4j
+public class QrCodeRenderingListener {
+
+    private final QrCodeService qrCodeService;
+    private final ThreadPoolExecutor executor;
+
+    public QrCodeRenderingListener(
+            QrCodeService qrCodeService,
+            @Value("${tickets.qr-codes.rendering.threads:2}") int threads,
+            @Value("${tickets.qr-codes.rendering.queue-capacity:1000}") int queueCapacity) {
+        this.qrCodeService = qrCodeService;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "qr-render-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onQrCodesIssued(QrCodesIssuedEvent event) {
+        for (UUID qrCodeId : event.getQrCodeIds()) {
+            try {
+                executor.execute(() -> render(qrCodeId));
+            } catch (RejectedExecutionException ex) {
+                log.warn("QR rendering queue is full, leaving QR code {} for the background job", qrCodeId);
+            }
+        }
+    }
+
+    // Cleared in the rescheduling transaction, so no stored image outlives the window it encodes
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onEventRescheduled(EventRescheduledEvent event) {
+        qrCodeService.clearQrCodeImagesForEvent(event.getEventId());
+    }
+
+    private void render(UUID qrCodeId) {
+        try {
+            qrCodeService.renderQrCode(qrCodeId);
+        } catch (RuntimeException ex) {
+            log.error("Failed to render QR code {}", qrCodeId, ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -2,11 +2,14 @@ package com.anjesh.tickets.mappers;
 
 import com.anjesh.tickets.domain.CreateEventRequest;
 import com.anjesh.tickets.domain.CreateTicketTypeRequest;
+import com.anjesh.tickets.domain.PublishedEventFilter;
 import com.anjesh.tickets.domain.UpdateEventRequest;
 import com.anjesh.tickets.domain.UpdateTicketTypeRequest;
 import com.anjesh.tickets.domain.dtos.*;
 import com.anjesh.tickets.domain.entities.Event;
 import com.anjesh.tickets.domain.entities.TicketType;
+import com.anjesh.tickets.domain.projections.EventListItem;
+import com.anjesh.tickets.domain.projections.TicketTypeListItem;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
@@ -25,6 +28,10 @@ public interface EventMapper {
 
     ListEventResponseDto toListEventResponseDto(Event event);
 
+    ListEventResponseDto toListEventResponseDto(EventListItem event);
+
+    ListEventTicketTypeResponseDto toListEventTicketTypeResponseDto(TicketTypeListItem ticketType);
+
     GetEventDetailsTicketTypesResponseDto toGetEventDetailsTicketTypesResponseDto(TicketType ticketType);
 
     GetEventDetailsResponseDto toGetEventDetailsResponseDto(Event event);
@@ -39,7 +46,11 @@ public interface EventMapper {
 
     ListPublishedEventResponseDto toListPublishedEventResponseDto(Event event);
 
+    ListPublishedEventResponseDto toListPublishedEventResponseDto(EventListItem event);
+
     GetPublishedEventDetailsTicketTypesResponseDto toGetPublishedEventDetailsTicketTypesResponseDto(TicketType ticketType);
 
     GetPublishedEventDetailsResponseDto toGetPublishedEventDetailsResponseDto(Event event);
+
+    PublishedEventFilter fromDto(PublishedEventFilterRequestDto dto);
 }
\ No newline at end of file
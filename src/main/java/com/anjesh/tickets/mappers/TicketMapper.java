@@ -1,10 +1,15 @@
 package com.anjesh.tickets.mappers;
 
+import com.anjesh.tickets.domain.PurchaseTicketsItemRequest;
+import com.anjesh.tickets.domain.PurchaseTicketsRequest;
 import com.anjesh.tickets.domain.dtos.GetTicketResponseDto;
 import com.anjesh.tickets.domain.dtos.ListTicketResponseDto;
 import com.anjesh.tickets.domain.dtos.ListTicketTicketTypeResponseDto;
+import com.anjesh.tickets.domain.dtos.PurchaseTicketsItemRequestDto;
+import com.anjesh.tickets.domain.dtos.PurchaseTicketsRequestDto;
 import com.anjesh.tickets.domain.entities.Ticket;
 import com.anjesh.tickets.domain.entities.TicketType;
+import com.anjesh.tickets.domain.projections.TicketListItem;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
@@ -12,10 +17,19 @@ import org.mapstruct.ReportingPolicy;
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface TicketMapper {
 
+    PurchaseTicketsItemRequest fromDto(PurchaseTicketsItemRequestDto dto);
+
+    PurchaseTicketsRequest fromDto(PurchaseTicketsRequestDto dto);
+
     ListTicketTicketTypeResponseDto toListTicketTicketTypeResponseDto(TicketType ticketType);
 
     ListTicketResponseDto toListTicketResponseDto(Ticket ticket);
 
+    @Mapping(target = "ticketType.id", source = "ticketTypeId")
+    @Mapping(target = "ticketType.name", source = "ticketTypeName")
+    @Mapping(target = "ticketType.price", source = "ticketTypePrice")
+    ListTicketResponseDto toListTicketResponseDto(TicketListItem ticket);
+
     @Mapping(target = "price", source = "ticket.ticketType.price")
     @Mapping(target = "description", source = "ticket.ticketType.description")
     @Mapping(target = "eventName", source = "ticket.ticketType.event.name")
@@ -1,6 +1,10 @@
 package com.anjesh.tickets.mappers;
 
+import com.anjesh.tickets.domain.TicketScan;
+import com.anjesh.tickets.domain.ValidateTicketsRequest;
+import com.anjesh.tickets.domain.dtos.TicketScanRequestDto;
 import com.anjesh.tickets.domain.dtos.TicketValidationResponseDto;
+import com.anjesh.tickets.domain.dtos.ValidateTicketsRequestDto;
 import com.anjesh.tickets.domain.entities.TicketValidation;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -9,6 +13,10 @@ import org.mapstruct.ReportingPolicy;
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface TicketValidationMapper {
 
+    TicketScan fromDto(TicketScanRequestDto dto);
+
+    ValidateTicketsRequest fromDto(ValidateTicketsRequestDto dto);
+
     @Mapping(target = "ticketId", source = "ticket.id")
     TicketValidationResponseDto toTicketValidationResponseDto(TicketValidation ticketValidation);
 
@@ -0,0 +1,27 @@
+package com.anjesh.tickets.repositories;
+
+import com.anjesh.tickets.domain.entities.CacheGeneration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CacheGenerationRepository extends JpaRepository<CacheGeneration, String> {
+
+    @Query("SELECT g.generation FROM CacheGeneration g WHERE g.name = :name")
+    Optional<Long> findGenerationByName(@Param("name") String name);
+
+    // Portable across H2 and Postgres, concurrent inserts still fail on the primary key
+    @Modifying
+    @Query(value = "INSERT INTO cache_generations (name, generation) SELECT :name, 0 " +
+            "WHERE NOT EXISTS (SELECT 1 FROM cache_generations WHERE name = :name)", nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name);
+
+    @Modifying
+    @Query("UPDATE CacheGeneration g SET g.generation = g.generation + 1 WHERE g.name = :name")
+    int incrementGeneration(@Param("name") String name);
+}
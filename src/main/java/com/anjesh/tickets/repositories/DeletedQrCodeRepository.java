@@ -0,0 +1,33 @@
+package com.anjesh.tickets.repositories;
+
+import com.anjesh.tickets.domain.entities.DeletedQrCode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DeletedQrCodeRepository extends JpaRepository<DeletedQrCode, UUID> {
+
+    // Must run before the ticket types are removed, the codes are read from the live rows
+    @Modifying
+    @Query("INSERT INTO DeletedQrCode (qrCodeId, eventId, deletedAt) " +
+            "SELECT q.id, tt.event.id, :deletedAt FROM QrCode q JOIN q.ticket t JOIN t.ticketType tt " +
+            "WHERE tt.id IN :ticketTypeIds")
+    int insertForTicketTypes(@Param("ticketTypeIds") Collection<UUID> ticketTypeIds,
+                             @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Query("SELECT d.qrCodeId FROM DeletedQrCode d WHERE d.eventId = :eventId AND d.deletedAt > :since")
+    List<UUID> findQrCodeIdsByEventIdDeletedAfter(@Param("eventId") UUID eventId,
+                                                  @Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM DeletedQrCode d WHERE d.eventId = :eventId")
+    int deleteByEventId(@Param("eventId") UUID eventId);
+}
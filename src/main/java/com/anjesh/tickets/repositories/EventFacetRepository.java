@@ -0,0 +1,27 @@
+package com.anjesh.tickets.repositories;
+
+import com.anjesh.tickets.domain.entities.Event;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public interface EventFacetRepository {
+
+    /**
+     * Counts matching events per venue, most events first.
+     */
+    Map<String, Long> countByVenue(Specification<Event> spec, int limit);
+
+    /**
+     * Counts matching events with a ticket type in each price range, split at the given
+     * ascending bounds, so n bounds give n + 1 counts.
+     */
+    long[] countByPriceRange(Specification<Event> spec, List<Double> bounds);
+
+    /**
+     * Counts matching events taking place in each from/to range, all in one scan.
+     */
+    long[] countTakingPlaceBetween(Specification<Event> spec, List<LocalDateTime[]> ranges);
+}
@@ -0,0 +1,94 @@
+package com.anjesh.tickets.repositories;
+
+import com.anjesh.tickets.domain.entities.Event;
+import com.anjesh.tickets.domain.entities.TicketType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Facet counts as single grouped or conditional aggregates, one round trip per facet no matter
+ * how many buckets it has.
+ */
+@RequiredArgsConstructor
+class EventFacetRepositoryImpl implements EventFacetRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Map<String, Long> countByVenue(Specification<Event> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Event> root = query.from(Event.class);
+        Path<String> venue = root.get("venue");
+        Expression<Long> count = cb.count(root);
+        query.multiselect(venue, count)
+                .where(spec.toPredicate(root, query, cb))
+                .groupBy(venue)
+                .orderBy(cb.desc(count), cb.asc(venue));
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Tuple row : entityManager.createQuery(query).setMaxResults(limit).getResultList()) {
+            counts.put(row.get(0, String.class), row.get(1, Long.class));
+        }
+        return counts;
+    }
+
+    @Override
+    public long[] countByPriceRange(Specification<Event> spec, List<Double> bounds) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Event> root = query.from(Event.class);
+        Join<Event, TicketType> ticketType = root.join("ticketTypes");
+        Path<Double> price = ticketType.get("price");
+
+        List<Selection<?>> selections = new ArrayList<>();
+        for (int i = 0; i <= bounds.size(); i++) {
+            Predicate inRange = cb.conjunction();
+            if (i > 0) {
+                inRange = cb.and(inRange, cb.greaterThanOrEqualTo(price, bounds.get(i - 1)));
+            }
+            if (i < bounds.size()) {
+                inRange = cb.and(inRange, cb.lessThan(price, bounds.get(i)));
+            }
+            // An event with several ticket types in one range is counted once
+            selections.add(cb.countDistinct(cb.<UUID>selectCase()
+                    .when(inRange, root.get("id"))
+                    .otherwise(cb.nullLiteral(UUID.class))));
+        }
+        query.multiselect(selections).where(spec.toPredicate(root, query, cb));
+
+        return counts(entityManager.createQuery(query).getSingleResult(), selections.size());
+    }
+
+    @Override
+    public long[] countTakingPlaceBetween(Specification<Event> spec, List<LocalDateTime[]> ranges) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Event> root = query.from(Event.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        for (LocalDateTime[] range : ranges) {
+            selections.add(cb.sum(cb.<Long>selectCase()
+                    .when(PublishedEventSpecifications.takingPlaceBetween(root, cb, range[0], range[1]), 1L)
+                    .otherwise(0L)));
+        }
+        query.multiselect(selections).where(spec.toPredicate(root, query, cb));
+
+        return counts(entityManager.createQuery(query).getSingleResult(), selections.size());
+    }
+
+    private static long[] counts(Tuple row, int size) {
+        long[] counts = new long[size];
+        for (int i = 0; i < size; i++) {
+            Number count = (Number) row.get(i);
+            counts[i] = null == count ? 0 : count.longValue();
+        }
+        return counts;
+    }
+}
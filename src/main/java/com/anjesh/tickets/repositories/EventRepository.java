@@ -2,35 +2,133 @@ package com.anjesh.tickets.repositories;
 
 import com.anjesh.tickets.domain.entities.Event;
 import com.anjesh.tickets.domain.entities.EventStatusEnum;
+import com.anjesh.tickets.domain.projections.EventListItem;
+import com.anjesh.tickets.domain.projections.EventListingVersion;
+import com.anjesh.tickets.domain.projections.EventSummary;
+import com.anjesh.tickets.domain.projections.EventVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, UUID> {
-        Page<Event> findByOrganizerId(UUID organizerId, Pageable pageable);
+public interface EventRepository extends JpaRepository<Event, UUID>, JpaSpecificationExecutor<Event>,
+                EventFacetRepository, EventSliceRepository {
+        // Listings select only the columns their DTOs show, ticket types are loaded per page
+        String LIST_ITEM = "SELECT e.id AS id, e.name AS name, e.start AS start, e.end AS end, e.venue AS venue, " +
+                        "e.salesStart AS salesStart, e.salesEnd AS salesEnd, e.status AS status, " +
+                        "e.createdAt AS createdAt FROM Event e ";
+
+        @Query(value = LIST_ITEM + "WHERE e.organizer.id = :organizerId",
+                        countQuery = "SELECT COUNT(e) FROM Event e WHERE e.organizer.id = :organizerId")
+        Page<EventListItem> findListItemsByOrganizerId(@Param("organizerId") UUID organizerId, Pageable pageable);
+
+        @Query(LIST_ITEM + "WHERE e.organizer.id = :organizerId")
+        Slice<EventListItem> sliceListItemsByOrganizerId(@Param("organizerId") UUID organizerId, Pageable pageable);
+
+        boolean existsByIdAndOrganizerId(UUID id, UUID organizerId);
+
+        @Query(LIST_ITEM + "WHERE e.organizer.id = :organizerId ORDER BY e.createdAt DESC, e.id DESC")
+        List<EventListItem> findListItemsByOrganizerIdFirst(@Param("organizerId") UUID organizerId, Limit limit);
+
+        @Query(LIST_ITEM + "WHERE e.organizer.id = :organizerId " +
+                        "AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.id < :id)) " +
+                        "ORDER BY e.createdAt DESC, e.id DESC")
+        List<EventListItem> findListItemsByOrganizerIdAfter(@Param("organizerId") UUID organizerId,
+                        @Param("createdAt") LocalDateTime createdAt,
+                        @Param("id") UUID id,
+                        Limit limit);
 
         @org.springframework.data.jpa.repository.EntityGraph(attributePaths = { "ticketTypes" })
         Optional<Event> findByIdAndOrganizerId(UUID id, UUID organizerId);
 
-        Page<Event> findByStatus(EventStatusEnum status, Pageable pageable);
+        @Query(value = LIST_ITEM + "WHERE e.status = :status",
+                        countQuery = "SELECT COUNT(e) FROM Event e WHERE e.status = :status")
+        Page<EventListItem> findListItemsByStatus(@Param("status") EventStatusEnum status, Pageable pageable);
+
+        @Query(LIST_ITEM + "WHERE e.status = :status")
+        Slice<EventListItem> sliceListItemsByStatus(@Param("status") EventStatusEnum status, Pageable pageable);
+
+        @Query(LIST_ITEM + "WHERE e.status = :status ORDER BY e.createdAt DESC, e.id DESC")
+        List<EventListItem> findListItemsByStatusFirst(@Param("status") EventStatusEnum status, Limit limit);
+
+        @Query(LIST_ITEM + "WHERE e.status = :status " +
+                        "AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.id < :id)) " +
+                        "ORDER BY e.createdAt DESC, e.id DESC")
+        List<EventListItem> findListItemsByStatusAfter(@Param("status") EventStatusEnum status,
+                        @Param("createdAt") LocalDateTime createdAt,
+                        @Param("id") UUID id,
+                        Limit limit);
+
+        // search_vector and its partial GIN index are maintained by DatabaseMigrationRunner,
+        // EventSearchPostgresTest covers both against a real database
+        String SEARCH = "SELECT e.* FROM events e, to_tsquery('english', :tsQuery) q " +
+                        "WHERE e.status = 'PUBLISHED' AND e.search_vector @@ q " +
+                        "ORDER BY ts_rank(e.search_vector, q) DESC, e.id";
 
-        @Query(value = "SELECT * FROM events WHERE " +
-                        "status = 'PUBLISHED' AND " +
-                        "to_tsvector('english', COALESCE(name, '') || ' ' || COALESCE(venue, '')) " +
-                        "@@ plainto_tsquery('english', :searchTerm)", countQuery = "SELECT count(*) FROM events WHERE "
-                                        +
-                                        "status = 'PUBLISHED' AND " +
-                                        "to_tsvector('english', COALESCE(name, '') || ' ' || COALESCE(venue, '')) " +
-                                        "@@ plainto_tsquery('english', :searchTerm)", nativeQuery = true)
-        Page<Event> searchEvents(@Param("searchTerm") String searchTerm, Pageable pageable);
+        @Query(value = SEARCH,
+                        countQuery = "SELECT count(*) FROM events e " +
+                                        "WHERE e.status = 'PUBLISHED' AND e.search_vector @@ to_tsquery('english', :tsQuery)",
+                        nativeQuery = true)
+        Page<Event> searchEvents(@Param("tsQuery") String tsQuery, Pageable pageable);
+
+        // The full-text count costs as much as the search itself
+        @Query(value = SEARCH, nativeQuery = true)
+        Slice<Event> searchEventsSlice(@Param("tsQuery") String tsQuery, Pageable pageable);
+
+        // Events about to start or in progress, open-ended events count as over a day after they start
+        @Query("SELECT e.id FROM Event e WHERE e.status = :status AND e.start <= :startsBefore AND e.endsAt >= :now")
+        List<UUID> findIdsWithDoorsOpen(@Param("status") EventStatusEnum status,
+                        @Param("startsBefore") LocalDateTime startsBefore,
+                        @Param("now") LocalDateTime now);
+
+        // Same assumed length as Event.OPEN_ENDED_DURATION
+        @Modifying
+        @Query("UPDATE Event e SET e.endsAt = COALESCE(e.end, e.start + 1 day) " +
+                        "WHERE e.endsAt IS NULL AND (e.end IS NOT NULL OR e.start IS NOT NULL)")
+        int backfillEndsAt();
 
         @org.springframework.data.jpa.repository.EntityGraph(attributePaths = { "ticketTypes" })
         Optional<Event> findByIdAndStatus(UUID id, EventStatusEnum status);
+
+        @Query("SELECT e.updatedAt AS updatedAt, MAX(tt.updatedAt) AS ticketTypesUpdatedAt, " +
+                        "COUNT(tt) AS ticketTypeCount FROM Event e LEFT JOIN e.ticketTypes tt " +
+                        "WHERE e.id = :id AND e.organizer.id = :organizerId GROUP BY e.id, e.updatedAt")
+        Optional<EventVersion> findVersionByIdAndOrganizerId(@Param("id") UUID id,
+                        @Param("organizerId") UUID organizerId);
+
+        @Query("SELECT e.updatedAt AS updatedAt, MAX(tt.updatedAt) AS ticketTypesUpdatedAt, " +
+                        "COUNT(tt) AS ticketTypeCount FROM Event e LEFT JOIN e.ticketTypes tt " +
+                        "WHERE e.id = :id AND e.status = :status GROUP BY e.id, e.updatedAt")
+        Optional<EventVersion> findVersionByIdAndStatus(@Param("id") UUID id,
+                        @Param("status") EventStatusEnum status);
+
+        @Query("SELECT MAX(e.updatedAt) AS updatedAt, COUNT(e) AS eventCount FROM Event e WHERE e.status = :status")
+        EventListingVersion findListingVersionByStatus(@Param("status") EventStatusEnum status);
+
+        // Newest first, so a capped typeahead index keeps the most recent events
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+        @Query("SELECT e.id AS id, e.name AS name, e.venue AS venue, e.start AS start " +
+                        "FROM Event e WHERE e.status = :status ORDER BY e.createdAt DESC")
+        Stream<EventSummary> streamSummariesByStatus(@Param("status") EventStatusEnum status);
+
+        @Query("SELECT e.id AS id, e.name AS name, e.venue AS venue, e.start AS start " +
+                        "FROM Event e WHERE e.id = :id AND e.status = :status")
+        Optional<EventSummary> findSummaryByIdAndStatus(@Param("id") UUID id,
+                        @Param("status") EventStatusEnum status);
 }
@@ -0,0 +1,15 @@
+package com.anjesh.tickets.repositories;
+
+import com.anjesh.tickets.domain.entities.Event;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface EventSliceRepository {
+
+    /**
+     * Like findAll(spec, pageable) without the count query, one extra row tells whether
+     * another page follows.
+     */
+    Slice<Event> findSlice(Specification<Event> spec, Pageable pageable);
+}
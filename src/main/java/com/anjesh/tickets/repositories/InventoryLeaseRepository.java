@@ -0,0 +1,38 @@
+package com.anjesh.tickets.repositories;
+
+import com.anjesh.tickets.domain.entities.InventoryLease;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface InventoryLeaseRepository extends JpaRepository<InventoryLease, UUID> {
+
+    @Modifying
+    @Query("UPDATE InventoryLease l SET l.remaining = l.remaining - :quantity " +
+            "WHERE l.id = :id AND l.remaining >= :quantity AND l.expiresAt > :now")
+    int takeFromLease(@Param("id") UUID id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE InventoryLease l SET l.remaining = l.remaining + :quantity, l.expiresAt = :expiresAt " +
+            "WHERE l.id = :id AND l.expiresAt > :now")
+    int renewLease(@Param("id") UUID id,
+                   @Param("quantity") int quantity,
+                   @Param("expiresAt") LocalDateTime expiresAt,
+                   @Param("now") LocalDateTime now);
+
+    @Query("SELECT l FROM InventoryLease l WHERE l.expiresAt <= :now ORDER BY l.expiresAt")
+    List<InventoryLease> findExpired(@Param("now") LocalDateTime now, Limit limit);
+
+    // Locked so a purchase still selling from the lease finishes before its stock is returned
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM InventoryLease l WHERE l.id = :id")
+    Optional<InventoryLease> findByIdForUpdate(@Param("id") UUID id);
+}
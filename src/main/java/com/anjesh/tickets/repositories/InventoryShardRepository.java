@@ -0,0 +1,43 @@
+package com.anjesh.tickets.repositories;
+
+import com.anjesh.tickets.domain.entities.InventoryShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface InventoryShardRepository extends JpaRepository<InventoryShard, UUID> {
+
+    List<InventoryShard> findByTicketTypeIdOrderByShardIndex(UUID ticketTypeId);
+
+    boolean existsByTicketTypeId(UUID ticketTypeId);
+
+    @Query("SELECT s.remaining FROM InventoryShard s WHERE s.id = :id")
+    int findRemainingById(@Param("id") UUID id);
+
+    // Only types a rebalance can change: stock left on the ticket type row, or shards uneven enough to level
+    @Query("SELECT DISTINCT tt.id FROM InventoryShard s JOIN s.ticketType tt " +
+            "WHERE s.remaining <= :threshold " +
+            "AND (tt.ticketsSold < tt.totalAvailable " +
+            "OR EXISTS (SELECT o FROM InventoryShard o WHERE o.ticketType = tt AND o.remaining >= s.remaining + 2))")
+    List<UUID> findTicketTypeIdsToRebalance(@Param("threshold") int threshold);
+
+    @Modifying
+    @Query("UPDATE InventoryShard s SET s.remaining = s.remaining - :quantity " +
+            "WHERE s.ticketType.id = :ticketTypeId AND s.shardIndex = :shardIndex AND s.remaining >= :quantity")
+    int takeFromShard(@Param("ticketTypeId") UUID ticketTypeId,
+                      @Param("shardIndex") int shardIndex,
+                      @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE InventoryShard s SET s.remaining = s.remaining + :quantity " +
+            "WHERE s.ticketType.id = :ticketTypeId AND s.shardIndex = :shardIndex")
+    int addToShard(@Param("ticketTypeId") UUID ticketTypeId,
+                   @Param("shardIndex") int shardIndex,
+                   @Param("quantity") int quantity);
+}
@@ -0,0 +1,98 @@
+package com.anjesh.tickets.repositories;
+
+import com.anjesh.tickets.domain.PublishedEventFilter;
+import com.anjesh.tickets.domain.entities.Event;
+import com.anjesh.tickets.domain.entities.EventStatusEnum;
+import com.anjesh.tickets.domain.entities.TicketType;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published-event filters. Only the filters that were given become predicates, so every
+ * combination gets its own plain SQL that the composite indexes on events and ticket_types
+ * can serve, instead of one query full of "param IS NULL OR" branches.
+ */
+public final class PublishedEventSpecifications {
+
+    private PublishedEventSpecifications() {
+    }
+
+    public static Specification<Event> matching(PublishedEventFilter filter) {
+        return withoutVenue(filter).and(atVenue(filter.getVenue()));
+    }
+
+    // Facets leave out their own dimension so the other choices stay visible
+    public static Specification<Event> withoutVenue(PublishedEventFilter filter) {
+        return published()
+                .and(takingPlaceBetween(filter.getFrom(), filter.getTo()))
+                .and(pricedBetween(filter.getMinPrice(), filter.getMaxPrice()));
+    }
+
+    public static Specification<Event> withoutPrice(PublishedEventFilter filter) {
+        return published()
+                .and(takingPlaceBetween(filter.getFrom(), filter.getTo()))
+                .and(atVenue(filter.getVenue()));
+    }
+
+    public static Specification<Event> withoutDates(PublishedEventFilter filter) {
+        return published()
+                .and(atVenue(filter.getVenue()))
+                .and(pricedBetween(filter.getMinPrice(), filter.getMaxPrice()));
+    }
+
+    public static Specification<Event> published() {
+        return (root, query, cb) -> cb.equal(root.get("status"), EventStatusEnum.PUBLISHED);
+    }
+
+    // Open-ended events count as over a day after they start, see Event.OPEN_ENDED_DURATION
+    public static Specification<Event> takingPlaceBetween(LocalDateTime from, LocalDateTime to) {
+        if (null == from && null == to) {
+            return null;
+        }
+        return (root, query, cb) -> takingPlaceBetween(root, cb, from, to);
+    }
+
+    static Predicate takingPlaceBetween(Root<Event> root,
+                                        CriteriaBuilder cb,
+                                        LocalDateTime from,
+                                        LocalDateTime to) {
+        Predicate predicate = cb.conjunction();
+        if (null != to) {
+            predicate = cb.and(predicate, cb.lessThan(root.get("start"), to));
+        }
+        if (null != from) {
+            predicate = cb.and(predicate, cb.greaterThanOrEqualTo(root.get("endsAt"), from));
+        }
+        return predicate;
+    }
+
+    public static Specification<Event> atVenue(String venue) {
+        if (null == venue || venue.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("venue"), venue.trim());
+    }
+
+    public static Specification<Event> pricedBetween(Double minPrice, Double maxPrice) {
+        if (null == minPrice && null == maxPrice) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Subquery<Integer> ticketTypes = query.subquery(Integer.class);
+            Root<TicketType> ticketType = ticketTypes.from(TicketType.class);
+            Predicate predicate = cb.equal(ticketType.get("event"), root);
+            if (null != minPrice) {
+                predicate = cb.and(predicate, cb.greaterThanOrEqualTo(ticketType.get("price"), minPrice));
+            }
+            if (null != maxPrice) {
+                predicate = cb.and(predicate, cb.lessThan(ticketType.get("price"), maxPrice));
+            }
+            return cb.exists(ticketTypes.select(cb.literal(1)).where(predicate));
+        };
+    }
+}
@@ -1,10 +1,22 @@
 package com.anjesh.tickets.repositories;
 
+import com.anjesh.tickets.domain.QrCodePayload;
+import com.anjesh.tickets.domain.entities.Event;
 import com.anjesh.tickets.domain.entities.QrCode;
 import com.anjesh.tickets.domain.entities.QrCodeStatusEnum;
+import com.anjesh.tickets.domain.projections.QrCodeTicket;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,4 +24,45 @@ import java.util.UUID;
 public interface QrCodeRepository extends JpaRepository<QrCode, UUID> {
     Optional<QrCode> findByTicketIdAndTicketPurchaserId(UUID ticketId, UUID ticketPurchaserId);
     Optional<QrCode> findByIdAndStatus(UUID id, QrCodeStatusEnum status);
+
+    @Query("SELECT q.id FROM QrCode q WHERE q.ticket.id = :ticketId AND q.ticket.purchaser.id = :purchaserId")
+    Optional<UUID> findIdByTicketIdAndPurchaserId(@Param("ticketId") UUID ticketId,
+                                                  @Param("purchaserId") UUID purchaserId);
+
+    @Query("SELECT q.id AS id, q.ticket.id AS ticketId, q.ticket.ticketType.id AS ticketTypeId, " +
+            "q.ticket.ticketType.event.id AS eventId FROM QrCode q WHERE q.id IN :ids AND q.status = :status")
+    List<QrCodeTicket> findTicketsByIdInAndStatus(@Param("ids") Collection<UUID> ids,
+                                                    @Param("status") QrCodeStatusEnum status);
+
+    // Deactivating a code goes through the entity, which moves updatedAt
+    @Query("SELECT q.id FROM QrCode q WHERE q.ticket.ticketType.event.id IN :eventIds " +
+            "AND q.status <> :activeStatus AND q.updatedAt >= :updatedSince")
+    List<UUID> findInactiveIdsByEventIdIn(@Param("eventIds") Collection<UUID> eventIds,
+                                          @Param("activeStatus") QrCodeStatusEnum activeStatus,
+                                          @Param("updatedSince") LocalDateTime updatedSince);
+
+    @Query("SELECT new com.anjesh.tickets.domain.QrCodePayload(q.id, t.id, e.id, e.start, e.end) " +
+            "FROM QrCode q JOIN q.ticket t JOIN t.ticketType tt JOIN tt.event e WHERE q.id = :id")
+    Optional<QrCodePayload> findPayloadById(@Param("id") UUID id);
+
+    @Query("SELECT q.id FROM QrCode q WHERE q.value IS NULL AND q.createdAt < :createdBefore ORDER BY q.createdAt")
+    List<UUID> findIdsWithoutImage(@Param("createdBefore") LocalDateTime createdBefore, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE QrCode q SET q.value = :value WHERE q.id = :id AND q.value IS NULL")
+    int storeImage(@Param("id") UUID id, @Param("value") String value);
+
+    @Modifying
+    @Query("UPDATE QrCode q SET q.value = NULL WHERE q.value IS NOT NULL AND q.ticket.id IN " +
+            "(SELECT t.id FROM Ticket t WHERE t.ticketType.event.id = :eventId)")
+    int clearStoredImagesByEventId(@Param("eventId") UUID eventId);
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT e FROM QrCode q JOIN q.ticket t JOIN t.ticketType tt JOIN tt.event e WHERE q.id = :id")
+    Optional<Event> lockEventById(@Param("id") UUID id);
+
+    @Modifying
+    @Query(value = "UPDATE qr_codes SET value = NULL WHERE id IN " +
+            "(SELECT id FROM qr_codes WHERE value IS NOT NULL LIMIT :batchSize)", nativeQuery = true)
+    int clearStoredImages(@Param("batchSize") int batchSize);
 }
@@ -1,21 +1,84 @@
 package com.anjesh.tickets.repositories;
 
 import com.anjesh.tickets.domain.entities.Ticket;
+import com.anjesh.tickets.domain.projections.TicketAdmission;
+import com.anjesh.tickets.domain.projections.TicketListItem;
+import com.anjesh.tickets.domain.projections.TicketRedemptionState;
+import com.anjesh.tickets.domain.projections.TicketVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, UUID> {
-    int countByTicketTypeId(UUID ticketTypeId);
+    String LIST_ITEM = "SELECT t.id AS id, t.status AS status, t.createdAt AS createdAt, " +
+            "tt.id AS ticketTypeId, tt.name AS ticketTypeName, tt.price AS ticketTypePrice " +
+            "FROM Ticket t JOIN t.ticketType tt ";
 
-    @org.springframework.data.jpa.repository.EntityGraph(attributePaths = { "ticketType", "ticketType.event" })
-    Page<Ticket> findByPurchaserId(UUID purchaserId, Pageable pageable);
+    @Query(value = LIST_ITEM + "WHERE t.purchaser.id = :purchaserId",
+            countQuery = "SELECT COUNT(t) FROM Ticket t WHERE t.purchaser.id = :purchaserId")
+    Page<TicketListItem> findListItemsByPurchaserId(@Param("purchaserId") UUID purchaserId, Pageable pageable);
+
+    @Query(LIST_ITEM + "WHERE t.purchaser.id = :purchaserId")
+    Slice<TicketListItem> sliceListItemsByPurchaserId(@Param("purchaserId") UUID purchaserId, Pageable pageable);
+
+    @Query(LIST_ITEM + "WHERE t.purchaser.id = :purchaserId ORDER BY t.createdAt DESC, t.id DESC")
+    List<TicketListItem> findListItemsByPurchaserIdFirst(@Param("purchaserId") UUID purchaserId, Limit limit);
+
+    @Query(LIST_ITEM + "WHERE t.purchaser.id = :purchaserId " +
+            "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TicketListItem> findListItemsByPurchaserIdAfter(@Param("purchaserId") UUID purchaserId,
+                                                         @Param("createdAt") LocalDateTime createdAt,
+                                                         @Param("id") UUID id,
+                                                         Limit limit);
 
     @org.springframework.data.jpa.repository.EntityGraph(attributePaths = { "ticketType", "ticketType.event" })
     Optional<Ticket> findByIdAndPurchaserId(UUID id, UUID purchaserId);
+
+    @Query("SELECT t.updatedAt AS updatedAt, tt.updatedAt AS ticketTypeUpdatedAt, e.updatedAt AS eventUpdatedAt " +
+            "FROM Ticket t JOIN t.ticketType tt JOIN tt.event e WHERE t.id = :id AND t.purchaser.id = :purchaserId")
+    Optional<TicketVersion> findVersionByIdAndPurchaserId(@Param("id") UUID id, @Param("purchaserId") UUID purchaserId);
+
+    @Query("SELECT t.id AS ticketId, t.ticketType.id AS ticketTypeId, t.ticketType.event.id AS eventId " +
+            "FROM Ticket t WHERE t.id IN :ids")
+    List<TicketAdmission> findAdmissionsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.id AS ticketId, q.id AS qrCodeId, t.ticketType.id AS ticketTypeId, t.redeemedAt AS redeemedAt " +
+            "FROM Ticket t " +
+            "LEFT JOIN t.qrCodes q ON q.status = com.anjesh.tickets.domain.entities.QrCodeStatusEnum.ACTIVE " +
+            "WHERE t.ticketType.event.id = :eventId")
+    Stream<TicketRedemptionState> streamRedemptionStateByEventId(@Param("eventId") UUID eventId);
+
+    @Query("SELECT t.id FROM Ticket t WHERE t.ticketType.event.id = :eventId AND t.redeemedAt IS NOT NULL")
+    List<UUID> findRedeemedIdsByEventId(@Param("eventId") UUID eventId);
+
+    @Query("SELECT t.id FROM Ticket t WHERE t.id IN :ids AND t.redeemedAt IS NOT NULL")
+    List<UUID> findRedeemedIdsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("UPDATE Ticket t SET t.redeemedAt = " +
+            "(SELECT MIN(v.createdAt) FROM TicketValidation v " +
+            "WHERE v.ticket = t AND v.status = com.anjesh.tickets.domain.entities.TicketValidationStatusEnum.VALID) " +
+            "WHERE t.redeemedAt IS NULL AND EXISTS " +
+            "(SELECT v FROM TicketValidation v " +
+            "WHERE v.ticket = t AND v.status = com.anjesh.tickets.domain.entities.TicketValidationStatusEnum.VALID)")
+    int backfillRedeemedAt();
 }
@@ -1,21 +1,57 @@
 package com.anjesh.tickets.repositories;
 
 import com.anjesh.tickets.domain.entities.TicketType;
+import com.anjesh.tickets.domain.projections.TicketTypeAdmissions;
+import com.anjesh.tickets.domain.projections.TicketTypeListItem;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface TicketTypeRepository extends JpaRepository<TicketType, UUID> {
 
-    @Query("SELECT tt FROM TicketType tt WHERE tt.id = :id")
+    List<TicketType> findByEventIdOrderById(UUID eventId);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Optional<TicketType> findByIdWithLock(@Param("id") UUID id);
+    @Query("SELECT tt FROM TicketType tt WHERE tt.id = :id")
+    Optional<TicketType> findByIdForUpdate(@Param("id") UUID id);
+
+    @Query("SELECT tt.id AS id, tt.event.id AS eventId, tt.name AS name, tt.price AS price, " +
+            "tt.description AS description, tt.totalAvailable AS totalAvailable " +
+            "FROM TicketType tt WHERE tt.event.id IN :eventIds ORDER BY tt.event.id, tt.id")
+    List<TicketTypeListItem> findListItemsByEventIdIn(@Param("eventIds") Collection<UUID> eventIds);
+
+    @Modifying
+    @Query("UPDATE TicketType tt SET tt.ticketsSold = tt.ticketsSold + :quantity " +
+            "WHERE tt.id = :id " +
+            "AND (tt.totalAvailable IS NULL OR tt.ticketsSold + :quantity <= tt.totalAvailable)")
+    int reserveTickets(@Param("id") UUID id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE TicketType tt SET tt.ticketsSold = tt.ticketsSold - :quantity WHERE tt.id = :id")
+    int releaseTickets(@Param("id") UUID id, @Param("quantity") int quantity);
+
+    @Query("SELECT tt.totalAvailable - tt.ticketsSold FROM TicketType tt WHERE tt.id = :id")
+    Integer findRemainingById(@Param("id") UUID id);
+
+    @Query("SELECT tt.event.id AS eventId, tt.id AS ticketTypeId, tt.name AS name, COUNT(t.id) AS admitted " +
+            "FROM TicketType tt LEFT JOIN Ticket t ON t.ticketType = tt AND t.redeemedAt IS NOT NULL " +
+            "WHERE tt.event.id IN :eventIds GROUP BY tt.event.id, tt.id, tt.name")
+    List<TicketTypeAdmissions> countAdmissionsByEventIdIn(@Param("eventIds") Collection<UUID> eventIds);
+
+    @Modifying
+    @Query("UPDATE TicketType tt SET tt.ticketsSold = " +
+            "CAST((SELECT COUNT(t) FROM Ticket t WHERE t.ticketType = tt) AS Integer) " +
+            "WHERE tt.ticketsSold IS NULL")
+    int backfillTicketsSold();
 
 }
@@ -0,0 +1,22 @@
+package com.anjesh.tickets.repositories;
+
+import com.anjesh.tickets.domain.entities.TicketValidation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+public interface TicketValidationBatchRepository {
+
+    /**
+     * Marks each ticket redeemed at the given time unless it already is. Each update is
+     * conditional on the ticket not being redeemed, so of concurrent calls for one ticket
+     * exactly one redeems it.
+     * @return the IDs of the tickets this call redeemed
+     */
+    Set<UUID> redeemTickets(Map<UUID, LocalDateTime> redemptions);
+
+    void insertValidations(List<TicketValidation> ticketValidations);
+}
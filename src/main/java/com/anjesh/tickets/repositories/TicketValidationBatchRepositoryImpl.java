@@ -0,0 +1,71 @@
+package com.anjesh.tickets.repositories;
+
+import com.anjesh.tickets.domain.entities.TicketValidation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * JDBC batches for offline scan uploads, a few hundred rows per request would otherwise
+ * be a few hundred round trips through the persistence context.
+ */
+@RequiredArgsConstructor
+class TicketValidationBatchRepositoryImpl implements TicketValidationBatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Set<UUID> redeemTickets(Map<UUID, LocalDateTime> redemptions) {
+        if (redemptions.isEmpty()) {
+            return Set.of();
+        }
+
+        List<Map.Entry<UUID, LocalDateTime>> entries = new ArrayList<>(redemptions.entrySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] updated = jdbcTemplate.batchUpdate(
+                "UPDATE tickets SET redeemed_at = ?, updated_at = ? WHERE id = ? AND redeemed_at IS NULL",
+                entries,
+                entries.size(),
+                (ps, entry) -> {
+                    ps.setTimestamp(1, Timestamp.valueOf(entry.getValue()));
+                    ps.setTimestamp(2, now);
+                    ps.setObject(3, entry.getKey());
+                });
+
+        Set<UUID> redeemed = new HashSet<>();
+        int index = 0;
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                if (count > 0) {
+                    redeemed.add(entries.get(index).getKey());
+                }
+                index++;
+            }
+        }
+        return redeemed;
+    }
+
+    @Override
+    public void insertValidations(List<TicketValidation> ticketValidations) {
+        if (ticketValidations.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO ticket_validation (id, status, validation_method, ticket_id, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)",
+                ticketValidations,
+                ticketValidations.size(),
+                (ps, ticketValidation) -> {
+                    ps.setObject(1, ticketValidation.getId());
+                    ps.setString(2, ticketValidation.getStatus().name());
+                    ps.setString(3, ticketValidation.getValidationMethod().name());
+                    ps.setObject(4, ticketValidation.getTicket().getId());
+                    ps.setTimestamp(5, Timestamp.valueOf(ticketValidation.getCreatedAt()));
+                    ps.setTimestamp(6, Timestamp.valueOf(ticketValidation.getUpdatedAt()));
+                });
+    }
+}
@@ -1,11 +1,62 @@
 package com.anjesh.tickets.repositories;
 
 import com.anjesh.tickets.domain.entities.TicketValidation;
+import com.anjesh.tickets.domain.projections.TicketRedemption;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Redemption marks the ticket and records the validation in a single statement. The
+ * conditional update only succeeds for the first scan of a ticket, concurrent scans
+ * block on the row and then see it already redeemed.
+ */
 @Repository
-public interface TicketValidationRepository extends JpaRepository<TicketValidation, UUID> {
+public interface TicketValidationRepository extends JpaRepository<TicketValidation, UUID>, TicketValidationBatchRepository {
+
+    @Query(value = "WITH target AS (" +
+            "SELECT t.id, t.ticket_type_id, tt.event_id FROM qr_codes q " +
+            "JOIN tickets t ON t.id = q.ticket_id JOIN ticket_types tt ON tt.id = t.ticket_type_id " +
+            "WHERE q.id = :qrCodeId AND q.status = 'ACTIVE'" +
+            "), redeemed AS (" +
+            "UPDATE tickets t SET redeemed_at = :now, updated_at = :now FROM target " +
+            "WHERE t.id = target.id AND t.redeemed_at IS NULL RETURNING t.id" +
+            "), inserted AS (" +
+            "INSERT INTO ticket_validation (id, status, validation_method, ticket_id, created_at, updated_at) " +
+            "SELECT :validationId, CASE WHEN EXISTS (SELECT 1 FROM redeemed) THEN 'VALID' ELSE 'INVALID' END, " +
+            ":method, target.id, :now, :now FROM target " +
+            "RETURNING ticket_id, status" +
+            ") " +
+            "SELECT i.ticket_id AS \"ticketId\", i.status, " +
+            "target.ticket_type_id AS \"ticketTypeId\", target.event_id AS \"eventId\" " +
+            "FROM inserted i JOIN target ON target.id = i.ticket_id", nativeQuery = true)
+    Optional<TicketRedemption> redeemByQrCode(@Param("qrCodeId") UUID qrCodeId,
+                                              @Param("validationId") UUID validationId,
+                                              @Param("method") String method,
+                                              @Param("now") LocalDateTime now);
+
+    @Query(value = "WITH target AS (" +
+            "SELECT t.id, t.ticket_type_id, tt.event_id FROM tickets t " +
+            "JOIN ticket_types tt ON tt.id = t.ticket_type_id WHERE t.id = :ticketId" +
+            "), redeemed AS (" +
+            "UPDATE tickets t SET redeemed_at = :now, updated_at = :now FROM target " +
+            "WHERE t.id = target.id AND t.redeemed_at IS NULL RETURNING t.id" +
+            "), inserted AS (" +
+            "INSERT INTO ticket_validation (id, status, validation_method, ticket_id, created_at, updated_at) " +
+            "SELECT :validationId, CASE WHEN EXISTS (SELECT 1 FROM redeemed) THEN 'VALID' ELSE 'INVALID' END, " +
+            ":method, target.id, :now, :now FROM target " +
+            "RETURNING ticket_id, status" +
+            ") " +
+            "SELECT i.ticket_id AS \"ticketId\", i.status, " +
+            "target.ticket_type_id AS \"ticketTypeId\", target.event_id AS \"eventId\" " +
+            "FROM inserted i JOIN target ON target.id = i.ticket_id", nativeQuery = true)
+    Optional<TicketRedemption> redeemByTicket(@Param("ticketId") UUID ticketId,
+                                              @Param("validationId") UUID validationId,
+                                              @Param("method") String method,
+                                              @Param("now") LocalDateTime now);
 }
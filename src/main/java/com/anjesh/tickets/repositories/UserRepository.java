@@ -2,10 +2,25 @@ package com.anjesh.tickets.repositories;
 
 import com.anjesh.tickets.domain.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
+
+    // Concurrent first requests for the same user both succeed, only one row is written
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO users (id, name, email, created_at, updated_at) " +
+            "VALUES (:id, :name, :email, :now, :now) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id,
+                       @Param("name") String name,
+                       @Param("email") String email,
+                       @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,14 @@
+package com.anjesh.tickets.services;
+
+import com.anjesh.tickets.domain.dtos.EventAttendanceResponseDto;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+public interface AttendanceService {
+    void recordAdmission(UUID eventId, UUID ticketTypeId, UUID ticketId);
+    EventAttendanceResponseDto getAttendanceForOrganizer(UUID organizerId, UUID eventId);
+    SseEmitter streamAttendanceForOrganizer(UUID organizerId, UUID eventId);
+    void publishEntryRates();
+    void reconcile();
+}
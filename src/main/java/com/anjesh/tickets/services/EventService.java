@@ -1,6 +1,8 @@
 package com.anjesh.tickets.services;
 
 import com.anjesh.tickets.domain.CreateEventRequest;
+import com.anjesh.tickets.domain.PublishedEventFilter;
+import com.anjesh.tickets.domain.Versioned;
 import com.anjesh.tickets.domain.UpdateEventRequest;
 import com.anjesh.tickets.domain.dtos.*;
 import org.springframework.data.domain.Page;
@@ -15,16 +17,38 @@ public interface EventService {
 
     Page<ListEventResponseDto> listEventsForOrganizer(UUID organizerId, Pageable pageable);
 
+    SliceResponseDto<ListEventResponseDto> sliceEventsForOrganizer(UUID organizerId, Pageable pageable);
+
+    CursorPageResponseDto<ListEventResponseDto> scrollEventsForOrganizer(UUID organizerId, String cursor, int size);
+
     Optional<GetEventDetailsResponseDto> getEventForOrganizer(UUID organizerId, UUID id);
 
+    Optional<String> getEventVersionForOrganizer(UUID organizerId, UUID id);
+
     UpdateEventResponseDto updateEventForOrganizer(UUID organizerId, UUID id, UpdateEventRequest event);
 
     void deleteEventForOrganizer(UUID organizerId, UUID id);
 
-    Page<ListPublishedEventResponseDto> listPublishedEvents(Pageable pageable);
+    Versioned<Page<ListPublishedEventResponseDto>> listPublishedEvents(Pageable pageable);
+
+    SliceResponseDto<ListPublishedEventResponseDto> slicePublishedEvents(String query,
+                                                                        PublishedEventFilter filter,
+                                                                        Pageable pageable);
+
+    CursorPageResponseDto<ListPublishedEventResponseDto> scrollPublishedEvents(String cursor, int size);
+
+    Versioned<Page<ListPublishedEventResponseDto>> searchPublishedEvents(String query, Pageable pageable);
+
+    Page<ListPublishedEventResponseDto> filterPublishedEvents(PublishedEventFilter filter, Pageable pageable);
+
+    PublishedEventFacetsResponseDto getPublishedEventFacets(PublishedEventFilter filter);
+
+    Optional<Versioned<GetPublishedEventDetailsResponseDto>> getPublishedEvent(UUID id);
+
+    void evictPublishedEvent(UUID id);
 
-    Page<ListPublishedEventResponseDto> searchPublishedEvents(String query, Pageable pageable);
+    void recordPublishedEventChange();
 
-    Optional<GetPublishedEventDetailsResponseDto> getPublishedEvent(UUID id);
+    void checkPublishedEventGeneration();
 
 }
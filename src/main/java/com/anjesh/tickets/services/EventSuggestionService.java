@@ -0,0 +1,12 @@
+package com.anjesh.tickets.services;
+
+import com.anjesh.tickets.domain.dtos.EventSuggestionResponseDto;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface EventSuggestionService {
+    void rebuild();
+    void refresh(UUID eventId);
+    List<EventSuggestionResponseDto> suggest(String query, int limit);
+}
@@ -0,0 +1,7 @@
+package com.anjesh.tickets.services;
+
+import java.util.UUID;
+
+public interface GateManifestService {
+    byte[] getManifest(UUID eventId, Long since);
+}
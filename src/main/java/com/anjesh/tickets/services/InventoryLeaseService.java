@@ -0,0 +1,14 @@
+package com.anjesh.tickets.services;
+
+import com.anjesh.tickets.domain.entities.TicketType;
+
+public interface InventoryLeaseService {
+
+    boolean isEnabled();
+
+    boolean reserve(TicketType ticketType, int quantity);
+
+    void releaseExpiredLeases();
+
+    void releaseAllLeases();
+}
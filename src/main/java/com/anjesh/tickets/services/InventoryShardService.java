@@ -0,0 +1,16 @@
+package com.anjesh.tickets.services;
+
+import com.anjesh.tickets.domain.entities.TicketType;
+
+import java.util.UUID;
+
+public interface InventoryShardService {
+
+    boolean isSharded(TicketType ticketType);
+
+    boolean reserve(TicketType ticketType, UUID userId, int quantity);
+
+    void provisionShards(TicketType ticketType);
+
+    void rebalance(UUID ticketTypeId);
+}
@@ -0,0 +1,14 @@
+package com.anjesh.tickets.services;
+
+import com.anjesh.tickets.domain.QrCodePayload;
+
+import java.util.Optional;
+
+public interface QrCodePayloadService {
+
+    boolean isSigningEnabled();
+
+    String sign(QrCodePayload payload);
+
+    Optional<QrCodePayload> verify(String content);
+}
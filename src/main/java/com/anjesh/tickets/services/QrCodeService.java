@@ -3,11 +3,20 @@ package com.anjesh.tickets.services;
 import com.anjesh.tickets.domain.entities.QrCode;
 import com.anjesh.tickets.domain.entities.Ticket;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface QrCodeService {
 
     QrCode generateQrCode(Ticket ticket);
 
+    List<QrCode> generateQrCodes(List<Ticket> tickets);
+
+    void renderQrCode(UUID qrCodeId);
+
     byte[] getQrCodeImageForUserAndTicket(UUID userId, UUID ticketId);
+
+    String getQrCodeVersionForUserAndTicket(UUID userId, UUID ticketId);
+
+    void clearQrCodeImagesForEvent(UUID eventId);
 }
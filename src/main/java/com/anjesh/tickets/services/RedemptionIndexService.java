@@ -0,0 +1,17 @@
+package com.anjesh.tickets.services;
+
+import com.anjesh.tickets.domain.entities.TicketValidation;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface RedemptionIndexService {
+    boolean isEnabled();
+    void refreshIndexes();
+    void revokeDeactivatedQrCodes();
+    Optional<TicketValidation> redeemByQrCode(UUID qrCodeId);
+    Optional<TicketValidation> redeemByTicket(UUID ticketId);
+    boolean isIndexed(UUID ticketId);
+    boolean markRedeemed(UUID ticketId);
+    void flush();
+}
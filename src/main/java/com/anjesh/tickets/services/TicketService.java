@@ -1,7 +1,9 @@
 package com.anjesh.tickets.services;
 
+import com.anjesh.tickets.domain.dtos.CursorPageResponseDto;
 import com.anjesh.tickets.domain.dtos.GetTicketResponseDto;
 import com.anjesh.tickets.domain.dtos.ListTicketResponseDto;
+import com.anjesh.tickets.domain.dtos.SliceResponseDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -12,5 +14,11 @@ public interface TicketService {
 
     Page<ListTicketResponseDto> listTicketsForUser(UUID userId, Pageable pageable);
 
+    SliceResponseDto<ListTicketResponseDto> sliceTicketsForUser(UUID userId, Pageable pageable);
+
+    CursorPageResponseDto<ListTicketResponseDto> scrollTicketsForUser(UUID userId, String cursor, int size);
+
     Optional<GetTicketResponseDto> getTicketForUser(UUID userId, UUID ticketId);
+
+    Optional<String> getTicketVersionForUser(UUID userId, UUID ticketId);
 }
@@ -1,9 +1,13 @@
 package com.anjesh.tickets.services;
 
+import com.anjesh.tickets.domain.PurchaseTicketsRequest;
 import com.anjesh.tickets.domain.entities.Ticket;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface TicketTypeService {
     Ticket purchaseTicket(UUID userId, UUID ticketTypeId);
+
+    List<Ticket> purchaseTickets(UUID userId, PurchaseTicketsRequest request);
 }
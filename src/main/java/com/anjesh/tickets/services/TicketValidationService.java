@@ -1,10 +1,14 @@
 package com.anjesh.tickets.services;
 
+import com.anjesh.tickets.domain.ValidateTicketsRequest;
 import com.anjesh.tickets.domain.entities.TicketValidation;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface TicketValidationService {
     TicketValidation validateTicketByQrCode(UUID qrCodeId);
+    TicketValidation validateTicketByQrPayload(String payload, UUID eventId);
     TicketValidation validateTicketManually(UUID ticketId);
+    List<TicketValidation> validateTickets(ValidateTicketsRequest request);
 }
@@ -0,0 +1,259 @@
+package com.anjesh.tickets.services.impl;
+
+import com.anjesh.tickets.domain.dtos.EventAttendanceResponseDto;
+import com.anjesh.tickets.domain.dtos.TicketTypeAttendanceResponseDto;
+import com.anjesh.tickets.domain.projections.TicketTypeAdmissions;
+import com.anjesh.tickets.exceptions.EventNotFoundException;
+import com.anjesh.tickets.repositories.EventRepository;
+import com.anjesh.tickets.repositories.TicketRepository;
+import com.anjesh.tickets.repositories.TicketTypeRepository;
+import com.anjesh.tickets.services.AttendanceService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live admission counts per event and ticket type, bumped by every valid scan so dashboards are
+ * served from memory however many are open. A counter is a database baseline plus the tickets
+ * this node has admitted that the baseline does not include yet. The baseline is refreshed from
+ * the redeemed tickets every reconcile interval, which also picks up other nodes' scans. The
+ * same snapshot tells which of this node's admissions it already holds, so an admission that
+ * commits while the baseline is being read is counted once.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceServiceImpl implements AttendanceService {
+
+    private static final long STREAM_TIMEOUT_MS = Duration.ofMinutes(30).toMillis();
+    private static final long IDLE_EVICTION_NANOS = Duration.ofHours(1).toNanos();
+    private static final int LOOKUP_BATCH_SIZE = 1000;
+
+    private final EventRepository eventRepository;
+    private final TicketTypeRepository ticketTypeRepository;
+    private final TicketRepository ticketRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<UUID, EventAttendance> attendance = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordAdmission(UUID eventId, UUID ticketTypeId, UUID ticketId) {
+        EventAttendance eventAttendance = attendance.computeIfAbsent(eventId, id -> new EventAttendance());
+        eventAttendance.touch();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventAttendance.counter(ticketTypeId).count(ticketId);
+            return;
+        }
+        // Left in flight until counted, so a reconcile reading the baseline meanwhile asks about it
+        eventAttendance.inFlight.add(ticketId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (STATUS_COMMITTED == status) {
+                    eventAttendance.counter(ticketTypeId).count(ticketId);
+                }
+                eventAttendance.inFlight.remove(ticketId);
+            }
+        });
+    }
+
+    @Override
+    public EventAttendanceResponseDto getAttendanceForOrganizer(UUID organizerId, UUID eventId) {
+        checkOrganizer(organizerId, eventId);
+        return snapshot(eventId, track(eventId));
+    }
+
+    @Override
+    public SseEmitter streamAttendanceForOrganizer(UUID organizerId, UUID eventId) {
+        checkOrganizer(organizerId, eventId);
+        EventAttendance eventAttendance = track(eventId);
+
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        eventAttendance.emitters.add(emitter);
+        emitter.onCompletion(() -> eventAttendance.emitters.remove(emitter));
+        emitter.onTimeout(() -> eventAttendance.emitters.remove(emitter));
+        emitter.onError(ex -> eventAttendance.emitters.remove(emitter));
+
+        send(eventAttendance, emitter, snapshot(eventId, eventAttendance));
+        return emitter;
+    }
+
+    @Override
+    public void publishEntryRates() {
+        attendance.forEach((eventId, eventAttendance) -> {
+            eventAttendance.counters.values().forEach(Counter::tick);
+            if (eventAttendance.emitters.isEmpty()) {
+                return;
+            }
+            EventAttendanceResponseDto snapshot = snapshot(eventId, eventAttendance);
+            eventAttendance.emitters.forEach(emitter -> send(eventAttendance, emitter, snapshot));
+        });
+    }
+
+    @Override
+    public void reconcile() {
+        long now = System.nanoTime();
+        attendance.entrySet().removeIf(entry -> entry.getValue().emitters.isEmpty()
+                && now - entry.getValue().lastActivity > IDLE_EVICTION_NANOS);
+
+        // Entries evicted from here on are still reconciled, nobody reads them any more
+        Map<UUID, EventAttendance> tracked = new HashMap<>(attendance);
+        if (!tracked.isEmpty()) {
+            reconcile(tracked);
+        }
+    }
+
+    private synchronized void reconcile(Map<UUID, EventAttendance> tracked) {
+        TransactionTemplate snapshot = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshot.setReadOnly(true);
+        snapshot.executeWithoutResult(status -> {
+            List<TicketTypeAdmissions> admissions = ticketTypeRepository.countAdmissionsByEventIdIn(tracked.keySet());
+
+            // An admission the count includes committed before it ran, so it is in flight or counted by now.
+            // In flight is read first: a ticket is counted before it leaves it.
+            Set<UUID> admitted = new HashSet<>();
+            tracked.values().forEach(eventAttendance -> {
+                admitted.addAll(eventAttendance.inFlight);
+                eventAttendance.counters.values().forEach(counter -> admitted.addAll(counter.recent));
+            });
+            Set<UUID> included = findRedeemed(admitted);
+
+            for (TicketTypeAdmissions ticketTypeAdmissions : admissions) {
+                Counter counter = tracked.get(ticketTypeAdmissions.getEventId())
+                        .counter(ticketTypeAdmissions.getTicketTypeId());
+                counter.name = ticketTypeAdmissions.getName();
+                counter.rebase(new Baseline(ticketTypeAdmissions.getAdmitted(), included));
+            }
+        });
+        tracked.values().forEach(eventAttendance -> eventAttendance.reconciled = true);
+    }
+
+    private Set<UUID> findRedeemed(Set<UUID> ticketIds) {
+        List<UUID> ids = new ArrayList<>(ticketIds);
+        Set<UUID> redeemed = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += LOOKUP_BATCH_SIZE) {
+            redeemed.addAll(ticketRepository.findRedeemedIdsByIdIn(
+                    ids.subList(from, Math.min(ids.size(), from + LOOKUP_BATCH_SIZE))));
+        }
+        return redeemed;
+    }
+
+    private EventAttendance track(UUID eventId) {
+        EventAttendance eventAttendance = attendance.computeIfAbsent(eventId, id -> new EventAttendance());
+        eventAttendance.touch();
+        if (!eventAttendance.reconciled) {
+            reconcile(Map.of(eventId, eventAttendance));
+        }
+        return eventAttendance;
+    }
+
+    private void checkOrganizer(UUID organizerId, UUID eventId) {
+        if (!eventRepository.existsByIdAndOrganizerId(eventId, organizerId)) {
+            throw new EventNotFoundException(String.format("Event with ID '%s' does not exist", eventId));
+        }
+    }
+
+    private static EventAttendanceResponseDto snapshot(UUID eventId, EventAttendance eventAttendance) {
+        List<TicketTypeAttendanceResponseDto> ticketTypes = eventAttendance.counters.entrySet().stream()
+                .map(entry -> new TicketTypeAttendanceResponseDto(
+                        entry.getKey(),
+                        entry.getValue().name,
+                        entry.getValue().admitted(),
+                        entry.getValue().entriesPerSecond))
+                .sorted(Comparator.comparing(
+                        TicketTypeAttendanceResponseDto::getName, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+
+        return new EventAttendanceResponseDto(
+                eventId,
+                ticketTypes.stream().mapToLong(TicketTypeAttendanceResponseDto::getAdmitted).sum(),
+                ticketTypes.stream().mapToLong(TicketTypeAttendanceResponseDto::getEntriesPerSecond).sum(),
+                ticketTypes,
+                LocalDateTime.now());
+    }
+
+    private static void send(EventAttendance eventAttendance, SseEmitter emitter, EventAttendanceResponseDto snapshot) {
+        try {
+            emitter.send(SseEmitter.event().name("attendance").data(snapshot));
+        } catch (IOException | IllegalStateException ex) {
+            // Client went away, the servlet container completes the emitter
+            eventAttendance.emitters.remove(emitter);
+        }
+    }
+
+    private static final class EventAttendance {
+        private final Map<UUID, Counter> counters = new ConcurrentHashMap<>();
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+        private volatile boolean reconciled;
+        private volatile long lastActivity = System.nanoTime();
+
+        private Counter counter(UUID ticketTypeId) {
+            return counters.computeIfAbsent(ticketTypeId, id -> new Counter());
+        }
+
+        private void touch() {
+            lastActivity = System.nanoTime();
+        }
+    }
+
+    private static final class Counter {
+        private final LongAdder admissions = new LongAdder();
+        // Tickets admitted on this node that the baseline does not include
+        private final Set<UUID> recent = ConcurrentHashMap.newKeySet();
+        private volatile Baseline baseline = new Baseline(0, Set.of());
+        private volatile String name;
+        private volatile long entriesPerSecond;
+        // Only touched by the once-a-second tick
+        private long admissionsAtLastTick;
+
+        private void count(UUID ticketId) {
+            admissions.increment();
+            recent.add(ticketId);
+            // Either this or rebase drops it, whichever runs second
+            if (baseline.included.contains(ticketId)) {
+                recent.remove(ticketId);
+            }
+        }
+
+        private void rebase(Baseline next) {
+            baseline = next;
+            recent.removeAll(next.included);
+        }
+
+        private long admitted() {
+            return baseline.admitted + recent.size();
+        }
+
+        private void tick() {
+            long total = admissions.sum();
+            entriesPerSecond = total - admissionsAtLastTick;
+            admissionsAtLastTick = total;
+        }
+    }
+
+    private static final class Baseline {
+        private final long admitted;
+        // Tickets of this node the count already includes
+        private final Set<UUID> included;
+
+        private Baseline(long admitted, Set<UUID> included) {
+            this.admitted = admitted;
+            this.included = included;
+        }
+    }
+}
@@ -1,28 +1,64 @@
 package com.anjesh.tickets.services.impl;
 
 import com.anjesh.tickets.domain.CreateEventRequest;
+import com.anjesh.tickets.domain.PageCursor;
+import com.anjesh.tickets.domain.PublishedEventFilter;
 import com.anjesh.tickets.domain.UpdateEventRequest;
 import com.anjesh.tickets.domain.UpdateTicketTypeRequest;
+import com.anjesh.tickets.domain.Versioned;
 import com.anjesh.tickets.domain.dtos.*;
 import com.anjesh.tickets.domain.entities.Event;
 import com.anjesh.tickets.domain.entities.EventStatusEnum;
 import com.anjesh.tickets.domain.entities.TicketType;
 import com.anjesh.tickets.domain.entities.User;
+import com.anjesh.tickets.domain.events.EventRescheduledEvent;
+import com.anjesh.tickets.domain.events.PublishedEventChangedEvent;
+import com.anjesh.tickets.domain.projections.EventListItem;
+import com.anjesh.tickets.domain.projections.EventListingVersion;
+import com.anjesh.tickets.domain.projections.TicketTypeListItem;
 import com.anjesh.tickets.exceptions.EventNotFoundException;
 import com.anjesh.tickets.exceptions.EventUpdateException;
+import com.anjesh.tickets.exceptions.EventVersionConflictException;
+import com.anjesh.tickets.exceptions.InvalidEventFilterException;
 import com.anjesh.tickets.exceptions.TicketTypeNotFoundException;
 import com.anjesh.tickets.exceptions.UserNotFoundException;
 import com.anjesh.tickets.mappers.EventMapper;
+import com.anjesh.tickets.repositories.CacheGenerationRepository;
+import com.anjesh.tickets.repositories.DeletedQrCodeRepository;
 import com.anjesh.tickets.repositories.EventRepository;
+import com.anjesh.tickets.repositories.PublishedEventSpecifications;
+import com.anjesh.tickets.repositories.TicketTypeRepository;
 import com.anjesh.tickets.repositories.UserRepository;
 import com.anjesh.tickets.services.EventService;
+import com.anjesh.tickets.services.InventoryShardService;
+import com.anjesh.tickets.util.CursorPageUtil;
+import com.anjesh.tickets.util.ETagUtil;
+import com.anjesh.tickets.util.SearchQueryUtil;
+import com.anjesh.tickets.util.SliceUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -30,9 +66,44 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class EventServiceImpl implements EventService {
 
+    private static final String PUBLISHED_EVENTS_GENERATION = "published-events";
+
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
+    private final TicketTypeRepository ticketTypeRepository;
+    private final CacheGenerationRepository cacheGenerationRepository;
+    private final DeletedQrCodeRepository deletedQrCodeRepository;
     private final EventMapper eventMapper;
+    private final InventoryShardService inventoryShardService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, Versioned<Page<ListPublishedEventResponseDto>>> publishedEventPageCache;
+    private final Cache<String, Slice<ListPublishedEventResponseDto>> publishedEventSliceCache;
+    private final Cache<String, Optional<Versioned<GetPublishedEventDetailsResponseDto>>> publishedEventDetailsCache;
+
+    // Bumped on every published change so page loads that started before it are never read again
+    private final AtomicLong publishedEventPageGeneration = new AtomicLong();
+    // Bumped when the shared generation moves, details of any event may have changed on another node
+    private final AtomicLong publishedEventDetailsGeneration = new AtomicLong();
+    private volatile Long seenPublishedEventsGeneration;
+
+    @Value("${tickets.published-events.facets.max-venues:20}")
+    private int maxVenueFacets;
+
+    @Value("${tickets.published-events.facets.price-bounds:25,50,100}")
+    private List<Double> priceFacetBounds;
+
+    // Price facet ranges run from one bound to the next, unordered bounds would produce empty or overlapping ranges
+    @PostConstruct
+    void checkPriceFacetBounds() {
+        for (int i = 0; i < priceFacetBounds.size(); i++) {
+            if (priceFacetBounds.get(i) < 0 || (i > 0 && priceFacetBounds.get(i) <= priceFacetBounds.get(i - 1))) {
+                throw new IllegalStateException(String.format(
+                        "tickets.published-events.facets.price-bounds must be ascending and not negative, got %s",
+                        priceFacetBounds));
+            }
+        }
+    }
 
     @Override
     @Transactional
@@ -50,6 +121,8 @@ public class EventServiceImpl implements EventService {
                     ticketTypeToCreate.setPrice(ticketType.getPrice());
                     ticketTypeToCreate.setDescription(ticketType.getDescription());
                     ticketTypeToCreate.setTotalAvailable(ticketType.getTotalAvailable());
+                    ticketTypeToCreate.setTicketsSold(0);
+                    ticketTypeToCreate.setInventoryShardCount(ticketType.getInventoryShardCount());
                     ticketTypeToCreate.setEvent(eventToCreate);
                     return ticketTypeToCreate;
                 }).toList();
@@ -64,15 +137,67 @@ public class EventServiceImpl implements EventService {
         eventToCreate.setOrganizer(organizer);
         eventToCreate.setTicketTypes(ticketTypesToCreate);
 
-        Event savedEvent = eventRepository.save(eventToCreate);
+        Event savedEvent = eventRepository.saveAndFlush(eventToCreate);
+        savedEvent.getTicketTypes().stream()
+                .filter(ticketType -> null != ticketType.getInventoryShardCount() && ticketType.getInventoryShardCount() > 1)
+                .forEach(inventoryShardService::provisionShards);
+        if (EventStatusEnum.PUBLISHED.equals(savedEvent.getStatus())) {
+            applicationEventPublisher.publishEvent(new PublishedEventChangedEvent(savedEvent.getId()));
+        }
         return eventMapper.toDto(savedEvent);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ListEventResponseDto> listEventsForOrganizer(UUID organizerId, Pageable pageable) {
-        return eventRepository.findByOrganizerId(organizerId, pageable)
-                .map(eventMapper::toListEventResponseDto);
+        Page<EventListItem> events = eventRepository.findListItemsByOrganizerId(organizerId, pageable);
+        Map<UUID, List<ListEventTicketTypeResponseDto>> ticketTypes = listTicketTypes(events.getContent());
+        return events.map(event -> toListEventResponseDto(event, ticketTypes));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SliceResponseDto<ListEventResponseDto> sliceEventsForOrganizer(UUID organizerId, Pageable pageable) {
+        Slice<EventListItem> events = eventRepository.sliceListItemsByOrganizerId(organizerId, pageable);
+        Map<UUID, List<ListEventTicketTypeResponseDto>> ticketTypes = listTicketTypes(events.getContent());
+        return SliceUtil.toSliceResponse(events.map(event -> toListEventResponseDto(event, ticketTypes)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDto<ListEventResponseDto> scrollEventsForOrganizer(UUID organizerId, String cursor, int size) {
+        int pageSize = CursorPageUtil.pageSize(size);
+        List<EventListItem> events;
+        if (null == cursor || cursor.isBlank()) {
+            events = eventRepository.findListItemsByOrganizerIdFirst(organizerId, Limit.of(pageSize + 1));
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            events = eventRepository.findListItemsByOrganizerIdAfter(
+                    organizerId, after.getCreatedAt(), after.getId(), Limit.of(pageSize + 1));
+        }
+        Map<UUID, List<ListEventTicketTypeResponseDto>> ticketTypes =
+                listTicketTypes(events.subList(0, Math.min(events.size(), pageSize)));
+        return CursorPageUtil.toCursorPage(
+                events, pageSize, EventServiceImpl::cursorOf, event -> toListEventResponseDto(event, ticketTypes));
+    }
+
+    // One query for the ticket types of a whole page instead of one per event
+    private Map<UUID, List<ListEventTicketTypeResponseDto>> listTicketTypes(List<EventListItem> events) {
+        if (events.isEmpty()) {
+            return Map.of();
+        }
+        Set<UUID> eventIds = events.stream().map(EventListItem::getId).collect(Collectors.toSet());
+        return ticketTypeRepository.findListItemsByEventIdIn(eventIds).stream()
+                .collect(Collectors.groupingBy(
+                        TicketTypeListItem::getEventId,
+                        Collectors.mapping(eventMapper::toListEventTicketTypeResponseDto, Collectors.toList())));
+    }
+
+    private ListEventResponseDto toListEventResponseDto(EventListItem event,
+                                                        Map<UUID, List<ListEventTicketTypeResponseDto>> ticketTypes) {
+        ListEventResponseDto dto = eventMapper.toListEventResponseDto(event);
+        dto.setTicketTypes(new ArrayList<>(ticketTypes.getOrDefault(event.getId(), List.of())));
+        return dto;
     }
 
     @Override
@@ -82,6 +207,14 @@ public class EventServiceImpl implements EventService {
                 .map(eventMapper::toGetEventDetailsResponseDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> getEventVersionForOrganizer(UUID organizerId, UUID id) {
+        return eventRepository.findVersionByIdAndOrganizerId(id, organizerId)
+                .map(version -> ETagUtil.eTag(
+                        version.getUpdatedAt(), version.getTicketTypesUpdatedAt(), version.getTicketTypeCount()));
+    }
+
     @Override
     @Transactional
     public UpdateEventResponseDto updateEventForOrganizer(UUID organizerId, UUID id, UpdateEventRequest event) {
@@ -92,17 +225,30 @@ public class EventServiceImpl implements EventService {
         if (!id.equals(event.getId())) {
             throw new EventUpdateException("Cannot update the id of an event");
         }
+
+        if (null == event.getVersion()) {
+            throw new EventUpdateException("Event version cannot be null");
+        }
         Event existingEvent = eventRepository
                 .findByIdAndOrganizerId(id, organizerId)
                 .orElseThrow(() -> new EventNotFoundException(
                         String.format("Event with ID '%s' does not exist", id)));
-        existingEvent.setName(event.getName());
-        existingEvent.setStart(event.getStart());
-        existingEvent.setEnd(event.getEnd());
-        existingEvent.setVenue(event.getVenue());
-        existingEvent.setSalesStart(event.getSalesStart());
-        existingEvent.setSalesEnd(event.getSalesEnd());
-        existingEvent.setStatus(event.getStatus());
+        if (!event.getVersion().equals(existingEvent.getVersion())) {
+            throw new EventVersionConflictException(String.format(
+                    "Event with ID '%s' is at version %d, the update was based on %d",
+                    id, existingEvent.getVersion(), event.getVersion()));
+        }
+        boolean wasPublished = EventStatusEnum.PUBLISHED.equals(existingEvent.getStatus());
+
+        // Only differing values are set, so an unchanged PUT leaves every row clean
+        boolean rescheduled = setIfChanged(existingEvent.getStart(), event.getStart(), existingEvent::setStart)
+                | setIfChanged(existingEvent.getEnd(), event.getEnd(), existingEvent::setEnd);
+        boolean eventChanged = rescheduled
+                | setIfChanged(existingEvent.getName(), event.getName(), existingEvent::setName)
+                | setIfChanged(existingEvent.getVenue(), event.getVenue(), existingEvent::setVenue)
+                | setIfChanged(existingEvent.getSalesStart(), event.getSalesStart(), existingEvent::setSalesStart)
+                | setIfChanged(existingEvent.getSalesEnd(), event.getSalesEnd(), existingEvent::setSalesEnd)
+                | setIfChanged(existingEvent.getStatus(), event.getStatus(), existingEvent::setStatus);
 
         Set<UUID> requestTicketTypesIds = event.getTicketTypes()
                 .stream()
@@ -110,12 +256,21 @@ public class EventServiceImpl implements EventService {
                 .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
 
-        existingEvent.getTicketTypes()
+        List<UUID> removedTicketTypeIds = existingEvent.getTicketTypes().stream()
+                .map(TicketType::getId)
+                .filter(ticketTypeId -> !requestTicketTypesIds.contains(ticketTypeId))
+                .toList();
+        if (!removedTicketTypeIds.isEmpty()) {
+            // Recorded while the QR codes still exist, delta gate manifests revoke them from these
+            deletedQrCodeRepository.insertForTicketTypes(removedTicketTypeIds, LocalDateTime.now());
+        }
+        boolean ticketTypesChanged = existingEvent.getTicketTypes()
                 .removeIf(existingTicketType -> !requestTicketTypesIds.contains(existingTicketType.getId()));
 
         Map<UUID, TicketType> existingTicketTypesIndex = existingEvent.getTicketTypes().stream()
                 .collect(Collectors.toMap(TicketType::getId, Function.identity()));
 
+        List<TicketType> ticketTypesToProvision = new ArrayList<>();
         for (UpdateTicketTypeRequest ticketType : event.getTicketTypes()) {
             if (null == ticketType.getId()) {
                 // Create
@@ -124,51 +279,264 @@ public class EventServiceImpl implements EventService {
                 ticketTypeToCreate.setPrice(ticketType.getPrice());
                 ticketTypeToCreate.setDescription(ticketType.getDescription());
                 ticketTypeToCreate.setTotalAvailable(ticketType.getTotalAvailable());
+                ticketTypeToCreate.setTicketsSold(0);
+                ticketTypeToCreate.setInventoryShardCount(ticketType.getInventoryShardCount());
                 ticketTypeToCreate.setEvent(existingEvent);
                 existingEvent.getTicketTypes().add(ticketTypeToCreate);
+                ticketTypesToProvision.add(ticketTypeToCreate);
+                ticketTypesChanged = true;
 
             } else if (existingTicketTypesIndex.containsKey(ticketType.getId())) {
                 // Update
                 TicketType existingTicketType = existingTicketTypesIndex.get(ticketType.getId());
-                existingTicketType.setName(ticketType.getName());
-                existingTicketType.setPrice(ticketType.getPrice());
-                existingTicketType.setDescription(ticketType.getDescription());
-                existingTicketType.setTotalAvailable(ticketType.getTotalAvailable());
+                ticketTypesChanged |= setIfChanged(existingTicketType.getName(), ticketType.getName(), existingTicketType::setName)
+                        | setIfChanged(existingTicketType.getPrice(), ticketType.getPrice(), existingTicketType::setPrice)
+                        | setIfChanged(existingTicketType.getDescription(), ticketType.getDescription(), existingTicketType::setDescription);
+                // Stock already pushed out to shards has to be pulled back when the capacity is cut
+                if (setIfChanged(existingTicketType.getTotalAvailable(), ticketType.getTotalAvailable(),
+                        existingTicketType::setTotalAvailable)
+                        | setIfChanged(existingTicketType.getInventoryShardCount(), ticketType.getInventoryShardCount(),
+                        existingTicketType::setInventoryShardCount)) {
+                    ticketTypesToProvision.add(existingTicketType);
+                    ticketTypesChanged = true;
+                }
             } else {
                 throw new TicketTypeNotFoundException(String.format(
                         "Ticket type with ID '%s' does not exist", ticketType.getId()));
             }
         }
 
-        Event savedEvent = eventRepository.save(existingEvent);
+        if (!eventChanged && !ticketTypesChanged) {
+            return eventMapper.toUpdateEventResponseDto(existingEvent);
+        }
+        if (!eventChanged) {
+            // Ticket type changes bump the event's version too, so a stale copy of the whole event is rejected
+            existingEvent.setUpdatedAt(LocalDateTime.now());
+        }
+
+        Event savedEvent = eventRepository.saveAndFlush(existingEvent);
+        ticketTypesToProvision.forEach(inventoryShardService::provisionShards);
+        if (rescheduled) {
+            // Signed QR codes embed the event window
+            applicationEventPublisher.publishEvent(new EventRescheduledEvent(savedEvent.getId()));
+        }
+        if (wasPublished || EventStatusEnum.PUBLISHED.equals(savedEvent.getStatus())) {
+            applicationEventPublisher.publishEvent(new PublishedEventChangedEvent(savedEvent.getId()));
+        }
         return eventMapper.toUpdateEventResponseDto(savedEvent);
     }
 
+    private static <T> boolean setIfChanged(T current, T requested, Consumer<T> setter) {
+        if (Objects.equals(current, requested)) {
+            return false;
+        }
+        setter.accept(requested);
+        return true;
+    }
+
     @Override
     @Transactional
     public void deleteEventForOrganizer(UUID organizerId, UUID id) {
         eventRepository.findByIdAndOrganizerId(id, organizerId)
-                .ifPresent(eventRepository::delete);
+                .ifPresent(event -> {
+                    eventRepository.delete(event);
+                    deletedQrCodeRepository.deleteByEventId(id);
+                    if (EventStatusEnum.PUBLISHED.equals(event.getStatus())) {
+                        applicationEventPublisher.publishEvent(new PublishedEventChangedEvent(id));
+                    }
+                });
+    }
+
+    @Override
+    public Versioned<Page<ListPublishedEventResponseDto>> listPublishedEvents(Pageable pageable) {
+        // Concurrent misses for the same page wait on a single load, hits never take a connection
+        String key = publishedEventPageGeneration.get() + ":" + pageable;
+        return publishedEventPageCache.get(key, k -> readSnapshot(status -> new Versioned<>(
+                publishedEventsVersion(),
+                eventRepository.findListItemsByStatus(EventStatusEnum.PUBLISHED, pageable)
+                        .map(eventMapper::toListPublishedEventResponseDto))));
+    }
+
+    @Override
+    public SliceResponseDto<ListPublishedEventResponseDto> slicePublishedEvents(String query,
+                                                                               PublishedEventFilter filter,
+                                                                               Pageable pageable) {
+        if (null != query && !query.isBlank()) {
+            return SliceUtil.toSliceResponse(SearchQueryUtil.toPrefixTsQuery(query)
+                    .map(tsQuery -> transactionTemplate.execute(status -> eventRepository
+                            .searchEventsSlice(tsQuery, pageable)
+                            .map(eventMapper::toListPublishedEventResponseDto)))
+                    .orElseGet(() -> new SliceImpl<>(List.of(), pageable, false)));
+        }
+        if (!filter.isEmpty()) {
+            validateFilter(filter);
+            return SliceUtil.toSliceResponse(transactionTemplate.execute(status -> eventRepository
+                    .findSlice(PublishedEventSpecifications.matching(filter), pageable)
+                    .map(eventMapper::toListPublishedEventResponseDto)));
+        }
+
+        String key = publishedEventPageGeneration.get() + ":" + pageable;
+        return SliceUtil.toSliceResponse(publishedEventSliceCache.get(key, k -> transactionTemplate.execute(
+                status -> eventRepository.sliceListItemsByStatus(EventStatusEnum.PUBLISHED, pageable)
+                        .map(eventMapper::toListPublishedEventResponseDto))));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ListPublishedEventResponseDto> listPublishedEvents(Pageable pageable) {
-        return eventRepository.findByStatus(EventStatusEnum.PUBLISHED, pageable)
-                .map(eventMapper::toListPublishedEventResponseDto);
+    public CursorPageResponseDto<ListPublishedEventResponseDto> scrollPublishedEvents(String cursor, int size) {
+        int pageSize = CursorPageUtil.pageSize(size);
+        List<EventListItem> events;
+        if (null == cursor || cursor.isBlank()) {
+            events = eventRepository.findListItemsByStatusFirst(EventStatusEnum.PUBLISHED, Limit.of(pageSize + 1));
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            events = eventRepository.findListItemsByStatusAfter(
+                    EventStatusEnum.PUBLISHED, after.getCreatedAt(), after.getId(), Limit.of(pageSize + 1));
+        }
+        return CursorPageUtil.toCursorPage(
+                events, pageSize, EventServiceImpl::cursorOf, eventMapper::toListPublishedEventResponseDto);
+    }
+
+    @Override
+    public Versioned<Page<ListPublishedEventResponseDto>> searchPublishedEvents(String query, Pageable pageable) {
+        return readSnapshot(status -> new Versioned<>(
+                publishedEventsVersion(),
+                SearchQueryUtil.toPrefixTsQuery(query)
+                        .map(tsQuery -> eventRepository.searchEvents(tsQuery, pageable)
+                                .map(eventMapper::toListPublishedEventResponseDto))
+                        .orElseGet(() -> Page.empty(pageable))));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ListPublishedEventResponseDto> searchPublishedEvents(String query, Pageable pageable) {
-        return eventRepository.searchEvents(query, pageable)
+    public Page<ListPublishedEventResponseDto> filterPublishedEvents(PublishedEventFilter filter, Pageable pageable) {
+        validateFilter(filter);
+        return eventRepository.findAll(PublishedEventSpecifications.matching(filter), pageable)
                 .map(eventMapper::toListPublishedEventResponseDto);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Optional<GetPublishedEventDetailsResponseDto> getPublishedEvent(UUID id) {
-        return eventRepository.findByIdAndStatus(id, EventStatusEnum.PUBLISHED)
-                .map(eventMapper::toGetPublishedEventDetailsResponseDto);
+    public PublishedEventFacetsResponseDto getPublishedEventFacets(PublishedEventFilter filter) {
+        validateFilter(filter);
+        PublishedEventFacetsResponseDto facets = new PublishedEventFacetsResponseDto();
+        facets.setTotal(eventRepository.count(PublishedEventSpecifications.matching(filter)));
+
+        eventRepository.countByVenue(PublishedEventSpecifications.withoutVenue(filter), maxVenueFacets)
+                .forEach((venue, count) -> facets.getVenues().add(new VenueFacetResponseDto(venue, count)));
+
+        long[] priceCounts = eventRepository.countByPriceRange(
+                PublishedEventSpecifications.withoutPrice(filter), priceFacetBounds);
+        for (int i = 0; i < priceCounts.length; i++) {
+            facets.getPrices().add(new PriceFacetResponseDto(
+                    i > 0 ? priceFacetBounds.get(i - 1) : null,
+                    i < priceFacetBounds.size() ? priceFacetBounds.get(i) : null,
+                    priceCounts[i]));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        LocalDateTime weekendEnd = today.with(TemporalAdjusters.next(DayOfWeek.MONDAY)).atStartOfDay();
+        LocalDateTime weekendStart = weekendEnd.minusDays(2).isAfter(now) ? weekendEnd.minusDays(2) : now;
+        List<DateFacetResponseDto> dates = List.of(
+                new DateFacetResponseDto("today", now, today.plusDays(1).atStartOfDay(), 0),
+                new DateFacetResponseDto("this-weekend", weekendStart, weekendEnd, 0),
+                new DateFacetResponseDto("next-7-days", now, now.plusDays(7), 0),
+                new DateFacetResponseDto("next-30-days", now, now.plusDays(30), 0));
+        long[] dateCounts = eventRepository.countTakingPlaceBetween(
+                PublishedEventSpecifications.withoutDates(filter),
+                dates.stream().map(date -> new LocalDateTime[]{date.getFrom(), date.getTo()}).toList());
+        for (int i = 0; i < dateCounts.length; i++) {
+            dates.get(i).setCount(dateCounts[i]);
+        }
+        facets.setDates(dates);
+
+        return facets;
+    }
+
+    private static void validateFilter(PublishedEventFilter filter) {
+        if (null != filter.getFrom() && null != filter.getTo() && !filter.getFrom().isBefore(filter.getTo())) {
+            throw new InvalidEventFilterException("from must be before to");
+        }
+        if ((null != filter.getMinPrice() && filter.getMinPrice() < 0)
+                || (null != filter.getMaxPrice() && filter.getMaxPrice() < 0)) {
+            throw new InvalidEventFilterException("Prices cannot be negative");
+        }
+        if (null != filter.getMinPrice() && null != filter.getMaxPrice() && filter.getMinPrice() >= filter.getMaxPrice()) {
+            throw new InvalidEventFilterException("minPrice must be below maxPrice");
+        }
+    }
+
+    @Override
+    public Optional<Versioned<GetPublishedEventDetailsResponseDto>> getPublishedEvent(UUID id) {
+        return publishedEventDetailsCache.get(detailsKey(id), k -> readSnapshot(status ->
+                eventRepository.findVersionByIdAndStatus(id, EventStatusEnum.PUBLISHED)
+                        .map(version -> ETagUtil.eTag(
+                                version.getUpdatedAt(), version.getTicketTypesUpdatedAt(), version.getTicketTypeCount()))
+                        .flatMap(eTag -> eventRepository.findByIdAndStatus(id, EventStatusEnum.PUBLISHED)
+                                .map(event -> new Versioned<>(eTag, eventMapper.toGetPublishedEventDetailsResponseDto(event))))));
+    }
+
+    private String publishedEventsVersion() {
+        EventListingVersion version = eventRepository.findListingVersionByStatus(EventStatusEnum.PUBLISHED);
+        return ETagUtil.eTag(version.getUpdatedAt(), version.getEventCount());
+    }
+
+    // Version and body come from one snapshot, so the ETag always describes the body it is cached with
+    private <T> T readSnapshot(TransactionCallback<T> action) {
+        TransactionTemplate snapshot = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshot.setReadOnly(true);
+        return snapshot.execute(action);
+    }
+
+    private static PageCursor cursorOf(EventListItem event) {
+        return new PageCursor(event.getCreatedAt(), event.getId());
+    }
+
+    private String detailsKey(UUID id) {
+        return publishedEventDetailsGeneration.get() + ":" + id;
+    }
+
+    @Override
+    public void evictPublishedEvent(UUID id) {
+        publishedEventPageGeneration.incrementAndGet();
+        publishedEventPageCache.invalidateAll();
+        publishedEventSliceCache.invalidateAll();
+        // Waits for a load of this event that is still in flight and drops its result
+        publishedEventDetailsCache.invalidate(detailsKey(id));
+    }
+
+    @Override
+    @Transactional
+    public void recordPublishedEventChange() {
+        cacheGenerationRepository.incrementGeneration(PUBLISHED_EVENTS_GENERATION);
+    }
+
+    @Override
+    public void checkPublishedEventGeneration() {
+        Long generation = cacheGenerationRepository.findGenerationByName(PUBLISHED_EVENTS_GENERATION)
+                .orElseGet(this::createPublishedEventsGeneration);
+        if (generation.equals(seenPublishedEventsGeneration)) {
+            return;
+        }
+        seenPublishedEventsGeneration = generation;
+
+        // Loads still in flight finish under the old keys and are never read
+        publishedEventPageGeneration.incrementAndGet();
+        publishedEventDetailsGeneration.incrementAndGet();
+        publishedEventPageCache.invalidateAll();
+        publishedEventSliceCache.invalidateAll();
+        publishedEventDetailsCache.invalidateAll();
+    }
+
+    private Long createPublishedEventsGeneration() {
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> cacheGenerationRepository.insertIfAbsent(PUBLISHED_EVENTS_GENERATION));
+        } catch (DataIntegrityViolationException ex) {
+            // Another node created it first
+        }
+        return cacheGenerationRepository.findGenerationByName(PUBLISHED_EVENTS_GENERATION).orElseThrow();
     }
 }
@@ -0,0 +1,113 @@
+package com.anjesh.tickets.services.impl;
+
+import com.anjesh.tickets.domain.dtos.EventSuggestionResponseDto;
+import com.anjesh.tickets.domain.entities.EventStatusEnum;
+import com.anjesh.tickets.domain.projections.EventSummary;
+import com.anjesh.tickets.repositories.EventRepository;
+import com.anjesh.tickets.services.EventSuggestionService;
+import com.anjesh.tickets.util.TypeaheadIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Serves search-as-you-type from a {@link TypeaheadIndex} of published events built once the
+ * app is ready and kept current from PublishedEventChangedEvent. Changes made on other nodes
+ * only arrive with the periodic rebuild from TypeaheadIndexRebuildJob. Until the first build
+ * finishes suggestions are empty, the search endpoint still works.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EventSuggestionServiceImpl implements EventSuggestionService {
+
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${tickets.published-events.typeahead.max-size:64MB}")
+    private DataSize maxSize;
+
+    // Upper bound on the events one keystroke looks at, see TypeaheadIndex
+    @Value("${tickets.published-events.typeahead.max-candidates:1000}")
+    private int maxCandidates;
+
+    private volatile TypeaheadIndex index = new TypeaheadIndex(0L);
+    private volatile Set<UUID> changedDuringRebuild;
+
+    @Override
+    public void rebuild() {
+        Set<UUID> changed = ConcurrentHashMap.newKeySet();
+        changedDuringRebuild = changed;
+
+        TypeaheadIndex rebuilt = new TypeaheadIndex(maxSize.toBytes(), maxCandidates);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<EventSummary> events = eventRepository.streamSummariesByStatus(EventStatusEnum.PUBLISHED)) {
+                Iterator<EventSummary> iterator = events.iterator();
+                while (iterator.hasNext()) {
+                    EventSummary event = iterator.next();
+                    if (!rebuilt.put(event.getId(), event.getName(), event.getVenue(), event.getStart())) {
+                        log.warn("Typeahead index is full at {}, older published events will not be suggested",
+                                maxSize);
+                        break;
+                    }
+                }
+            }
+        });
+        index = rebuilt;
+        changedDuringRebuild = null;
+
+        // Changes committed while the rows were streamed may not be in the new index
+        changed.forEach(this::refresh);
+        log.info("Built typeahead index with {} published events in about {} KB",
+                rebuilt.size(), rebuilt.estimatedBytes() / 1024);
+    }
+
+    @Override
+    public void refresh(UUID eventId) {
+        Set<UUID> changed = changedDuringRebuild;
+        if (null != changed) {
+            changed.add(eventId);
+        }
+
+        TypeaheadIndex current = index;
+        EventSummary event = eventRepository.findSummaryByIdAndStatus(eventId, EventStatusEnum.PUBLISHED).orElse(null);
+        if (null == event) {
+            current.remove(eventId);
+        } else if (!current.put(event.getId(), event.getName(), event.getVenue(), event.getStart())) {
+            log.warn("Typeahead index is full at {}, event {} will not be suggested", maxSize, eventId);
+        }
+    }
+
+    @Override
+    public List<EventSuggestionResponseDto> suggest(String query, int limit) {
+        return index.suggest(query, Math.min(limit, MAX_SUGGESTIONS)).stream()
+                .map(entry -> new EventSuggestionResponseDto(
+                        entry.getId(), entry.getName(), entry.getVenue(), entry.getStart()))
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread.ofVirtual().name("typeahead-index").start(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException ex) {
+                log.error("Failed to build typeahead index, suggestions are unavailable", ex);
+            }
+        });
+    }
+}
@@ -0,0 +1,168 @@
+package com.anjesh.tickets.services.impl;
+
+import com.anjesh.tickets.domain.entities.QrCodeStatusEnum;
+import com.anjesh.tickets.domain.entities.TicketStatusEnum;
+import com.anjesh.tickets.domain.entities.TicketType;
+import com.anjesh.tickets.exceptions.EventNotFoundException;
+import com.anjesh.tickets.repositories.DeletedQrCodeRepository;
+import com.anjesh.tickets.repositories.EventRepository;
+import com.anjesh.tickets.repositories.TicketTypeRepository;
+import com.anjesh.tickets.services.GateManifestService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Binary manifest of an event's QR codes for scanners that validate offline. All numbers are
+ * big-endian:
+ * <pre>
+ * header     "TKGM", format (1 byte), flags (1 byte, bit 0 = delta), version (8 bytes),
+ *            event ID (16 bytes), ticket type count (2 bytes)
+ * types      per ticket type: ID (16 bytes), name (modified UTF-8 with 2 byte length);
+ *            a type's code is its position in this list
+ * records    record count (4 bytes), then per QR code: ID (16 bytes), ticket type code
+ *            (2 bytes), flags (1 byte, bit 0 = redeemed, bit 1 = no longer valid)
+ * tombstones count (4 bytes), then the IDs (16 bytes each) of QR codes deleted since the
+ *            {@code since} version, always empty in a full manifest
+ * </pre>
+ * Records are sorted by QR code ID. Devices pass the version back as {@code since} to receive
+ * only QR codes whose code or ticket changed after it, and drop the tombstoned ones.
+ */
+@Service
+@RequiredArgsConstructor
+public class GateManifestServiceImpl implements GateManifestService {
+
+    private static final byte[] MAGIC = "TKGM".getBytes(StandardCharsets.US_ASCII);
+    private static final int FORMAT = 2;
+    private static final int FLAG_DELTA = 1;
+    private static final int FLAG_REDEEMED = 1;
+    private static final int FLAG_INACTIVE = 2;
+    private static final int RECORD_LENGTH = 16 + 2 + 1;
+    private static final int FETCH_SIZE = 5000;
+    // Rows committed late by transactions that started before the last sync
+    private static final long DELTA_OVERLAP_MILLIS = 60_000;
+
+    private static final String MANIFEST_SQL = "SELECT q.id, t.ticket_type_id, t.redeemed_at IS NOT NULL, q.status, t.status " +
+            "FROM qr_codes q " +
+            "JOIN tickets t ON t.id = q.ticket_id " +
+            "JOIN ticket_types tt ON tt.id = t.ticket_type_id " +
+            "WHERE tt.event_id = ? ";
+    private static final String DELTA_SQL = "AND (q.updated_at > ? OR t.updated_at > ?) ";
+    private static final String ORDER_SQL = "ORDER BY q.id";
+
+    private final EventRepository eventRepository;
+    private final TicketTypeRepository ticketTypeRepository;
+    private final DeletedQrCodeRepository deletedQrCodeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public byte[] getManifest(UUID eventId, Long since) {
+        // Built in memory so the connection goes back to the pool before the client starts downloading
+        TransactionTemplate snapshot = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshot.setReadOnly(true);
+        try {
+            return snapshot.execute(status -> {
+                try {
+                    return read(eventId, since);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw new IllegalStateException("Unable to build gate manifest", ex.getCause());
+        }
+    }
+
+    private byte[] read(UUID eventId, Long since) throws IOException {
+        if (!eventRepository.existsById(eventId)) {
+            throw new EventNotFoundException(String.format("Event with ID '%s' does not exist", eventId));
+        }
+
+        // updated_at holds wall-clock times, so the version is one too, encoded at a fixed UTC offset
+        LocalDateTime version = LocalDateTime.now();
+        LocalDateTime changedAfter = null == since
+                ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(since - DELTA_OVERLAP_MILLIS), ZoneOffset.UTC);
+
+        List<TicketType> ticketTypes = ticketTypeRepository.findByEventIdOrderById(eventId);
+        Map<UUID, Integer> ticketTypeCodes = new HashMap<>();
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.write(MAGIC);
+        out.writeByte(FORMAT);
+        out.writeByte(null == since ? 0 : FLAG_DELTA);
+        out.writeLong(version.toInstant(ZoneOffset.UTC).toEpochMilli());
+        writeUuid(out, eventId);
+        out.writeShort(ticketTypes.size());
+        for (TicketType ticketType : ticketTypes) {
+            ticketTypeCodes.put(ticketType.getId(), ticketTypeCodes.size());
+            writeUuid(out, ticketType.getId());
+            out.writeUTF(null == ticketType.getName() ? "" : ticketType.getName());
+        }
+
+        ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream();
+        DataOutputStream records = new DataOutputStream(recordBuffer);
+        JdbcTemplate cursor = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursor.setFetchSize(FETCH_SIZE);
+        Object[] args;
+        String sql;
+        if (null == changedAfter) {
+            sql = MANIFEST_SQL + ORDER_SQL;
+            args = new Object[]{eventId};
+        } else {
+            Timestamp timestamp = Timestamp.valueOf(changedAfter);
+            sql = MANIFEST_SQL + DELTA_SQL + ORDER_SQL;
+            args = new Object[]{eventId, timestamp, timestamp};
+        }
+
+        cursor.query(sql, rs -> {
+            try {
+                writeUuid(records, rs.getObject(1, UUID.class));
+                records.writeShort(ticketTypeCodes.getOrDefault(rs.getObject(2, UUID.class), 0));
+                int flags = 0;
+                if (rs.getBoolean(3)) {
+                    flags |= FLAG_REDEEMED;
+                }
+                if (!QrCodeStatusEnum.ACTIVE.name().equals(rs.getString(4))
+                        || !TicketStatusEnum.PURCHASED.name().equals(rs.getString(5))) {
+                    flags |= FLAG_INACTIVE;
+                }
+                records.writeByte(flags);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }, args);
+        out.writeInt(recordBuffer.size() / RECORD_LENGTH);
+        recordBuffer.writeTo(out);
+
+        List<UUID> deleted = null == changedAfter
+                ? List.of()
+                : deletedQrCodeRepository.findQrCodeIdsByEventIdDeletedAfter(eventId, changedAfter);
+        out.writeInt(deleted.size());
+        for (UUID qrCodeId : deleted) {
+            writeUuid(out, qrCodeId);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,140 @@
+package com.anjesh.tickets.services.impl;
+
+import com.anjesh.tickets.domain.entities.InventoryLease;
+import com.anjesh.tickets.domain.entities.TicketType;
+import com.anjesh.tickets.repositories.InventoryLeaseRepository;
+import com.anjesh.tickets.repositories.TicketTypeRepository;
+import com.anjesh.tickets.services.InventoryLeaseService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Leases blocks of stock from the ticket type row into a lease row owned by this node, so
+ * purchases update a row no other node writes to. A leased block is already counted in
+ * {@code tickets_sold}, so nodes can never sell more than {@code totalAvailable} between
+ * them. Leases are stored with their expiry, whichever node finds one expired returns its
+ * unused stock to the ticket type, including leases of nodes that crashed.
+ * <p>
+ * Cutting {@code totalAvailable} does not reclaim outstanding leases. Until they expire the
+ * nodes can still sell what they hold, at most one block per node for one TTL over the new
+ * total.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryLeaseServiceImpl implements InventoryLeaseService {
+
+    private final TicketTypeRepository ticketTypeRepository;
+    private final InventoryLeaseRepository inventoryLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // The lease this node is selling each ticket type from
+    private final Map<UUID, UUID> leaseIds = new ConcurrentHashMap<>();
+
+    @Value("${tickets.inventory.lease.enabled:false}")
+    private boolean enabled;
+
+    @Value("${tickets.inventory.lease.block-size:50}")
+    private int blockSize;
+
+    @Value("${tickets.inventory.lease.ttl:PT30S}")
+    private Duration ttl;
+
+    @Value("${tickets.inventory.lease.expiry-batch-size:100}")
+    private int expiryBatchSize;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    @Transactional
+    public boolean reserve(TicketType ticketType, int quantity) {
+        UUID ticketTypeId = ticketType.getId();
+        UUID leaseId = leaseIds.get(ticketTypeId);
+        LocalDateTime now = LocalDateTime.now();
+
+        if (null != leaseId && inventoryLeaseRepository.takeFromLease(leaseId, quantity, now) == 1) {
+            return true;
+        }
+
+        int block = Math.max(blockSize, quantity);
+        if (ticketTypeRepository.reserveTickets(ticketTypeId, block) == 1) {
+            LocalDateTime expiresAt = now.plus(ttl);
+            if (null == leaseId || inventoryLeaseRepository.renewLease(leaseId, block - quantity, expiresAt, now) == 0) {
+                InventoryLease lease = new InventoryLease();
+                lease.setTicketType(ticketType);
+                lease.setRemaining(block - quantity);
+                lease.setExpiresAt(expiresAt);
+                // A lease from a rolled back purchase is never found and the next one replaces it
+                leaseIds.put(ticketTypeId, inventoryLeaseRepository.save(lease).getId());
+            }
+            return true;
+        }
+
+        // Not enough left on the row for a whole block, take exactly what this purchase needs
+        return ticketTypeRepository.reserveTickets(ticketTypeId, quantity) == 1;
+    }
+
+    @Override
+    public void releaseExpiredLeases() {
+        List<InventoryLease> expired;
+        int released;
+        do {
+            expired = inventoryLeaseRepository.findExpired(LocalDateTime.now(), Limit.of(expiryBatchSize));
+            released = 0;
+            for (InventoryLease lease : expired) {
+                if (release(lease.getTicketType().getId(), lease.getId(), true)) {
+                    released++;
+                }
+            }
+        } while (expired.size() == expiryBatchSize && released > 0);
+    }
+
+    @Override
+    @PreDestroy
+    public void releaseAllLeases() {
+        leaseIds.forEach((ticketTypeId, leaseId) -> {
+            if (release(ticketTypeId, leaseId, false)) {
+                leaseIds.remove(ticketTypeId, leaseId);
+            }
+        });
+    }
+
+    // Locks the ticket type before the lease, the same order as a purchase that renews its lease
+    private boolean release(UUID ticketTypeId, UUID leaseId, boolean onlyIfExpired) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                ticketTypeRepository.findByIdForUpdate(ticketTypeId);
+                inventoryLeaseRepository.findByIdForUpdate(leaseId)
+                        .filter(lease -> !onlyIfExpired || !lease.getExpiresAt().isAfter(LocalDateTime.now()))
+                        .ifPresent(lease -> {
+                            if (lease.getRemaining() > 0) {
+                                ticketTypeRepository.releaseTickets(ticketTypeId, lease.getRemaining());
+                            }
+                            inventoryLeaseRepository.delete(lease);
+                            log.debug("Returned {} leased tickets for ticket type {}", lease.getRemaining(), ticketTypeId);
+                        });
+            });
+            return true;
+        } catch (RuntimeException ex) {
+            // Still in the table, returned by whichever node sees it expire
+            log.error("Failed to return lease {} for ticket type {}", leaseId, ticketTypeId, ex);
+            return false;
+        }
+    }
+}
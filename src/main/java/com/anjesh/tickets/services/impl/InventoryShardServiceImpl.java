@@ -0,0 +1,199 @@
+package com.anjesh.tickets.services.impl;
+
+import com.anjesh.tickets.domain.entities.InventoryShard;
+import com.anjesh.tickets.domain.entities.TicketType;
+import com.anjesh.tickets.repositories.InventoryShardRepository;
+import com.anjesh.tickets.repositories.TicketTypeRepository;
+import com.anjesh.tickets.services.InventoryShardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Stock of a sharded ticket type is moved off the ticket type row into shard rows, so
+ * {@code tickets_sold} counts tickets sold plus tickets handed out to shards. Buyers are
+ * spread across shards by user hash and fall through to the next shard when one is dry.
+ */
+@Service
+@RequiredArgsConstructor
+public class InventoryShardServiceImpl implements InventoryShardService {
+
+    private final InventoryShardRepository inventoryShardRepository;
+    private final TicketTypeRepository ticketTypeRepository;
+
+    @Value("${tickets.inventory.shards.low-watermark:5}")
+    private int lowWatermark;
+
+    @Override
+    public boolean isSharded(TicketType ticketType) {
+        return null != ticketType.getTotalAvailable()
+                && null != ticketType.getInventoryShardCount()
+                && ticketType.getInventoryShardCount() > 1;
+    }
+
+    @Override
+    @Transactional
+    public boolean reserve(TicketType ticketType, UUID userId, int quantity) {
+        int shardCount = ticketType.getInventoryShardCount();
+        int firstShard = null == userId
+                ? ThreadLocalRandom.current().nextInt(shardCount)
+                : Math.floorMod(userId.hashCode(), shardCount);
+
+        for (int i = 0; i < shardCount; i++) {
+            int shardIndex = (firstShard + i) % shardCount;
+            if (inventoryShardRepository.takeFromShard(ticketType.getId(), shardIndex, quantity) == 1) {
+                return true;
+            }
+        }
+
+        // Every shard is dry, but stock not yet pushed out to the shards is still on the ticket type row
+        return ticketTypeRepository.reserveTickets(ticketType.getId(), quantity) == 1;
+    }
+
+    @Override
+    @Transactional
+    public void provisionShards(TicketType ticketType) {
+        UUID ticketTypeId = ticketType.getId();
+        int shardCount = isSharded(ticketType) ? ticketType.getInventoryShardCount() : 0;
+
+        if (shardCount == 0 && !inventoryShardRepository.existsByTicketTypeId(ticketTypeId)) {
+            return;
+        }
+
+        // Holds off purchases falling back to the ticket type row and rebalances while stock is moved
+        ticketTypeRepository.findByIdForUpdate(ticketTypeId);
+        List<InventoryShard> shards = inventoryShardRepository.findByTicketTypeIdOrderByShardIndex(ticketTypeId);
+
+        for (InventoryShard shard : shards) {
+            if (shard.getShardIndex() >= shardCount) {
+                drainShard(shard);
+            }
+        }
+        if (shardCount > 0) {
+            trimShards(ticketTypeId);
+        }
+
+        Set<Integer> existingIndexes = shards.stream()
+                .map(InventoryShard::getShardIndex)
+                .collect(Collectors.toSet());
+
+        List<InventoryShard> shardsToCreate = new ArrayList<>();
+        for (int shardIndex = 0; shardIndex < shardCount; shardIndex++) {
+            if (!existingIndexes.contains(shardIndex)) {
+                InventoryShard shard = new InventoryShard();
+                shard.setTicketType(ticketType);
+                shard.setShardIndex(shardIndex);
+                shard.setRemaining(0);
+                shardsToCreate.add(shard);
+            }
+        }
+        inventoryShardRepository.saveAllAndFlush(shardsToCreate);
+
+        if (shardCount > 0) {
+            rebalance(ticketTypeId);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void rebalance(UUID ticketTypeId) {
+        List<InventoryShard> shards = inventoryShardRepository.findByTicketTypeIdOrderByShardIndex(ticketTypeId);
+        List<InventoryShard> lowShards = shards.stream()
+                .filter(shard -> shard.getRemaining() <= lowWatermark)
+                .toList();
+
+        if (lowShards.isEmpty()) {
+            return;
+        }
+
+        // A pool smaller than the number of low shards still goes out, one ticket per shard
+        Integer pool = ticketTypeRepository.findRemainingById(ticketTypeId);
+        int share = null == pool || pool <= 0 ? 0 : Math.max(1, pool / lowShards.size());
+
+        if (share > 0) {
+            for (InventoryShard shard : lowShards) {
+                if (ticketTypeRepository.reserveTickets(ticketTypeId, share) == 1) {
+                    inventoryShardRepository.addToShard(ticketTypeId, shard.getShardIndex(), share);
+                }
+            }
+            return;
+        }
+
+        // The ticket type row is empty, so level the shards out instead
+        InventoryShard fullest = shards.stream()
+                .max(Comparator.comparing(InventoryShard::getRemaining))
+                .orElseThrow();
+        int fullestRemaining = fullest.getRemaining();
+
+        for (InventoryShard shard : lowShards) {
+            int amount = (fullestRemaining - shard.getRemaining()) / 2;
+            if (amount > 0
+                    && inventoryShardRepository.takeFromShard(ticketTypeId, fullest.getShardIndex(), amount) == 1) {
+                inventoryShardRepository.addToShard(ticketTypeId, shard.getShardIndex(), amount);
+                fullestRemaining -= amount;
+            }
+        }
+    }
+
+    // After a capacity cut tickets_sold can count more than totalAvailable, the excess comes back out of the shards
+    private void trimShards(UUID ticketTypeId) {
+        Integer pool = ticketTypeRepository.findRemainingById(ticketTypeId);
+        int excess = null == pool ? 0 : -pool;
+        if (excess <= 0) {
+            return;
+        }
+
+        List<InventoryShard> shards = new ArrayList<>(
+                inventoryShardRepository.findByTicketTypeIdOrderByShardIndex(ticketTypeId));
+        shards.sort(Comparator.comparing(InventoryShard::getRemaining).reversed());
+        for (InventoryShard shard : shards) {
+            int taken = takeUpTo(shard, excess);
+            if (taken > 0) {
+                ticketTypeRepository.releaseTickets(ticketTypeId, taken);
+                excess -= taken;
+            }
+            if (excess == 0) {
+                return;
+            }
+        }
+        // Whatever is left over was sold from the shards before the cut
+    }
+
+    private int takeUpTo(InventoryShard shard, int max) {
+        UUID ticketTypeId = shard.getTicketType().getId();
+        int amount = Math.min(max, inventoryShardRepository.findRemainingById(shard.getId()));
+
+        // Purchases may still be taking from the shard, so retry with a fresh balance
+        while (amount > 0) {
+            if (inventoryShardRepository.takeFromShard(ticketTypeId, shard.getShardIndex(), amount) == 1) {
+                return amount;
+            }
+            amount = Math.min(max, inventoryShardRepository.findRemainingById(shard.getId()));
+        }
+        return 0;
+    }
+
+    private void drainShard(InventoryShard shard) {
+        UUID ticketTypeId = shard.getTicketType().getId();
+        int remaining = shard.getRemaining();
+
+        // Purchases may still be taking from the shard, so retry with a fresh balance until it is empty
+        while (remaining > 0) {
+            if (inventoryShardRepository.takeFromShard(ticketTypeId, shard.getShardIndex(), remaining) == 1) {
+                ticketTypeRepository.releaseTickets(ticketTypeId, remaining);
+                break;
+            }
+            remaining = inventoryShardRepository.findRemainingById(shard.getId());
+        }
+        inventoryShardRepository.delete(shard);
+    }
+}
@@ -0,0 +1,135 @@
+package com.anjesh.tickets.services.impl;
+
+import com.anjesh.tickets.domain.QrCodePayload;
+import com.anjesh.tickets.services.QrCodePayloadService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Self-contained QR content: {@code T1.} followed by base64url of the QR code, ticket and
+ * event IDs, the event's validity window and a truncated HMAC-SHA256 over all of it.
+ * Gates can reject forged or foreign codes from the content alone.
+ */
+@Service
+public class QrCodePayloadServiceImpl implements QrCodePayloadService {
+
+    private static final String PREFIX = "T1.";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int BODY_LENGTH = 3 * 16 + 2 * 8;
+    private static final int SIGNATURE_LENGTH = 16;
+
+    // Shorter keys can be brute-forced offline from any issued code
+    private static final int MIN_KEY_LENGTH = 32;
+
+    private static final long OPEN_START = Long.MIN_VALUE;
+    private static final long OPEN_END = Long.MAX_VALUE;
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    public QrCodePayloadServiceImpl(@Value("${tickets.qr-codes.signing-key:}") String signingKey) {
+        byte[] keyBytes = signingKey.getBytes(StandardCharsets.UTF_8);
+        if (!signingKey.isBlank() && keyBytes.length < MIN_KEY_LENGTH) {
+            throw new IllegalStateException(String.format(
+                    "tickets.qr-codes.signing-key must be at least %d bytes, got %d", MIN_KEY_LENGTH, keyBytes.length));
+        }
+        this.key = signingKey.isBlank() ? null : new SecretKeySpec(keyBytes, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException("Unable to initialise QR code signing", ex);
+            }
+        });
+    }
+
+    @Override
+    public boolean isSigningEnabled() {
+        return null != key;
+    }
+
+    @Override
+    public String sign(QrCodePayload payload) {
+        ByteBuffer buffer = ByteBuffer.allocate(BODY_LENGTH + SIGNATURE_LENGTH);
+        putUuid(buffer, payload.getQrCodeId());
+        putUuid(buffer, payload.getTicketId());
+        putUuid(buffer, payload.getEventId());
+        buffer.putLong(null == payload.getValidFrom() ? OPEN_START : toEpochSecond(payload.getValidFrom()));
+        buffer.putLong(null == payload.getValidUntil() ? OPEN_END : toEpochSecond(payload.getValidUntil()));
+        buffer.put(signature(buffer.array()));
+
+        return PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    @Override
+    public Optional<QrCodePayload> verify(String content) {
+        if (!isSigningEnabled() || null == content || !content.startsWith(PREFIX)) {
+            return Optional.empty();
+        }
+
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(content.substring(PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+        if (bytes.length != BODY_LENGTH + SIGNATURE_LENGTH) {
+            return Optional.empty();
+        }
+
+        byte[] expected = signature(bytes);
+        byte[] actual = Arrays.copyOfRange(bytes, BODY_LENGTH, bytes.length);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return Optional.empty();
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        UUID qrCodeId = getUuid(buffer);
+        UUID ticketId = getUuid(buffer);
+        UUID eventId = getUuid(buffer);
+        long validFrom = buffer.getLong();
+        long validUntil = buffer.getLong();
+
+        return Optional.of(new QrCodePayload(
+                qrCodeId,
+                ticketId,
+                eventId,
+                validFrom == OPEN_START ? null : LocalDateTime.ofEpochSecond(validFrom, 0, ZoneOffset.UTC),
+                validUntil == OPEN_END ? null : LocalDateTime.ofEpochSecond(validUntil, 0, ZoneOffset.UTC)));
+    }
+
+    private byte[] signature(byte[] bytes) {
+        Mac mac = macs.get();
+        mac.update(bytes, 0, BODY_LENGTH);
+        return Arrays.copyOf(mac.doFinal(), SIGNATURE_LENGTH);
+    }
+
+    // Event times are wall-clock LocalDateTimes, UTC is only used as a fixed encoding offset
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -1,26 +1,33 @@
 package com.anjesh.tickets.services.impl;
 
+import com.anjesh.tickets.domain.QrCodePayload;
 import com.anjesh.tickets.domain.entities.QrCode;
 import com.anjesh.tickets.domain.entities.QrCodeStatusEnum;
 import com.anjesh.tickets.domain.entities.Ticket;
+import com.anjesh.tickets.domain.events.QrCodesIssuedEvent;
 import com.anjesh.tickets.exceptions.QrCodeGenerationException;
 import com.anjesh.tickets.exceptions.QrCodeNotFoundException;
 import com.anjesh.tickets.repositories.QrCodeRepository;
+import com.anjesh.tickets.services.QrCodePayloadService;
 import com.anjesh.tickets.services.QrCodeService;
+import com.anjesh.tickets.util.QrCodePngEncoder;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.WriterException;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -33,32 +40,70 @@ public class QrCodeServiceImpl implements QrCodeService {
 
     private final QRCodeWriter qrCodeWriter;
     private final QrCodeRepository qrCodeRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final Cache<String, byte[]> qrCodeImageCache;
+    private final QrCodePayloadService qrCodePayloadService;
+
+    // When false only the QR code ID is persisted and images are rendered per request
+    @Value("${tickets.qr-codes.store-images:true}")
+    private boolean storeImages;
 
     @Override
     public QrCode generateQrCode(Ticket ticket) {
-        try {
-            UUID uniqueId = UUID.randomUUID();
-            String qrCodeImage = generateQrCodeImage(uniqueId);
+        return generateQrCodes(List.of(ticket)).getFirst();
+    }
 
+    @Override
+    public List<QrCode> generateQrCodes(List<Ticket> tickets) {
+        List<QrCode> qrCodes = new ArrayList<>(tickets.size());
+        for (Ticket ticket : tickets) {
             QrCode qrCode = new QrCode();
-            qrCode.setId(uniqueId);
+            qrCode.setId(UUID.randomUUID());
             qrCode.setStatus(QrCodeStatusEnum.ACTIVE);
-            qrCode.setValue(qrCodeImage);
             qrCode.setTicket(ticket);
+            qrCodes.add(qrCode);
+        }
 
-            return qrCodeRepository.saveAndFlush(qrCode);
+        List<QrCode> savedQrCodes = qrCodeRepository.saveAll(qrCodes);
+        if (!storeImages) {
+            return savedQrCodes;
+        }
 
-        } catch (IOException | WriterException ex){
-            throw new QrCodeGenerationException("Failed to generate Qr code", ex);
+        // Images are rendered by QrCodeRenderingListener once the purchase has committed
+        applicationEventPublisher.publishEvent(new QrCodesIssuedEvent(
+                savedQrCodes.stream().map(QrCode::getId).toList()));
+        return savedQrCodes;
+    }
 
+    @Override
+    @Transactional
+    public void renderQrCode(UUID qrCodeId) {
+        if (!storeImages) {
+            return;
         }
+        String qrCodeImage = Base64.getEncoder().encodeToString(generateQrCodeImage(storedQrCodeContent(qrCodeId)));
+        qrCodeRepository.storeImage(qrCodeId, qrCodeImage);
     }
 
     @Override
+    @Transactional
     public byte[] getQrCodeImageForUserAndTicket(UUID userId, UUID ticketId) {
+        if (!storeImages) {
+            UUID qrCodeId = qrCodeRepository.findIdByTicketIdAndPurchaserId(ticketId, userId)
+                    .orElseThrow(QrCodeNotFoundException::new);
+            return qrCodeImageCache.get(qrCodeContent(qrCodeId), this::generateQrCodeImage);
+        }
+
         QrCode qrCode = qrCodeRepository.findByTicketIdAndTicketPurchaserId(ticketId, userId)
                 .orElseThrow(QrCodeNotFoundException::new);
 
+        if (null == qrCode.getValue()) {
+            // Not rendered by the background workers yet
+            byte[] qrCodeImage = generateQrCodeImage(storedQrCodeContent(qrCode.getId()));
+            qrCodeRepository.storeImage(qrCode.getId(), Base64.getEncoder().encodeToString(qrCodeImage));
+            return qrCodeImage;
+        }
+
         try {
             return Base64.getDecoder().decode(qrCode.getValue());
         }catch (IllegalArgumentException ex){
@@ -67,22 +112,55 @@ public class QrCodeServiceImpl implements QrCodeService {
         }
     }
 
-    private String generateQrCodeImage(UUID uniqueId) throws WriterException, IOException {
-        BitMatrix bitMatrix = qrCodeWriter.encode(
-                uniqueId.toString(),
-                BarcodeFormat.QR_CODE,
-                QR_WIDTH,
-                QR_HEIGHT
-        );
+    @Override
+    @Transactional(readOnly = true)
+    public String getQrCodeVersionForUserAndTicket(UUID userId, UUID ticketId) {
+        UUID qrCodeId = qrCodeRepository.findIdByTicketIdAndPurchaserId(ticketId, userId)
+                .orElseThrow(QrCodeNotFoundException::new);
+        // Signed content embeds the event window, so moving the event changes the version
+        return DigestUtils.md5DigestAsHex(qrCodeContent(qrCodeId).getBytes(StandardCharsets.UTF_8));
+    }
 
-        BufferedImage qrCodeImage = MatrixToImageWriter.toBufferedImage(bitMatrix);
+    @Override
+    @Transactional
+    public void clearQrCodeImagesForEvent(UUID eventId) {
+        if (!storeImages || !qrCodePayloadService.isSigningEnabled()) {
+            return;
+        }
+        // Re-rendered on demand or by QrCodeRenderingJob with the new validity window
+        int cleared = qrCodeRepository.clearStoredImagesByEventId(eventId);
+        log.info("Cleared {} stored QR images of rescheduled event {}", cleared, eventId);
+    }
 
-        try(ByteArrayOutputStream baos = new ByteArrayOutputStream()){
-            ImageIO.write(qrCodeImage, "PNG", baos);
-            byte[] imageBytes = baos.toByteArray();
+    // Holds a share lock on the event until the image is stored, a reschedule waits and then clears it
+    private String storedQrCodeContent(UUID qrCodeId) {
+        if (qrCodePayloadService.isSigningEnabled()) {
+            qrCodeRepository.lockEventById(qrCodeId);
+        }
+        return qrCodeContent(qrCodeId);
+    }
 
-            return Base64.getEncoder().encodeToString(imageBytes);
+    private String qrCodeContent(UUID qrCodeId) {
+        if (!qrCodePayloadService.isSigningEnabled()) {
+            return qrCodeId.toString();
+        }
+        QrCodePayload payload = qrCodeRepository.findPayloadById(qrCodeId)
+                .orElseThrow(QrCodeNotFoundException::new);
+        return qrCodePayloadService.sign(payload);
+    }
 
+    private byte[] generateQrCodeImage(String content) {
+        try {
+            BitMatrix bitMatrix = qrCodeWriter.encode(
+                    content,
+                    BarcodeFormat.QR_CODE,
+                    QR_WIDTH,
+                    QR_HEIGHT
+            );
+
+            return QrCodePngEncoder.encode(bitMatrix);
+        } catch (WriterException ex){
+            throw new QrCodeGenerationException("Failed to generate Qr code", ex);
         }
     }
 }
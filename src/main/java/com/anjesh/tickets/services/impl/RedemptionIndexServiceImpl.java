@@ -0,0 +1,311 @@
+package com.anjesh.tickets.services.impl;
+
+import com.anjesh.tickets.domain.entities.*;
+import com.anjesh.tickets.domain.projections.TicketRedemptionState;
+import com.anjesh.tickets.repositories.EventRepository;
+import com.anjesh.tickets.repositories.QrCodeRepository;
+import com.anjesh.tickets.repositories.TicketRepository;
+import com.anjesh.tickets.repositories.TicketValidationRepository;
+import com.anjesh.tickets.services.AttendanceService;
+import com.anjesh.tickets.services.RedemptionIndexService;
+import com.anjesh.tickets.util.RedemptionIndex;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.stream.Stream;
+
+/**
+ * Answers gate scans from memory for events whose doors are open. Each event's tickets are
+ * loaded into a {@link RedemptionIndex} shortly before it starts, scans flip the ticket's bit
+ * with a CAS and the redemption and validation rows are written behind in batches. Tickets
+ * outside any index, such as ones bought after loading, go through the database as before.
+ * The index is node-local, so gate traffic for an event has to reach a single node.
+ * A batch that fails is retried a row at a time, a row that keeps failing is logged and
+ * dropped and its ticket can be scanned again, since the database never saw it redeemed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RedemptionIndexServiceImpl implements RedemptionIndexService {
+
+    private final EventRepository eventRepository;
+    private final TicketRepository ticketRepository;
+    private final QrCodeRepository qrCodeRepository;
+    private final TicketValidationRepository ticketValidationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AttendanceService attendanceService;
+
+    private final Map<UUID, RedemptionIndex> indexes = new ConcurrentHashMap<>();
+    private final BlockingDeque<TicketValidation> pendingValidations = new LinkedBlockingDeque<>();
+    // Rows from a failed batch, written one at a time with the number of failures so far
+    private final Map<UUID, Integer> failedValidations = new ConcurrentHashMap<>();
+    private volatile LocalDateTime qrCodesCheckedAt;
+
+    @Value("${tickets.gate.redemption-index.enabled:false}")
+    private boolean enabled;
+
+    @Value("${tickets.gate.redemption-index.load-before-start:PT3H}")
+    private Duration loadBeforeStart;
+
+    @Value("${tickets.gate.redemption-index.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    @Value("${tickets.gate.redemption-index.flush-max-attempts:5}")
+    private int flushMaxAttempts;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void refreshIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        Set<UUID> eventIds = new HashSet<>(eventRepository.findIdsWithDoorsOpen(
+                EventStatusEnum.PUBLISHED, now.plus(loadBeforeStart), now));
+
+        if (!eventIds.containsAll(indexes.keySet())) {
+            // Scans for unloaded events go to the database, which must already know about them
+            flush();
+            indexes.keySet().removeIf(eventId -> !eventIds.contains(eventId));
+        }
+
+        eventIds.stream()
+                .filter(eventId -> !indexes.containsKey(eventId))
+                .forEach(this::load);
+    }
+
+    @Override
+    public void revokeDeactivatedQrCodes() {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        // Overlaps the previous check so codes deactivated while it ran are not missed
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = null == qrCodesCheckedAt ? now.minus(loadBeforeStart) : qrCodesCheckedAt;
+        List<UUID> qrCodeIds = qrCodeRepository.findInactiveIdsByEventIdIn(
+                indexes.keySet(), QrCodeStatusEnum.ACTIVE, since);
+        for (UUID qrCodeId : qrCodeIds) {
+            indexes.values().forEach(index -> index.revokeQrCode(qrCodeId));
+        }
+        qrCodesCheckedAt = now.minusMinutes(1);
+    }
+
+    private void load(UUID eventId) {
+        RedemptionIndex.Builder builder = RedemptionIndex.builder();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<TicketRedemptionState> tickets = ticketRepository.streamRedemptionStateByEventId(eventId)) {
+                tickets.forEach(ticket -> builder.add(
+                        ticket.getTicketId(),
+                        ticket.getQrCodeId(),
+                        ticket.getTicketTypeId(),
+                        null != ticket.getRedeemedAt()));
+            }
+        });
+        RedemptionIndex index = builder.build();
+        indexes.put(eventId, index);
+
+        // Catch scans that went to the database while the index was loading
+        for (UUID ticketId : ticketRepository.findRedeemedIdsByEventId(eventId)) {
+            int slot = index.slotOfTicket(ticketId);
+            if (slot >= 0) {
+                index.markRedeemed(slot);
+            }
+        }
+
+        log.info("Loaded redemption index for event {} with {} tickets, {} redeemed",
+                eventId, index.size(), index.redeemedCount());
+    }
+
+    @Override
+    public Optional<TicketValidation> redeemByQrCode(UUID qrCodeId) {
+        for (Map.Entry<UUID, RedemptionIndex> entry : indexes.entrySet()) {
+            int slot = entry.getValue().slotOfQrCode(qrCodeId);
+            if (slot >= 0) {
+                return Optional.of(redeem(entry.getKey(), entry.getValue(), slot, TicketValidationMethod.QR_SCAN));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<TicketValidation> redeemByTicket(UUID ticketId) {
+        for (Map.Entry<UUID, RedemptionIndex> entry : indexes.entrySet()) {
+            int slot = entry.getValue().slotOfTicket(ticketId);
+            if (slot >= 0) {
+                return Optional.of(redeem(entry.getKey(), entry.getValue(), slot, TicketValidationMethod.MANUAL));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean isIndexed(UUID ticketId) {
+        return indexes.values().stream().anyMatch(index -> index.slotOfTicket(ticketId) >= 0);
+    }
+
+    @Override
+    public boolean markRedeemed(UUID ticketId) {
+        for (RedemptionIndex index : indexes.values()) {
+            int slot = index.slotOfTicket(ticketId);
+            if (slot >= 0) {
+                if (!index.markRedeemed(slot)) {
+                    return false;
+                }
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    // The caller writes the redemption, if that rolls back the ticket is still unused
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            if (STATUS_COMMITTED != status) {
+                                index.clearRedeemed(slot);
+                            }
+                        }
+                    });
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private TicketValidation redeem(UUID eventId,
+                                    RedemptionIndex index,
+                                    int slot,
+                                    TicketValidationMethod ticketValidationMethod) {
+        LocalDateTime now = LocalDateTime.now();
+        Event event = new Event();
+        event.setId(eventId);
+        TicketType ticketType = new TicketType();
+        ticketType.setId(index.ticketTypeId(slot));
+        ticketType.setEvent(event);
+        Ticket ticket = new Ticket();
+        ticket.setId(index.ticketId(slot));
+        ticket.setTicketType(ticketType);
+
+        TicketValidation ticketValidation = new TicketValidation();
+        ticketValidation.setId(UUID.randomUUID());
+        ticketValidation.setTicket(ticket);
+        ticketValidation.setValidationMethod(ticketValidationMethod);
+        ticketValidation.setStatus(index.markRedeemed(slot)
+                ? TicketValidationStatusEnum.VALID
+                : TicketValidationStatusEnum.INVALID);
+        ticketValidation.setCreatedAt(now);
+        ticketValidation.setUpdatedAt(now);
+
+        pendingValidations.add(ticketValidation);
+        return ticketValidation;
+    }
+
+    @Override
+    @PreDestroy
+    public synchronized void flush() {
+        List<TicketValidation> batch = new ArrayList<>(flushBatchSize);
+        while (drainBatch(batch) > 0) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(batch));
+                batch.forEach(ticketValidation -> failedValidations.remove(ticketValidation.getId()));
+            } catch (RuntimeException ex) {
+                retryLater(batch, ex);
+                // The database may be down, the rest waits for the next run
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    // Rows of a failed batch sit at the head of the queue and are taken one at a time
+    private int drainBatch(List<TicketValidation> batch) {
+        TicketValidation head = pendingValidations.poll();
+        if (null == head) {
+            return 0;
+        }
+        batch.add(head);
+        if (!failedValidations.containsKey(head.getId())) {
+            pendingValidations.drainTo(batch, flushBatchSize - 1);
+        }
+        return batch.size();
+    }
+
+    private void retryLater(List<TicketValidation> batch, RuntimeException ex) {
+        if (batch.size() > 1) {
+            log.error("Failed to persist {} ticket validations, retrying them one at a time", batch.size(), ex);
+            batch.forEach(ticketValidation -> failedValidations.putIfAbsent(ticketValidation.getId(), 0));
+            requeue(batch);
+            return;
+        }
+
+        TicketValidation ticketValidation = batch.getFirst();
+        int attempts = failedValidations.merge(ticketValidation.getId(), 1, Integer::sum);
+        if (attempts < flushMaxAttempts) {
+            log.error("Failed to persist ticket validation {}, attempt {} of {}",
+                    ticketValidation.getId(), attempts, flushMaxAttempts, ex);
+            requeue(batch);
+            return;
+        }
+
+        failedValidations.remove(ticketValidation.getId());
+        log.error("Dropping ticket validation {} for ticket {} ({} {} at {}) after {} failed attempts",
+                ticketValidation.getId(),
+                ticketValidation.getTicket().getId(),
+                ticketValidation.getValidationMethod(),
+                ticketValidation.getStatus(),
+                ticketValidation.getCreatedAt(),
+                attempts,
+                ex);
+        if (TicketValidationStatusEnum.VALID.equals(ticketValidation.getStatus())) {
+            clearRedeemed(ticketValidation.getTicket().getId());
+        }
+    }
+
+    private void requeue(List<TicketValidation> batch) {
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            pendingValidations.addFirst(batch.get(i));
+        }
+    }
+
+    private void clearRedeemed(UUID ticketId) {
+        for (RedemptionIndex index : indexes.values()) {
+            int slot = index.slotOfTicket(ticketId);
+            if (slot >= 0) {
+                index.clearRedeemed(slot);
+                return;
+            }
+        }
+    }
+
+    private void persist(List<TicketValidation> ticketValidations) {
+        Map<UUID, LocalDateTime> redemptions = new TreeMap<>();
+        ticketValidations.stream()
+                .filter(ticketValidation -> TicketValidationStatusEnum.VALID.equals(ticketValidation.getStatus()))
+                .forEach(ticketValidation -> redemptions.put(
+                        ticketValidation.getTicket().getId(), ticketValidation.getCreatedAt()));
+
+        Set<UUID> redeemed = ticketValidationRepository.redeemTickets(redemptions);
+        if (redeemed.size() < redemptions.size()) {
+            log.warn("{} tickets admitted from memory were already redeemed in the database",
+                    redemptions.size() - redeemed.size());
+        }
+        ticketValidationRepository.insertValidations(ticketValidations);
+
+        // Counted once written so attendance reconciliation never runs ahead of the database
+        ticketValidations.stream()
+                .filter(ticketValidation -> TicketValidationStatusEnum.VALID.equals(ticketValidation.getStatus()))
+                .filter(ticketValidation -> redeemed.contains(ticketValidation.getTicket().getId()))
+                .map(TicketValidation::getTicket)
+                .forEach(ticket -> attendanceService.recordAdmission(
+                        ticket.getTicketType().getEvent().getId(), ticket.getTicketType().getId(), ticket.getId()));
+    }
+}
@@ -1,16 +1,25 @@
 package com.anjesh.tickets.services.impl;
 
+import com.anjesh.tickets.domain.PageCursor;
+import com.anjesh.tickets.domain.dtos.CursorPageResponseDto;
 import com.anjesh.tickets.domain.dtos.GetTicketResponseDto;
 import com.anjesh.tickets.domain.dtos.ListTicketResponseDto;
+import com.anjesh.tickets.domain.dtos.SliceResponseDto;
+import com.anjesh.tickets.domain.projections.TicketListItem;
 import com.anjesh.tickets.mappers.TicketMapper;
 import com.anjesh.tickets.repositories.TicketRepository;
 import com.anjesh.tickets.services.TicketService;
+import com.anjesh.tickets.util.CursorPageUtil;
+import com.anjesh.tickets.util.ETagUtil;
+import com.anjesh.tickets.util.SliceUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -24,14 +33,48 @@ public class TicketServiceImpl implements TicketService {
     @Override
     @Transactional(readOnly = true)
     public Page<ListTicketResponseDto> listTicketsForUser(UUID userId, Pageable pageable) {
-        return ticketRepository.findByPurchaserId(userId, pageable)
+        return ticketRepository.findListItemsByPurchaserId(userId, pageable)
                 .map(ticketMapper::toListTicketResponseDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public SliceResponseDto<ListTicketResponseDto> sliceTicketsForUser(UUID userId, Pageable pageable) {
+        return SliceUtil.toSliceResponse(ticketRepository.sliceListItemsByPurchaserId(userId, pageable)
+                .map(ticketMapper::toListTicketResponseDto));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDto<ListTicketResponseDto> scrollTicketsForUser(UUID userId, String cursor, int size) {
+        int pageSize = CursorPageUtil.pageSize(size);
+        List<TicketListItem> tickets;
+        if (null == cursor || cursor.isBlank()) {
+            tickets = ticketRepository.findListItemsByPurchaserIdFirst(userId, Limit.of(pageSize + 1));
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            tickets = ticketRepository.findListItemsByPurchaserIdAfter(
+                    userId, after.getCreatedAt(), after.getId(), Limit.of(pageSize + 1));
+        }
+        return CursorPageUtil.toCursorPage(
+                tickets,
+                pageSize,
+                ticket -> new PageCursor(ticket.getCreatedAt(), ticket.getId()),
+                ticketMapper::toListTicketResponseDto);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<GetTicketResponseDto> getTicketForUser(UUID userId, UUID ticketId) {
         return ticketRepository.findByIdAndPurchaserId(ticketId, userId)
                 .map(ticketMapper::toGetTicketResponseDto);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> getTicketVersionForUser(UUID userId, UUID ticketId) {
+        return ticketRepository.findVersionByIdAndPurchaserId(ticketId, userId)
+                .map(version -> ETagUtil.eTag(
+                        version.getUpdatedAt(), version.getTicketTypeUpdatedAt(), version.getEventUpdatedAt()));
+    }
 }
@@ -1,56 +1,118 @@
 package com.anjesh.tickets.services.impl;
 
+import com.anjesh.tickets.domain.PurchaseTicketsItemRequest;
+import com.anjesh.tickets.domain.PurchaseTicketsRequest;
 import com.anjesh.tickets.domain.entities.Ticket;
 import com.anjesh.tickets.domain.entities.TicketStatusEnum;
 import com.anjesh.tickets.domain.entities.TicketType;
 import com.anjesh.tickets.domain.entities.User;
+import com.anjesh.tickets.exceptions.InvalidPurchaseException;
 import com.anjesh.tickets.exceptions.TicketsSoldOutException;
 import com.anjesh.tickets.exceptions.TicketTypeNotFoundException;
 import com.anjesh.tickets.exceptions.UserNotFoundException;
 import com.anjesh.tickets.repositories.TicketRepository;
 import com.anjesh.tickets.repositories.TicketTypeRepository;
 import com.anjesh.tickets.repositories.UserRepository;
+import com.anjesh.tickets.services.InventoryLeaseService;
+import com.anjesh.tickets.services.InventoryShardService;
 import com.anjesh.tickets.services.QrCodeService;
 import com.anjesh.tickets.services.TicketTypeService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TicketTypeServiceImpl implements TicketTypeService {
 
+    // Same limit as a single cart item, applied again once duplicate items are merged
+    private static final int MAX_QUANTITY_PER_TICKET_TYPE = 20;
+
     private final UserRepository userRepository;
     private final TicketTypeRepository ticketTypeRepository;
     private final TicketRepository ticketRepository;
     private final QrCodeService qrCodeService;
+    private final InventoryShardService inventoryShardService;
+    private final InventoryLeaseService inventoryLeaseService;
 
     @Override
     @Transactional
     public Ticket purchaseTicket(UUID userId, UUID ticketTypeId) {
+        PurchaseTicketsRequest request = new PurchaseTicketsRequest(
+                List.of(new PurchaseTicketsItemRequest(ticketTypeId, 1)));
+        return purchaseTickets(userId, request).getFirst();
+    }
+
+    @Override
+    @Transactional
+    public List<Ticket> purchaseTickets(UUID userId, PurchaseTicketsRequest request) {
         User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(
                 String.format("User with ID %s was not found", userId)
         ));
 
-        TicketType ticketType = ticketTypeRepository.findByIdWithLock(ticketTypeId).orElseThrow(() -> new TicketTypeNotFoundException(
-                String.format("Ticket type with ID %s was not found", ticketTypeId)
-        ));
+        // Sorted by ID so concurrent carts always update ticket type rows in the same order
+        Map<UUID, Integer> quantities = request.getItems().stream()
+                .collect(Collectors.toMap(
+                        PurchaseTicketsItemRequest::getTicketTypeId,
+                        PurchaseTicketsItemRequest::getQuantity,
+                        Integer::sum,
+                        TreeMap::new));
+
+        if (quantities.values().stream().anyMatch(quantity -> quantity > MAX_QUANTITY_PER_TICKET_TYPE)) {
+            throw new InvalidPurchaseException(String.format(
+                    "At most %d tickets of one ticket type can be purchased at once", MAX_QUANTITY_PER_TICKET_TYPE));
+        }
 
-        int purchasedTickets = ticketRepository.countByTicketTypeId(ticketType.getId());
-        Integer totalAvailable = ticketType.getTotalAvailable();
+        Map<UUID, TicketType> ticketTypes = ticketTypeRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(TicketType::getId, Function.identity()));
+        for (UUID ticketTypeId : quantities.keySet()) {
+            if (!ticketTypes.containsKey(ticketTypeId)) {
+                throw new TicketTypeNotFoundException(
+                        String.format("Ticket type with ID %s was not found", ticketTypeId)
+                );
+            }
+        }
+        if (ticketTypes.values().stream().map(ticketType -> ticketType.getEvent().getId()).distinct().count() > 1) {
+            throw new InvalidPurchaseException("All tickets in a purchase must be for the same event");
+        }
+
+        List<Ticket> tickets = new ArrayList<>();
+        for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+            TicketType ticketType = ticketTypes.get(entry.getKey());
+            if (!reserve(ticketType, userId, entry.getValue())) {
+                throw new TicketsSoldOutException();
+            }
+
+            for (int i = 0; i < entry.getValue(); i++) {
+                Ticket ticket = new Ticket();
+                ticket.setStatus(TicketStatusEnum.PURCHASED);
+                ticket.setTicketType(ticketType);
+                ticket.setPurchaser(user);
+                tickets.add(ticket);
+            }
+        }
+
+        // Tickets and QR codes are flushed together on commit as JDBC batches
+        List<Ticket> savedTickets = ticketRepository.saveAll(tickets);
+        qrCodeService.generateQrCodes(savedTickets);
+        return savedTickets;
+    }
 
-        if(totalAvailable != null && purchasedTickets + 1 > totalAvailable) {
-            throw new TicketsSoldOutException();
+    private boolean reserve(TicketType ticketType, UUID userId, int quantity) {
+        if (inventoryShardService.isSharded(ticketType)) {
+            return inventoryShardService.reserve(ticketType, userId, quantity);
+        }
+        if (inventoryLeaseService.isEnabled()) {
+            return inventoryLeaseService.reserve(ticketType, quantity);
         }
-        Ticket ticket = new Ticket();
-        ticket.setStatus(TicketStatusEnum.PURCHASED);
-        ticket.setTicketType(ticketType);
-        ticket.setPurchaser(user);
-
-        Ticket savedTicket = ticketRepository.save(ticket);
-        qrCodeService.generateQrCode(savedTicket);
-        return ticketRepository.save(savedTicket);
+        return ticketTypeRepository.reserveTickets(ticketType.getId(), quantity) == 1;
     }
 }
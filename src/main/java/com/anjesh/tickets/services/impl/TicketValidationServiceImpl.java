@@ -1,17 +1,32 @@
 package com.anjesh.tickets.services.impl;
 
+import com.anjesh.tickets.domain.QrCodePayload;
+import com.anjesh.tickets.domain.TicketScan;
+import com.anjesh.tickets.domain.ValidateTicketsRequest;
 import com.anjesh.tickets.domain.entities.*;
+import com.anjesh.tickets.domain.projections.QrCodeTicket;
+import com.anjesh.tickets.domain.projections.TicketAdmission;
+import com.anjesh.tickets.domain.projections.TicketRedemption;
 import com.anjesh.tickets.exceptions.QrCodeNotFoundException;
 import com.anjesh.tickets.exceptions.TicketNotFoundException;
 import com.anjesh.tickets.repositories.QrCodeRepository;
 import com.anjesh.tickets.repositories.TicketRepository;
 import com.anjesh.tickets.repositories.TicketValidationRepository;
+import com.anjesh.tickets.services.AttendanceService;
+import com.anjesh.tickets.services.QrCodePayloadService;
+import com.anjesh.tickets.services.RedemptionIndexService;
 import com.anjesh.tickets.services.TicketValidationService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.UUID;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
@@ -19,42 +34,229 @@ import java.util.UUID;
 public class TicketValidationServiceImpl implements TicketValidationService {
 
     private final QrCodeRepository qrCodeRepository;
-    private final TicketValidationRepository ticketValidationRepository;
     private final TicketRepository ticketRepository;
+    private final TicketValidationRepository ticketValidationRepository;
+    private final QrCodePayloadService qrCodePayloadService;
+    private final RedemptionIndexService redemptionIndexService;
+    private final AttendanceService attendanceService;
+
+    @Value("${tickets.qr-codes.validity-margin:PT12H}")
+    private Duration validityMargin;
 
     @Override
     public TicketValidation validateTicketByQrCode(UUID qrCodeId) {
-        QrCode qrCode = qrCodeRepository.findByIdAndStatus(qrCodeId, QrCodeStatusEnum.ACTIVE)
+        Optional<TicketValidation> indexed = redemptionIndexService.redeemByQrCode(qrCodeId);
+        if (indexed.isPresent()) {
+            return indexed.get();
+        }
+
+        TicketRedemption redemption = ticketValidationRepository.redeemByQrCode(
+                        qrCodeId, UUID.randomUUID(), TicketValidationMethod.QR_SCAN.name(), LocalDateTime.now())
                 .orElseThrow(() -> new QrCodeNotFoundException(
                         String.format(
                                 "QR Code with ID %s was not found", qrCodeId
                         )
                 ));
-        Ticket ticket = qrCode.getTicket();
 
-        return validateTicket(ticket, TicketValidationMethod.QR_SCAN);
+        return recordAdmission(toTicketValidation(redemption, redemption.getStatus(), TicketValidationMethod.QR_SCAN));
     }
 
-    private TicketValidation validateTicket(Ticket ticket, TicketValidationMethod ticketValidationMethod) {
-        TicketValidation ticketValidation = new TicketValidation();
-        ticketValidation.setTicket(ticket);
-        ticketValidation.setValidationMethod(ticketValidationMethod);
-
-        TicketValidationStatusEnum ticketValidationStatus = ticket.getValidations().stream()
-                .filter(v -> TicketValidationStatusEnum.VALID.equals(v.getStatus()))
-                .findFirst()
-                .map(v -> TicketValidationStatusEnum.INVALID)
-                .orElse(TicketValidationStatusEnum.VALID);
+    @Override
+    public TicketValidation validateTicketByQrPayload(String payload, UUID eventId) {
+        Optional<UUID> qrCodeId = parseQrCodeId(payload);
+        if (qrCodeId.isPresent()) {
+            return validateTicketByQrCode(qrCodeId.get());
+        }
 
-        ticketValidation.setStatus(ticketValidationStatus);
+        // Signed payloads are checked without touching the database, only plausible codes are redeemed
+        QrCodePayload qrCodePayload = qrCodePayloadService.verify(payload).orElse(null);
+        TicketValidation rejection = rejectQrPayload(qrCodePayload, eventId, LocalDateTime.now());
+        if (null != rejection) {
+            return rejection;
+        }
 
-        return ticketValidationRepository.save(ticketValidation);
+        return validateTicketByQrCode(qrCodePayload.getQrCodeId());
     }
 
     @Override
     public TicketValidation validateTicketManually(UUID ticketId) {
-        Ticket ticket = ticketRepository.findById(ticketId)
+        Optional<TicketValidation> indexed = redemptionIndexService.redeemByTicket(ticketId);
+        if (indexed.isPresent()) {
+            return indexed.get();
+        }
+
+        TicketRedemption redemption = ticketValidationRepository.redeemByTicket(
+                        ticketId, UUID.randomUUID(), TicketValidationMethod.MANUAL.name(), LocalDateTime.now())
                 .orElseThrow(TicketNotFoundException::new);
-        return validateTicket(ticket, TicketValidationMethod.MANUAL);
+
+        return recordAdmission(toTicketValidation(redemption, redemption.getStatus(), TicketValidationMethod.MANUAL));
+    }
+
+    @Override
+    public List<TicketValidation> validateTickets(ValidateTicketsRequest request) {
+        List<TicketScan> scans = request.getScans();
+        int size = scans.size();
+        TicketValidation[] results = new TicketValidation[size];
+        UUID[] qrCodeIds = new UUID[size];
+        UUID[] ticketIds = new UUID[size];
+
+        for (int i = 0; i < size; i++) {
+            TicketScan scan = scans.get(i);
+            if (TicketValidationMethod.MANUAL.equals(scan.getMethod())) {
+                ticketIds[i] = scan.getId();
+            } else if (null == scan.getPayload()) {
+                qrCodeIds[i] = scan.getId();
+            } else {
+                Optional<UUID> qrCodeId = parseQrCodeId(scan.getPayload());
+                if (qrCodeId.isPresent()) {
+                    qrCodeIds[i] = qrCodeId.get();
+                    continue;
+                }
+                QrCodePayload qrCodePayload = qrCodePayloadService.verify(scan.getPayload()).orElse(null);
+                results[i] = rejectQrPayload(qrCodePayload, request.getEventId(), scan.getScannedAt());
+                if (null == results[i]) {
+                    qrCodeIds[i] = qrCodePayload.getQrCodeId();
+                }
+            }
+        }
+
+        Set<UUID> requestedQrCodeIds = Arrays.stream(qrCodeIds).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<UUID, QrCodeTicket> qrCodeTickets = requestedQrCodeIds.isEmpty()
+                ? Map.of()
+                : qrCodeRepository.findTicketsByIdInAndStatus(requestedQrCodeIds, QrCodeStatusEnum.ACTIVE).stream()
+                .collect(Collectors.toMap(QrCodeTicket::getId, Function.identity()));
+        Set<UUID> requestedTicketIds = Arrays.stream(ticketIds).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<UUID, TicketAdmission> admissions = new HashMap<>();
+        if (!requestedTicketIds.isEmpty()) {
+            ticketRepository.findAdmissionsByIdIn(requestedTicketIds)
+                    .forEach(admission -> admissions.put(admission.getTicketId(), admission));
+        }
+        qrCodeTickets.values().forEach(qrCodeTicket -> admissions.put(qrCodeTicket.getTicketId(), qrCodeTicket));
+
+        for (int i = 0; i < size; i++) {
+            if (null != qrCodeIds[i]) {
+                QrCodeTicket qrCodeTicket = qrCodeTickets.get(qrCodeIds[i]);
+                ticketIds[i] = null == qrCodeTicket ? null : qrCodeTicket.getTicketId();
+            } else if (null != ticketIds[i] && !admissions.containsKey(ticketIds[i])) {
+                ticketIds[i] = null;
+            }
+            if (null == results[i] && null == ticketIds[i]) {
+                results[i] = toTicketValidation((UUID) null, TicketValidationStatusEnum.INVALID, methodOf(scans.get(i)));
+            }
+        }
+
+        // The earliest device time wins, ties go to the order the device uploaded them in
+        List<Integer> order = IntStream.range(0, size)
+                .filter(i -> null != ticketIds[i])
+                .boxed()
+                .sorted(Comparator.comparing(i -> scans.get(i).getScannedAt()))
+                .toList();
+        Map<UUID, Integer> firstScans = new HashMap<>();
+        order.forEach(i -> firstScans.putIfAbsent(ticketIds[i], i));
+
+        // Redeemed in ID order so concurrent uploads lock tickets in the same order
+        Map<UUID, LocalDateTime> redemptions = new TreeMap<>();
+        firstScans.forEach((ticketId, i) -> {
+            // Tickets held in memory may have been admitted but not written yet
+            if (!redemptionIndexService.isIndexed(ticketId) || redemptionIndexService.markRedeemed(ticketId)) {
+                redemptions.put(ticketId, scans.get(i).getScannedAt());
+            }
+        });
+        // Between uploads the database decides: the conditional update redeems a ticket once, a concurrent
+        // upload waits on the row and then finds it redeemed, whichever device scanned it first
+        Set<UUID> redeemed = ticketValidationRepository.redeemTickets(redemptions);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<TicketValidation> ticketValidations = new ArrayList<>(order.size());
+        for (int i : order) {
+            boolean valid = firstScans.get(ticketIds[i]) == i && redeemed.contains(ticketIds[i]);
+            TicketValidation ticketValidation = toTicketValidation(
+                    admissions.get(ticketIds[i]),
+                    valid ? TicketValidationStatusEnum.VALID : TicketValidationStatusEnum.INVALID,
+                    methodOf(scans.get(i)));
+            ticketValidation.setId(UUID.randomUUID());
+            ticketValidation.setCreatedAt(scans.get(i).getScannedAt());
+            ticketValidation.setUpdatedAt(now);
+            ticketValidations.add(ticketValidation);
+            results[i] = ticketValidation;
+        }
+        ticketValidationRepository.insertValidations(ticketValidations);
+        ticketValidations.forEach(this::recordAdmission);
+
+        return Arrays.asList(results);
+    }
+
+    // Offline checks for signed QR content, null when the code may go on to redemption
+    private TicketValidation rejectQrPayload(QrCodePayload qrCodePayload, UUID eventId, LocalDateTime scannedAt) {
+        if (null == qrCodePayload) {
+            return toTicketValidation((UUID) null, TicketValidationStatusEnum.INVALID, TicketValidationMethod.QR_SCAN);
+        }
+        if (null != eventId && !eventId.equals(qrCodePayload.getEventId())) {
+            return toTicketValidation(
+                    qrCodePayload.getTicketId(), TicketValidationStatusEnum.INVALID, TicketValidationMethod.QR_SCAN);
+        }
+        if (!isWithinValidityWindow(qrCodePayload, scannedAt)) {
+            return toTicketValidation(
+                    qrCodePayload.getTicketId(), TicketValidationStatusEnum.EXPIRED, TicketValidationMethod.QR_SCAN);
+        }
+        return null;
+    }
+
+    private static TicketValidationMethod methodOf(TicketScan scan) {
+        return TicketValidationMethod.MANUAL.equals(scan.getMethod())
+                ? TicketValidationMethod.MANUAL
+                : TicketValidationMethod.QR_SCAN;
+    }
+
+    private boolean isWithinValidityWindow(QrCodePayload qrCodePayload, LocalDateTime now) {
+        if (null != qrCodePayload.getValidFrom() && now.isBefore(qrCodePayload.getValidFrom().minus(validityMargin))) {
+            return false;
+        }
+        return null == qrCodePayload.getValidUntil() || !now.isAfter(qrCodePayload.getValidUntil().plus(validityMargin));
+    }
+
+    private TicketValidation toTicketValidation(UUID ticketId,
+                                                TicketValidationStatusEnum status,
+                                                TicketValidationMethod ticketValidationMethod) {
+        TicketValidation ticketValidation = new TicketValidation();
+        ticketValidation.setStatus(status);
+        ticketValidation.setValidationMethod(ticketValidationMethod);
+        if (null != ticketId) {
+            Ticket ticket = new Ticket();
+            ticket.setId(ticketId);
+            ticketValidation.setTicket(ticket);
+        }
+        return ticketValidation;
+    }
+
+    private TicketValidation toTicketValidation(TicketAdmission admission,
+                                                TicketValidationStatusEnum status,
+                                                TicketValidationMethod ticketValidationMethod) {
+        Event event = new Event();
+        event.setId(admission.getEventId());
+        TicketType ticketType = new TicketType();
+        ticketType.setId(admission.getTicketTypeId());
+        ticketType.setEvent(event);
+
+        TicketValidation ticketValidation = toTicketValidation(admission.getTicketId(), status, ticketValidationMethod);
+        ticketValidation.getTicket().setTicketType(ticketType);
+        return ticketValidation;
+    }
+
+    private TicketValidation recordAdmission(TicketValidation ticketValidation) {
+        if (TicketValidationStatusEnum.VALID.equals(ticketValidation.getStatus())) {
+            Ticket ticket = ticketValidation.getTicket();
+            attendanceService.recordAdmission(
+                    ticket.getTicketType().getEvent().getId(), ticket.getTicketType().getId(), ticket.getId());
+        }
+        return ticketValidation;
+    }
+
+    private static Optional<UUID> parseQrCodeId(String payload) {
+        try {
+            return Optional.of(UUID.fromString(payload));
+        } catch (IllegalArgumentException ex) {
+            return Optional.empty();
+        }
     }
 }
@@ -0,0 +1,29 @@
+package com.anjesh.tickets.util;
+
+import com.anjesh.tickets.domain.PageCursor;
+import com.anjesh.tickets.domain.dtos.CursorPageResponseDto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public final class CursorPageUtil {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private CursorPageUtil(){
+    }
+
+    public static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+
+    // Rows are fetched with one extra row to tell whether another page follows, without a count
+    public static <T, D> CursorPageResponseDto<D> toCursorPage(List<T> rows,
+                                                                int size,
+                                                                Function<T, PageCursor> cursorOf,
+                                                                Function<T, D> mapper) {
+        List<T> page = rows.size() > size ? rows.subList(0, size) : rows;
+        String nextCursor = rows.size() > size ? cursorOf.apply(page.get(size - 1)).encode() : null;
+        return new CursorPageResponseDto<>(page.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -0,0 +1,23 @@
+package com.anjesh.tickets.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.StringJoiner;
+
+public final class ETagUtil {
+    private ETagUtil(){
+    }
+
+    // Strong validator from the update timestamps and counts a representation is built from
+    public static String eTag(Object... versions) {
+        StringJoiner eTag = new StringJoiner("-");
+        for (Object version : versions) {
+            if (version instanceof LocalDateTime timestamp) {
+                eTag.add(Long.toHexString(timestamp.toEpochSecond(ZoneOffset.UTC)) + "." + Integer.toHexString(timestamp.getNano()));
+            } else {
+                eTag.add(String.valueOf(version));
+            }
+        }
+        return eTag.toString();
+    }
+}
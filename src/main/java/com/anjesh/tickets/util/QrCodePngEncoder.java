@@ -0,0 +1,169 @@
+package com.anjesh.tickets.util;
+
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a {@link BitMatrix} straight to a 1-bit grayscale PNG, without going through a
+ * {@code BufferedImage} and {@code ImageIO}. Scanline and deflate buffers are reused per
+ * thread, so the returned array is the only allocation of note per image.
+ */
+public final class QrCodePngEncoder {
+
+    private static final byte[] SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+    private static final byte[] IHDR = "IHDR".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] IDAT = "IDAT".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] IEND = "IEND".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int BIT_DEPTH = 1;
+    private static final int COLOR_TYPE_GRAYSCALE = 0;
+    private static final byte FILTER_NONE = 0;
+    private static final byte FILTER_UP = 2;
+
+    // Scaled QR modules repeat each row many times and an Up-filtered repeat is all zeros.
+    // Higher levels only shave ~100 bytes off a ~600 byte image but spend their time
+    // lazily matching those zero runs (level 9 is over 15x slower)
+    private static final int DEFLATE_LEVEL = Deflater.BEST_SPEED;
+
+    // BitArray stores pixels least significant bit first, PNG wants the leftmost pixel in the high bit
+    private static final byte[] REVERSED_BITS = new byte[256];
+
+    static {
+        for (int i = 0; i < REVERSED_BITS.length; i++) {
+            REVERSED_BITS[i] = (byte) (Integer.reverse(i) >>> 24);
+        }
+    }
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private QrCodePngEncoder() {
+    }
+
+    public static byte[] encode(BitMatrix matrix) {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        int rowBytes = (width + 7) / 8;
+        int scanlineLength = rowBytes + 1;
+
+        Buffers buffers = BUFFERS.get();
+        byte[] scanlines = buffers.scanlines(scanlineLength * height);
+        byte[] current = buffers.current(rowBytes);
+        byte[] previous = buffers.previous(rowBytes);
+        BitArray row = buffers.row;
+
+        for (int y = 0; y < height; y++) {
+            row = matrix.getRow(y, row);
+            int[] bits = row.getBitArray();
+            for (int i = 0; i < rowBytes; i++) {
+                int pixels = (bits[i >>> 2] >>> ((i & 3) << 3)) & 0xFF;
+                // A set bit is a dark module, which is 0 in grayscale
+                current[i] = (byte) ~REVERSED_BITS[pixels];
+            }
+
+            int offset = y * scanlineLength;
+            if (y > 0 && Arrays.equals(current, 0, rowBytes, previous, 0, rowBytes)) {
+                scanlines[offset] = FILTER_UP;
+                Arrays.fill(scanlines, offset + 1, offset + scanlineLength, (byte) 0);
+            } else {
+                scanlines[offset] = FILTER_NONE;
+                System.arraycopy(current, 0, scanlines, offset + 1, rowBytes);
+            }
+
+            byte[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        buffers.row = row;
+
+        int compressedLength = buffers.deflate(scanlines, scanlineLength * height);
+
+        byte[] png = new byte[SIGNATURE.length + 12 + 13 + 12 + compressedLength + 12];
+        System.arraycopy(SIGNATURE, 0, png, 0, SIGNATURE.length);
+        int position = SIGNATURE.length;
+
+        byte[] header = buffers.header;
+        writeInt(header, 0, width);
+        writeInt(header, 4, height);
+        header[8] = BIT_DEPTH;
+        header[9] = COLOR_TYPE_GRAYSCALE;
+        header[10] = 0;
+        header[11] = 0;
+        header[12] = 0;
+        position = writeChunk(png, position, IHDR, header, 13, buffers.crc);
+        position = writeChunk(png, position, IDAT, buffers.compressed, compressedLength, buffers.crc);
+        writeChunk(png, position, IEND, header, 0, buffers.crc);
+
+        return png;
+    }
+
+    private static int writeChunk(byte[] png, int position, byte[] type, byte[] data, int length, CRC32 crc) {
+        writeInt(png, position, length);
+        System.arraycopy(type, 0, png, position + 4, 4);
+        System.arraycopy(data, 0, png, position + 8, length);
+
+        crc.reset();
+        crc.update(png, position + 4, length + 4);
+        writeInt(png, position + 8 + length, (int) crc.getValue());
+        return position + 12 + length;
+    }
+
+    private static void writeInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+
+    private static final class Buffers {
+
+        private final Deflater deflater = new Deflater(DEFLATE_LEVEL);
+        private final CRC32 crc = new CRC32();
+        private final byte[] header = new byte[13];
+        private BitArray row;
+        private byte[] scanlines = new byte[0];
+        private byte[] current = new byte[0];
+        private byte[] previous = new byte[0];
+        private byte[] compressed = new byte[1024];
+
+        byte[] scanlines(int length) {
+            if (scanlines.length < length) {
+                scanlines = new byte[length];
+            }
+            return scanlines;
+        }
+
+        byte[] current(int length) {
+            if (current.length < length) {
+                current = new byte[length];
+            }
+            return current;
+        }
+
+        byte[] previous(int length) {
+            if (previous.length < length) {
+                previous = new byte[length];
+            }
+            return previous;
+        }
+
+        int deflate(byte[] input, int length) {
+            deflater.reset();
+            deflater.setInput(input, 0, length);
+            deflater.finish();
+
+            int compressedLength = 0;
+            while (!deflater.finished()) {
+                if (compressedLength == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+            }
+            return compressedLength;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.anjesh.tickets.util;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Redemption state for every ticket of one event. Ticket and QR code IDs are kept as sorted
+ * pairs of longs and found by binary search; a ticket's slot is its position in the ticket
+ * arrays, its bit in the redeemed set and its entry in the ticket type codes. That is roughly
+ * 60 bytes per ticket, against a few hundred for a map of UUIDs.
+ */
+public final class RedemptionIndex {
+
+    private static final Comparator<UUID> ORDER = Comparator
+            .comparingLong(UUID::getMostSignificantBits)
+            .thenComparingLong(UUID::getLeastSignificantBits);
+
+    private final long[] ticketMsb;
+    private final long[] ticketLsb;
+    private final long[] qrCodeMsb;
+    private final long[] qrCodeLsb;
+    private final AtomicIntegerArray qrCodeSlots;
+    private final short[] ticketTypeCodes;
+    private final UUID[] ticketTypeIds;
+    private final AtomicLongArray redeemed;
+
+    private RedemptionIndex(int tickets, int qrCodes, UUID[] ticketTypeIds) {
+        this.ticketMsb = new long[tickets];
+        this.ticketLsb = new long[tickets];
+        this.qrCodeMsb = new long[qrCodes];
+        this.qrCodeLsb = new long[qrCodes];
+        this.qrCodeSlots = new AtomicIntegerArray(qrCodes);
+        this.ticketTypeCodes = new short[tickets];
+        this.ticketTypeIds = ticketTypeIds;
+        this.redeemed = new AtomicLongArray((tickets + 63) >>> 6);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return ticketMsb.length;
+    }
+
+    public int slotOfTicket(UUID ticketId) {
+        return search(ticketMsb, ticketLsb, ticketId);
+    }
+
+    public int slotOfQrCode(UUID qrCodeId) {
+        int index = search(qrCodeMsb, qrCodeLsb, qrCodeId);
+        return index < 0 ? -1 : qrCodeSlots.get(index);
+    }
+
+    public UUID ticketId(int slot) {
+        return new UUID(ticketMsb[slot], ticketLsb[slot]);
+    }
+
+    public UUID ticketTypeId(int slot) {
+        return ticketTypeIds[ticketTypeCodes[slot]];
+    }
+
+    public boolean isRedeemed(int slot) {
+        return (redeemed.get(slot >>> 6) & (1L << slot)) != 0;
+    }
+
+    /**
+     * @return true if this call redeemed the ticket, false if it already was
+     */
+    public boolean markRedeemed(int slot) {
+        int word = slot >>> 6;
+        long bit = 1L << slot;
+        while (true) {
+            long current = redeemed.get(word);
+            if ((current & bit) != 0) {
+                return false;
+            }
+            if (redeemed.compareAndSet(word, current, current | bit)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Undoes {@link #markRedeemed(int)} for a redemption that never made it to the database.
+     */
+    public void clearRedeemed(int slot) {
+        int word = slot >>> 6;
+        long bit = 1L << slot;
+        while (true) {
+            long current = redeemed.get(word);
+            if ((current & bit) == 0 || redeemed.compareAndSet(word, current, current & ~bit)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stops a deactivated QR code from resolving to its ticket, the ticket itself stays indexed.
+     * @return true if the code was in this index
+     */
+    public boolean revokeQrCode(UUID qrCodeId) {
+        int index = search(qrCodeMsb, qrCodeLsb, qrCodeId);
+        if (index < 0) {
+            return false;
+        }
+        qrCodeSlots.set(index, -1);
+        return true;
+    }
+
+    public int redeemedCount() {
+        int count = 0;
+        for (int i = 0; i < redeemed.length(); i++) {
+            count += Long.bitCount(redeemed.get(i));
+        }
+        return count;
+    }
+
+    private static int search(long[] msb, long[] lsb, UUID id) {
+        long targetMsb = id.getMostSignificantBits();
+        long targetLsb = id.getLeastSignificantBits();
+        int low = 0;
+        int high = msb.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Long.compare(msb[mid], targetMsb);
+            if (cmp == 0) {
+                cmp = Long.compare(lsb[mid], targetLsb);
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public static final class Builder {
+
+        private final Map<UUID, Boolean> tickets = new HashMap<>();
+        private final Map<UUID, UUID> ticketTypes = new HashMap<>();
+        private final Map<UUID, UUID> qrCodes = new HashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder add(UUID ticketId, UUID qrCodeId, UUID ticketTypeId, boolean redeemed) {
+            tickets.merge(ticketId, redeemed, Boolean::logicalOr);
+            ticketTypes.put(ticketId, ticketTypeId);
+            if (null != qrCodeId) {
+                qrCodes.put(qrCodeId, ticketId);
+            }
+            return this;
+        }
+
+        public RedemptionIndex build() {
+            List<UUID> ticketIds = new ArrayList<>(tickets.keySet());
+            ticketIds.sort(ORDER);
+            List<UUID> qrCodeIds = new ArrayList<>(qrCodes.keySet());
+            qrCodeIds.sort(ORDER);
+
+            Map<UUID, Short> ticketTypeCodes = new HashMap<>();
+            List<UUID> ticketTypeIds = new ArrayList<>();
+            for (UUID ticketTypeId : new HashSet<>(ticketTypes.values())) {
+                ticketTypeCodes.put(ticketTypeId, (short) ticketTypeIds.size());
+                ticketTypeIds.add(ticketTypeId);
+            }
+
+            RedemptionIndex index = new RedemptionIndex(
+                    ticketIds.size(), qrCodeIds.size(), ticketTypeIds.toArray(UUID[]::new));
+            for (int slot = 0; slot < ticketIds.size(); slot++) {
+                UUID ticketId = ticketIds.get(slot);
+                index.ticketMsb[slot] = ticketId.getMostSignificantBits();
+                index.ticketLsb[slot] = ticketId.getLeastSignificantBits();
+                index.ticketTypeCodes[slot] = ticketTypeCodes.get(ticketTypes.get(ticketId));
+                if (tickets.get(ticketId)) {
+                    index.markRedeemed(slot);
+                }
+            }
+            for (int i = 0; i < qrCodeIds.size(); i++) {
+                UUID qrCodeId = qrCodeIds.get(i);
+                index.qrCodeMsb[i] = qrCodeId.getMostSignificantBits();
+                index.qrCodeLsb[i] = qrCodeId.getLeastSignificantBits();
+                index.qrCodeSlots.set(i, index.slotOfTicket(qrCodes.get(qrCodeId)));
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.anjesh.tickets.util;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+public final class SearchQueryUtil {
+    private SearchQueryUtil(){
+    }
+
+    // Every word has to match, the last one may be half typed: "jazz fest" becomes "jazz:* & fest:*".
+    // Only letters and digits survive so user input can never form tsquery operators.
+    public static Optional<String> toPrefixTsQuery(String query) {
+        if (null == query) {
+            return Optional.empty();
+        }
+        String tsQuery = Arrays.stream(query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+        return tsQuery.isEmpty() ? Optional.empty() : Optional.of(tsQuery);
+    }
+}
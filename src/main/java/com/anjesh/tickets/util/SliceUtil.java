@@ -0,0 +1,15 @@
+package com.anjesh.tickets.util;
+
+import com.anjesh.tickets.domain.dtos.SliceResponseDto;
+import org.springframework.data.domain.Slice;
+
+public final class SliceUtil {
+
+    private SliceUtil(){
+    }
+
+    // Slices fetch one extra row to tell whether another page follows, there is no count query
+    public static <T> SliceResponseDto<T> toSliceResponse(Slice<T> slice) {
+        return new SliceResponseDto<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
+}
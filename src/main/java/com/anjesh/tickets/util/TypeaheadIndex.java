@@ -0,0 +1,246 @@
+package com.anjesh.tickets.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Word-prefix index over event names and venues for search-as-you-type. Every word is filed
+ * under each of its prefixes up to {@value #PREFIX_LENGTH} characters, and each prefix keeps
+ * its events in ranked order. A query walks the most selective prefix in that
+ * order and stops once nothing further down can beat what it has, or after a fixed number
+ * of candidates. Reads never lock, writes are serialized and an estimate of the memory held
+ * is capped.
+ */
+public class TypeaheadIndex {
+
+    static final int PREFIX_LENGTH = 3;
+    public static final int DEFAULT_MAX_CANDIDATES = 1000;
+
+    // Rough heap cost of an entry and of one prefix posting, on top of the characters themselves
+    private static final int ENTRY_OVERHEAD = 160;
+    private static final int POSTING_OVERHEAD = 96;
+
+    private final long maxBytes;
+    private final int maxCandidates;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private volatile long bytes;
+
+    public TypeaheadIndex(long maxBytes) {
+        this(maxBytes, DEFAULT_MAX_CANDIDATES);
+    }
+
+    public TypeaheadIndex(long maxBytes, int maxCandidates) {
+        this.maxBytes = maxBytes;
+        this.maxCandidates = maxCandidates;
+    }
+
+    // False when the event does not fit and is not already in the index
+    public synchronized boolean put(UUID id, String name, String venue, LocalDateTime start) {
+        Entry entry = new Entry(id, name, venue, start, tokenize(name), tokenize(venue));
+        Entry previous = entries.get(id);
+        long entryBytes = entry.estimatedBytes();
+        long previousBytes = null == previous ? 0 : previous.estimatedBytes();
+        if (bytes - previousBytes + entryBytes > maxBytes) {
+            return false;
+        }
+        if (null != previous) {
+            unlink(previous);
+        }
+
+        entries.put(id, entry);
+        for (String prefix : entry.prefixes()) {
+            Bucket bucket = buckets.computeIfAbsent(prefix, p -> new Bucket());
+            bucket.ranked.add(new Ranked(entry, entry.score(new String[]{prefix})));
+            bucket.size++;
+        }
+        bytes += entryBytes - previousBytes;
+        return true;
+    }
+
+    public synchronized void remove(UUID id) {
+        Entry entry = entries.remove(id);
+        if (null != entry) {
+            unlink(entry);
+            bytes -= entry.estimatedBytes();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long estimatedBytes() {
+        return bytes;
+    }
+
+    public List<Entry> suggest(String query, int limit) {
+        String[] words = tokenize(query);
+        if (0 == words.length || limit <= 0) {
+            return List.of();
+        }
+
+        // Every match has every word, so the smallest prefix bucket holds all of them
+        Bucket driver = null;
+        int driverWord = 0;
+        for (int i = 0; i < words.length; i++) {
+            Bucket bucket = buckets.get(prefixOf(words[i]));
+            if (null == bucket) {
+                return List.of();
+            }
+            if (null == driver || bucket.size < driver.size) {
+                driver = bucket;
+                driverWord = i;
+            }
+        }
+        // A bucket ranks by its own prefix, which never scores below the query when it is the first word's
+        boolean ranksAsQuery = 0 == driverWord;
+
+        PriorityQueue<Ranked> best = new PriorityQueue<>(limit + 1, Comparator.reverseOrder());
+        int examined = 0;
+        for (Ranked candidate : driver.ranked) {
+            if (++examined > maxCandidates
+                    || (ranksAsQuery && best.size() == limit && candidate.compareTo(best.peek()) > 0)) {
+                break;
+            }
+            Entry entry = candidate.entry;
+            if (!entry.matchesAll(words)) {
+                continue;
+            }
+            Ranked ranked = new Ranked(entry, entry.score(words));
+            if (best.size() < limit) {
+                best.add(ranked);
+            } else if (ranked.compareTo(best.peek()) < 0) {
+                best.poll();
+                best.add(ranked);
+            }
+        }
+
+        List<Ranked> matches = new ArrayList<>(best);
+        Collections.sort(matches);
+        return matches.stream().map(Ranked::entry).toList();
+    }
+
+    private void unlink(Entry entry) {
+        for (String prefix : entry.prefixes()) {
+            buckets.computeIfPresent(prefix, (p, bucket) -> {
+                if (bucket.ranked.remove(new Ranked(entry, entry.score(new String[]{p})))) {
+                    bucket.size--;
+                }
+                return bucket.size == 0 ? null : bucket;
+            });
+        }
+    }
+
+    private static String prefixOf(String word) {
+        return word.length() > PREFIX_LENGTH ? word.substring(0, PREFIX_LENGTH) : word;
+    }
+
+    static String[] tokenize(String text) {
+        if (null == text) {
+            return new String[0];
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    private static final class Bucket {
+        private final ConcurrentSkipListSet<Ranked> ranked = new ConcurrentSkipListSet<>();
+        // Only changed by the serialized writes
+        private volatile int size;
+    }
+
+    // Higher scores first, then sooner events, then by name
+    private record Ranked(Entry entry, int score) implements Comparable<Ranked> {
+
+        private static final Comparator<Ranked> ORDER = Comparator.comparingInt((Ranked ranked) -> -ranked.score)
+                .thenComparing(ranked -> ranked.entry.getStart(), Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(ranked -> ranked.entry.getName(), Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(ranked -> ranked.entry.getId());
+
+        @Override
+        public int compareTo(Ranked other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Entry {
+        private final UUID id;
+        private final String name;
+        private final String venue;
+        private final LocalDateTime start;
+        private final String[] nameTokens;
+        private final String[] venueTokens;
+
+        private long estimatedBytes() {
+            long chars = length(name) + length(venue);
+            for (String token : nameTokens) {
+                chars += token.length();
+            }
+            for (String token : venueTokens) {
+                chars += token.length();
+            }
+            Set<String> prefixes = prefixes();
+            for (String prefix : prefixes) {
+                chars += prefix.length();
+            }
+            return ENTRY_OVERHEAD + 2 * chars + (long) POSTING_OVERHEAD * prefixes.size();
+        }
+
+        private static int length(String text) {
+            return null == text ? 0 : text.length();
+        }
+
+        private Set<String> prefixes() {
+            Set<String> prefixes = new HashSet<>();
+            for (String[] tokens : List.of(nameTokens, venueTokens)) {
+                for (String token : tokens) {
+                    for (int length = 1; length <= Math.min(PREFIX_LENGTH, token.length()); length++) {
+                        prefixes.add(token.substring(0, length));
+                    }
+                }
+            }
+            return prefixes;
+        }
+
+        private boolean matchesAll(String[] words) {
+            for (String word : words) {
+                if (!hasPrefix(nameTokens, word) && !hasPrefix(venueTokens, word)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Names that start with the query first, then names matching every word, then venue matches
+        private int score(String[] words) {
+            if (nameTokens.length > 0 && nameTokens[0].startsWith(words[0])) {
+                return 3;
+            }
+            for (String word : words) {
+                if (!hasPrefix(nameTokens, word)) {
+                    return 1;
+                }
+            }
+            return 2;
+        }
+
+        private static boolean hasPrefix(String[] tokens, String prefix) {
+            for (String token : tokens) {
+                if (token.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
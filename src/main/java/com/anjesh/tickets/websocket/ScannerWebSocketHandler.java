@@ -0,0 +1,199 @@
+package com.anjesh.tickets.websocket;
+
+import com.anjesh.tickets.domain.dtos.ScanMessageDto;
+import com.anjesh.tickets.domain.dtos.ScanResultMessageDto;
+import com.anjesh.tickets.domain.entities.TicketValidation;
+import com.anjesh.tickets.domain.entities.TicketValidationMethod;
+import com.anjesh.tickets.exceptions.QrCodeNotFoundException;
+import com.anjesh.tickets.exceptions.TicketNotFoundException;
+import com.anjesh.tickets.services.TicketValidationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Long-lived scanner channel for STAFF devices. The handshake is authenticated like any other
+ * request, after that each text message is one scan. Scans are validated concurrently on a
+ * bounded pool but results are sent back in the order the scans arrived, each carrying the
+ * scan's {@code seq}. The connection is closed when the token it was opened with expires,
+ * whether or not the device is still sending. Validation holds a database connection, so the
+ * pool defaults to the size of the connection pool.
+ */
+@Component
+@Slf4j
+public class ScannerWebSocketHandler extends TextWebSocketHandler {
+
+    private static final String OUTBOUND = "scanner.outbound";
+    private static final String PENDING = "scanner.pending";
+    private static final String EXPIRY = "scanner.expiry";
+    private static final int SEND_TIME_LIMIT_MS = 10_000;
+    private static final int SEND_BUFFER_SIZE_LIMIT = 512 * 1024;
+
+    private final TicketValidationService ticketValidationService;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledThreadPoolExecutor expiryScheduler;
+
+    public ScannerWebSocketHandler(
+            TicketValidationService ticketValidationService,
+            ObjectMapper objectMapper,
+            @Value("${tickets.gate.scanner.threads:${spring.datasource.hikari.maximum-pool-size:2}}") int threads,
+            @Value("${tickets.gate.scanner.queue-capacity:2000}") int queueCapacity) {
+        this.ticketValidationService = ticketValidationService;
+        this.objectMapper = objectMapper;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "scanner-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.expiryScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "scanner-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.expiryScheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        WebSocketSession outbound =
+                new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, SEND_BUFFER_SIZE_LIMIT);
+        session.getAttributes().put(OUTBOUND, outbound);
+        session.getAttributes().put(PENDING, CompletableFuture.<Void>completedFuture(null));
+
+        Instant expiresAt = getExpiresAt(session);
+        if (null != expiresAt) {
+            long delay = Math.max(0, Duration.between(Instant.now(), expiresAt).toMillis());
+            session.getAttributes().put(EXPIRY,
+                    expiryScheduler.schedule(() -> closeExpired(outbound), delay, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        if (session.getAttributes().get(EXPIRY) instanceof ScheduledFuture<?> expiry) {
+            expiry.cancel(false);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        if (isExpired(session)) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Token expired"));
+            return;
+        }
+
+        CompletableFuture<ScanResultMessageDto> result;
+        ScanMessageDto scan = readScan(message);
+        if (null == scan) {
+            result = CompletableFuture.completedFuture(new ScanResultMessageDto(null, null, null, "Malformed scan"));
+        } else {
+            try {
+                result = CompletableFuture.supplyAsync(() -> validate(scan), executor);
+            } catch (RejectedExecutionException ex) {
+                result = CompletableFuture.completedFuture(new ScanResultMessageDto(
+                        scan.getSeq(), null, null, "Scanner channel is busy, retry the scan"));
+            }
+        }
+
+        // Messages for one session arrive one at a time, so the chain needs no locking
+        WebSocketSession outbound = (WebSocketSession) session.getAttributes().get(OUTBOUND);
+        CompletableFuture<Void> pending = (CompletableFuture<Void>) session.getAttributes().get(PENDING);
+        CompletableFuture<ScanResultMessageDto> scanResult = result;
+        session.getAttributes().put(PENDING, pending
+                .thenCompose(previous -> scanResult)
+                .thenAccept(scanResultMessage -> send(outbound, scanResultMessage)));
+    }
+
+    private ScanResultMessageDto validate(ScanMessageDto scan) {
+        try {
+            TicketValidation ticketValidation;
+            if (null != scan.getPayload()) {
+                ticketValidation = ticketValidationService.validateTicketByQrPayload(
+                        scan.getPayload(), scan.getEventId());
+            } else if (TicketValidationMethod.MANUAL.equals(scan.getMethod())) {
+                ticketValidation = ticketValidationService.validateTicketManually(scan.getId());
+            } else {
+                ticketValidation = ticketValidationService.validateTicketByQrCode(scan.getId());
+            }
+            return new ScanResultMessageDto(
+                    scan.getSeq(),
+                    null == ticketValidation.getTicket() ? null : ticketValidation.getTicket().getId(),
+                    ticketValidation.getStatus(),
+                    null);
+        } catch (QrCodeNotFoundException | TicketNotFoundException ex) {
+            return new ScanResultMessageDto(scan.getSeq(), null, null, "Ticket not found");
+        } catch (RuntimeException ex) {
+            log.error("Failed to validate scan {}", scan.getSeq(), ex);
+            return new ScanResultMessageDto(scan.getSeq(), null, null, "Unable to validate ticket");
+        }
+    }
+
+    private void closeExpired(WebSocketSession session) {
+        if (!session.isOpen()) {
+            return;
+        }
+        try {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Token expired"));
+        } catch (IOException ex) {
+            log.warn("Failed to close expired session {}", session.getId(), ex);
+        }
+    }
+
+    private void send(WebSocketSession session, ScanResultMessageDto scanResultMessage) {
+        if (!session.isOpen()) {
+            return;
+        }
+        try {
+            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(scanResultMessage)));
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Failed to send scan result {} to session {}", scanResultMessage.getSeq(), session.getId(), ex);
+        }
+    }
+
+    private ScanMessageDto readScan(TextMessage message) {
+        try {
+            return objectMapper.readValue(message.getPayload(), ScanMessageDto.class);
+        } catch (JsonProcessingException ex) {
+            return null;
+        }
+    }
+
+    private static boolean isExpired(WebSocketSession session) {
+        Instant expiresAt = getExpiresAt(session);
+        return null != expiresAt && !Instant.now().isBefore(expiresAt);
+    }
+
+    private static Instant getExpiresAt(WebSocketSession session) {
+        return session.getPrincipal() instanceof JwtAuthenticationToken token
+                ? token.getToken().getExpiresAt()
+                : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        expiryScheduler.shutdownNow();
+    }
+}
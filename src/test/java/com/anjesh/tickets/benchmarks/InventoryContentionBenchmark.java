@@ -0,0 +1,137 @@
+package com.anjesh.tickets.benchmarks;
+
+import com.anjesh.tickets.domain.entities.Event;
+import com.anjesh.tickets.domain.entities.EventStatusEnum;
+import com.anjesh.tickets.domain.entities.Ticket;
+import com.anjesh.tickets.domain.entities.TicketStatusEnum;
+import com.anjesh.tickets.domain.entities.TicketType;
+import com.anjesh.tickets.repositories.EventRepository;
+import com.anjesh.tickets.repositories.TicketRepository;
+import com.anjesh.tickets.repositories.TicketTypeRepository;
+import com.anjesh.tickets.services.InventoryShardService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares purchase throughput under contention for the old lock + COUNT(*) path, the
+ * single-row counter and the sharded counters. Run against a real database with
+ * {@code mvn test -Dtest=InventoryContentionBenchmark -Dbenchmarks=true}.
+ */
+@Slf4j
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class InventoryContentionBenchmark {
+
+    private static final int THREADS = 32;
+    private static final int PURCHASES_PER_THREAD = 200;
+    private static final int TOTAL_AVAILABLE = THREADS * PURCHASES_PER_THREAD;
+    private static final int SHARDS = 16;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private InventoryShardService inventoryShardService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void comparePurchaseContention() throws Exception {
+        TicketType lockType = createTicketType(null);
+        TicketType counterType = createTicketType(null);
+        TicketType shardedType = createTicketType(SHARDS);
+        inventoryShardService.provisionShards(shardedType);
+
+        run("single-row lock + count", lockType, ticketTypeId -> {
+            TicketType ticketType = entityManager.find(TicketType.class, ticketTypeId, LockModeType.PESSIMISTIC_WRITE);
+            long sold = entityManager
+                    .createQuery("SELECT COUNT(t) FROM Ticket t WHERE t.ticketType.id = :id", Long.class)
+                    .setParameter("id", ticketTypeId)
+                    .getSingleResult();
+            return sold < ticketType.getTotalAvailable();
+        });
+
+        run("single-row counter", counterType,
+                ticketTypeId -> ticketTypeRepository.reserveTickets(ticketTypeId, 1) == 1);
+
+        run("sharded counters (" + SHARDS + ")", shardedType,
+                ticketTypeId -> inventoryShardService.reserve(shardedType, UUID.randomUUID(), 1));
+    }
+
+    private void run(String label, TicketType ticketType, Function<UUID, Boolean> reserve) throws Exception {
+        AtomicInteger sold = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        long started = System.nanoTime();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < PURCHASES_PER_THREAD; j++) {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        if (reserve.apply(ticketType.getId())) {
+                            Ticket ticket = new Ticket();
+                            ticket.setStatus(TicketStatusEnum.PURCHASED);
+                            ticket.setTicketType(entityManager.getReference(TicketType.class, ticketType.getId()));
+                            ticketRepository.save(ticket);
+                            sold.incrementAndGet();
+                        }
+                    });
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        executor.shutdown();
+
+        log.info("{}: {} purchases in {} ms ({}/s)",
+                label, sold.get(), elapsedMillis, sold.get() * 1000L / Math.max(1, elapsedMillis));
+        assertEquals(TOTAL_AVAILABLE, sold.get());
+    }
+
+    private TicketType createTicketType(Integer shardCount) {
+        Event event = new Event();
+        event.setName("Benchmark " + UUID.randomUUID());
+        event.setVenue("Benchmark venue");
+        event.setStatus(EventStatusEnum.PUBLISHED);
+
+        TicketType ticketType = new TicketType();
+        ticketType.setName("General admission");
+        ticketType.setPrice(10.0);
+        ticketType.setTotalAvailable(TOTAL_AVAILABLE);
+        ticketType.setTicketsSold(0);
+        ticketType.setInventoryShardCount(shardCount);
+        ticketType.setEvent(event);
+        event.setTicketTypes(new ArrayList<>(List.of(ticketType)));
+
+        return eventRepository.saveAndFlush(event).getTicketTypes().getFirst();
+    }
+}
@@ -0,0 +1,98 @@
+package com.anjesh.tickets.benchmarks;
+
+import com.anjesh.tickets.config.CachingJwtDecoder;
+import com.anjesh.tickets.config.JwtAuthenticationConverter;
+import com.anjesh.tickets.util.JwtUtil;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of turning a bearer token into an authentication and user ID, verifying
+ * the RS256 signature every time against {@link CachingJwtDecoder} with a warm cache. Run with
+ * {@code mvn test -Dtest=JwtAuthenticationBenchmark -Dbenchmarks=true}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(0)
+public class JwtAuthenticationBenchmark {
+
+    private String token;
+    private JwtDecoder verifyingDecoder;
+    private JwtDecoder cachingDecoder;
+    private JwtAuthenticationConverter converter;
+
+    @Setup
+    public void setUp() throws JOSEException {
+        RSAKey rsaKey = new RSAKeyGenerator(2048).generate();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject(UUID.randomUUID().toString())
+                .expirationTime(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .claim("realm_access", Map.of("roles", List.of("ROLE_ATTENDEE", "ROLE_STAFF", "offline_access")))
+                .build();
+        SignedJWT signedJwt = new SignedJWT(new JWSHeader(JWSAlgorithm.RS256), claims);
+        signedJwt.sign(new RSASSASigner(rsaKey));
+        token = signedJwt.serialize();
+
+        verifyingDecoder = NimbusJwtDecoder.withPublicKey(rsaKey.toRSAPublicKey()).build();
+        cachingDecoder = new CachingJwtDecoder(() -> verifyingDecoder, Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfter(CachingJwtDecoder.untilExpiresAt())
+                .<String, Jwt>build());
+        converter = new JwtAuthenticationConverter();
+    }
+
+    @Benchmark
+    public UUID verifyEveryRequest() {
+        Jwt jwt = verifyingDecoder.decode(token);
+        return converter.convert(jwt).isAuthenticated() ? JwtUtil.parseUserId(jwt) : null;
+    }
+
+    @Benchmark
+    public UUID cachedToken() {
+        Jwt jwt = cachingDecoder.decode(token);
+        return converter.convert(jwt).isAuthenticated() ? JwtUtil.parseUserId(jwt) : null;
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void runBenchmarks() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(JwtAuthenticationBenchmark.class.getName())
+                .build();
+        new Runner(options).run();
+    }
+}
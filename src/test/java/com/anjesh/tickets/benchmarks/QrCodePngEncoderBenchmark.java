@@ -0,0 +1,93 @@
+package com.anjesh.tickets.benchmarks;
+
+import com.anjesh.tickets.util.QrCodePngEncoder;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ImageIO path QR images used to take with {@link QrCodePngEncoder}. The GC
+ * profiler reports bytes allocated per image as gc.alloc.rate.norm. pngBytes is the PNG output
+ * rate, divided by the score it gives the size of each image. Run with
+ * {@code mvn test -Dtest=QrCodePngEncoderBenchmark -Dbenchmarks=true}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(0)
+public class QrCodePngEncoderBenchmark {
+
+    private BitMatrix bitMatrix;
+
+    @Setup
+    public void setUp() throws WriterException {
+        bitMatrix = new QRCodeWriter().encode(UUID.randomUUID().toString(), BarcodeFormat.QR_CODE, 300, 300);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ImageSize {
+
+        public long pngBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            pngBytes = 0;
+        }
+    }
+
+    @Benchmark
+    public byte[] imageIo(ImageSize imageSize) throws IOException {
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+            ImageIO.write(MatrixToImageWriter.toBufferedImage(bitMatrix), "PNG", baos);
+            byte[] png = baos.toByteArray();
+            imageSize.pngBytes += png.length;
+            return png;
+        }
+    }
+
+    @Benchmark
+    public byte[] direct(ImageSize imageSize) {
+        byte[] png = QrCodePngEncoder.encode(bitMatrix);
+        imageSize.pngBytes += png.length;
+        return png;
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void runBenchmarks() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(QrCodePngEncoderBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,82 @@
+package com.anjesh.tickets.benchmarks;
+
+import com.anjesh.tickets.util.TypeaheadIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one keystroke against a full {@link TypeaheadIndex}, from one-letter prefixes that
+ * match most events to multi-word queries. Run with
+ * {@code mvn test -Dtest=TypeaheadIndexBenchmark -Dbenchmarks=true}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(0)
+public class TypeaheadIndexBenchmark {
+
+    private static final List<String> WORDS = List.of(
+            "jazz", "jam", "night", "summer", "sunset", "sound", "festival", "live", "rock", "roll",
+            "classic", "club", "comedy", "cafe", "hall", "arena", "open", "air", "blues", "brass",
+            "dance", "disco", "folk", "funk", "garden", "gala", "house", "indie", "metal", "opera");
+
+    @Param({"j", "ja", "jazz", "night s", "s festival"})
+    private String query;
+
+    private TypeaheadIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new TypeaheadIndex(Long.MAX_VALUE);
+        LocalDateTime start = LocalDateTime.of(2026, 6, 1, 20, 0);
+        for (int i = 0; i < 200_000; i++) {
+            index.put(UUID.randomUUID(),
+                    word(random) + " " + word(random) + " " + word(random),
+                    word(random) + " " + word(random) + " " + i,
+                    start.plusMinutes(random.nextInt(500_000)));
+        }
+    }
+
+    @Benchmark
+    public List<TypeaheadIndex.Entry> suggest() {
+        return index.suggest(query, 10);
+    }
+
+    private static String word(Random random) {
+        return WORDS.get(random.nextInt(WORDS.size()));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void runBenchmarks() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(TypeaheadIndexBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
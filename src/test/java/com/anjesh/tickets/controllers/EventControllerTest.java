@@ -0,0 +1,162 @@
+package com.anjesh.tickets.controllers;
+
+import com.anjesh.tickets.domain.dtos.UpdateEventRequestDto;
+import com.anjesh.tickets.domain.dtos.UpdateTicketTypeRequestDto;
+import com.anjesh.tickets.domain.entities.*;
+import com.anjesh.tickets.repositories.EventRepository;
+import com.anjesh.tickets.repositories.TicketRepository;
+import com.anjesh.tickets.repositories.TicketTypeRepository;
+import com.anjesh.tickets.repositories.UserRepository;
+import com.anjesh.tickets.services.AttendanceService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EventControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private Cache<UUID, Boolean> knownUserCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User user;
+    private Event event;
+    private TicketType ticketType;
+    private Ticket ticket;
+
+    @BeforeEach
+    void createEvent() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setName("Organizer");
+        user.setEmail(user.getId() + "@example.com");
+        user = userRepository.save(user);
+        knownUserCache.put(user.getId(), Boolean.TRUE);
+
+        event = new Event();
+        event.setName("Event");
+        event.setVenue("Venue");
+        event.setStatus(EventStatusEnum.PUBLISHED);
+        event.setOrganizer(user);
+        event = eventRepository.save(event);
+
+        ticketType = new TicketType();
+        ticketType.setName("General admission");
+        ticketType.setPrice(10.0);
+        ticketType.setTicketsSold(1);
+        ticketType.setEvent(event);
+        ticketType = ticketTypeRepository.save(ticketType);
+
+        ticket = new Ticket();
+        ticket.setStatus(TicketStatusEnum.PURCHASED);
+        ticket.setTicketType(ticketType);
+        ticket.setPurchaser(user);
+        ticket = ticketRepository.save(ticket);
+    }
+
+    @AfterEach
+    void deleteEvent() {
+        ticketRepository.deleteById(ticket.getId());
+        ticketTypeRepository.deleteById(ticketType.getId());
+        eventRepository.deleteById(event.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void attendanceStreamSendsASnapshotThenUpdates() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/events/{eventId}/attendance/stream", event.getId())
+                        .with(jwt().jwt(jwt -> jwt.subject(user.getId().toString())))
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String opened = result.getResponse().getContentAsString();
+        assertTrue(opened.startsWith("event:attendance\ndata:"), opened);
+        assertTrue(opened.contains("\"admitted\":0"), opened);
+
+        attendanceService.recordAdmission(event.getId(), ticketType.getId(), ticket.getId());
+        attendanceService.publishEntryRates();
+
+        String ticked = result.getResponse().getContentAsString().substring(opened.length());
+        assertTrue(ticked.startsWith("event:attendance\ndata:"), ticked);
+        assertTrue(ticked.contains("\"admitted\":1"), ticked);
+    }
+
+    @Test
+    void updateBasedOnAStaleVersionIsAConflict() throws Exception {
+        mockMvc.perform(put("/api/v1/events/{eventId}", event.getId())
+                        .with(jwt().jwt(jwt -> jwt.subject(user.getId().toString())))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update("Renamed event", event.getVersion()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed event"));
+
+        // Still based on the version before the rename
+        mockMvc.perform(put("/api/v1/events/{eventId}", event.getId())
+                        .with(jwt().jwt(jwt -> jwt.subject(user.getId().toString())))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update("Renamed again", event.getVersion()))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Event was changed by someone else, reload it and try again"));
+        assertEquals("Renamed event", eventRepository.findById(event.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void updateWithoutAVersionIsRejected() throws Exception {
+        mockMvc.perform(put("/api/v1/events/{eventId}", event.getId())
+                        .with(jwt().jwt(jwt -> jwt.subject(user.getId().toString())))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update("Renamed event", null))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("version: Event version must be provided"));
+        assertEquals("Event", eventRepository.findById(event.getId()).orElseThrow().getName());
+    }
+
+    private UpdateEventRequestDto update(String name, Long version) {
+        return new UpdateEventRequestDto(
+                event.getId(), name, event.getStart(), event.getEnd(), event.getVenue(),
+                null, null, event.getStatus(), version,
+                List.of(new UpdateTicketTypeRequestDto(
+                        ticketType.getId(), ticketType.getName(), ticketType.getPrice(), null, null, null)));
+    }
+}
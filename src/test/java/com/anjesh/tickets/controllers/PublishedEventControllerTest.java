@@ -0,0 +1,178 @@
+package com.anjesh.tickets.controllers;
+
+import com.anjesh.tickets.domain.UpdateEventRequest;
+import com.anjesh.tickets.domain.entities.Event;
+import com.anjesh.tickets.domain.entities.EventStatusEnum;
+import com.anjesh.tickets.domain.entities.User;
+import com.anjesh.tickets.repositories.CacheGenerationRepository;
+import com.anjesh.tickets.repositories.EventRepository;
+import com.anjesh.tickets.repositories.UserRepository;
+import com.anjesh.tickets.services.EventService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PublishedEventControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheGenerationRepository cacheGenerationRepository;
+
+    private User user;
+    private Event event;
+
+    @BeforeEach
+    void publishEvent() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setName("Organizer");
+        user.setEmail(user.getId() + "@example.com");
+        user = userRepository.save(user);
+
+        event = new Event();
+        event.setName("Cached event");
+        event.setVenue("Venue");
+        event.setStart(LocalDateTime.now().plusDays(7));
+        event.setStatus(EventStatusEnum.PUBLISHED);
+        event.setOrganizer(user);
+        event = eventRepository.save(event);
+        eventService.evictPublishedEvent(event.getId());
+    }
+
+    @AfterEach
+    void deleteEvent() {
+        eventRepository.deleteById(event.getId());
+        userRepository.deleteById(user.getId());
+        eventService.evictPublishedEvent(event.getId());
+    }
+
+    @Test
+    void detailsAreRevalidatedWithTheirETag() throws Exception {
+        String eTag = mockMvc.perform(get("/api/v1/published-events/{eventId}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"))
+                .andExpect(jsonPath("$.name").value("Cached event"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        mockMvc.perform(get("/api/v1/published-events/{eventId}", event.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void cachedDetailsKeepTheETagTheyWereReadWith() throws Exception {
+        String eTag = mockMvc.perform(get("/api/v1/published-events/{eventId}", event.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Written behind the cache's back, the cached body and its ETag stay together
+        event.setName("Renamed event");
+        event = eventRepository.save(event);
+        mockMvc.perform(get("/api/v1/published-events/{eventId}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(jsonPath("$.name").value("Cached event"));
+
+        eventService.evictPublishedEvent(event.getId());
+        String renamedETag = mockMvc.perform(get("/api/v1/published-events/{eventId}", event.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed event"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, renamedETag);
+    }
+
+    @Test
+    void unpublishedEventsAreNotFound() throws Exception {
+        mockMvc.perform(get("/api/v1/published-events/{eventId}", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void listingIsRevalidatedWithItsETag() throws Exception {
+        String eTag = mockMvc.perform(get("/api/v1/published-events"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        mockMvc.perform(get("/api/v1/published-events").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void changesOnAnotherNodeAreDroppedOnTheNextGenerationCheck() throws Exception {
+        eventService.checkPublishedEventGeneration();
+        mockMvc.perform(get("/api/v1/published-events/{eventId}", event.getId()))
+                .andExpect(jsonPath("$.name").value("Cached event"));
+
+        // What another node's update leaves behind: the new row and a bumped generation, but no local eviction
+        event.setName("Renamed elsewhere");
+        event = eventRepository.save(event);
+        eventService.recordPublishedEventChange();
+        mockMvc.perform(get("/api/v1/published-events/{eventId}", event.getId()))
+                .andExpect(jsonPath("$.name").value("Cached event"));
+
+        eventService.checkPublishedEventGeneration();
+        mockMvc.perform(get("/api/v1/published-events/{eventId}", event.getId()))
+                .andExpect(jsonPath("$.name").value("Renamed elsewhere"));
+    }
+
+    @Test
+    void filtersCannotBeCombinedWithSearchOrCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/published-events").param("q", "cached").param("venue", "Venue"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Filters cannot be combined with q"));
+        mockMvc.perform(get("/api/v1/published-events")
+                        .param("total", "false").param("q", "cached").param("minPrice", "10"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/published-events").param("cursor", "next").param("venue", "Venue"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Filters cannot be combined with cursor"));
+    }
+
+    @Test
+    void publishedChangesBumpTheSharedGeneration() {
+        eventService.checkPublishedEventGeneration();
+        long generation = cacheGenerationRepository.findGenerationByName("published-events").orElseThrow();
+
+        UpdateEventRequest request = new UpdateEventRequest(
+                event.getId(), "Renamed event", event.getStart(), null, event.getVenue(),
+                null, null, EventStatusEnum.PUBLISHED, event.getVersion(), new ArrayList<>());
+        eventService.updateEventForOrganizer(user.getId(), event.getId(), request);
+
+        assertEquals(generation + 1, cacheGenerationRepository.findGenerationByName("published-events").orElseThrow());
+    }
+}
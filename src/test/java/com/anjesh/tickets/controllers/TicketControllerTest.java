@@ -0,0 +1,176 @@
+package com.anjesh.tickets.controllers;
+
+import com.anjesh.tickets.domain.UpdateEventRequest;
+import com.anjesh.tickets.domain.UpdateTicketTypeRequest;
+import com.anjesh.tickets.domain.entities.*;
+import com.anjesh.tickets.repositories.*;
+import com.anjesh.tickets.services.EventService;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "tickets.qr-codes.signing-key=0123456789abcdef0123456789abcdef")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TicketControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private QrCodeRepository qrCodeRepository;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private Cache<UUID, Boolean> knownUserCache;
+
+    private User user;
+    private Event event;
+    private TicketType ticketType;
+    private Ticket ticket;
+    private QrCode qrCode;
+
+    @BeforeEach
+    void issueTicket() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setName("Attendee");
+        user.setEmail(user.getId() + "@example.com");
+        user = userRepository.save(user);
+        knownUserCache.put(user.getId(), Boolean.TRUE);
+
+        event = new Event();
+        event.setName("Event");
+        event.setVenue("Venue");
+        event.setStart(LocalDateTime.now().plusDays(7));
+        event.setEnd(LocalDateTime.now().plusDays(8));
+        event.setStatus(EventStatusEnum.PUBLISHED);
+        event.setOrganizer(user);
+        event = eventRepository.save(event);
+
+        ticketType = new TicketType();
+        ticketType.setName("General admission");
+        ticketType.setPrice(10.0);
+        ticketType.setTicketsSold(1);
+        ticketType.setEvent(event);
+        ticketType = ticketTypeRepository.save(ticketType);
+
+        ticket = new Ticket();
+        ticket.setStatus(TicketStatusEnum.PURCHASED);
+        ticket.setTicketType(ticketType);
+        ticket.setPurchaser(user);
+        ticket = ticketRepository.save(ticket);
+
+        qrCode = new QrCode();
+        qrCode.setId(UUID.randomUUID());
+        qrCode.setStatus(QrCodeStatusEnum.ACTIVE);
+        qrCode.setTicket(ticket);
+        qrCode = qrCodeRepository.save(qrCode);
+    }
+
+    @AfterEach
+    void deleteTicket() {
+        qrCodeRepository.deleteById(qrCode.getId());
+        ticketRepository.deleteById(ticket.getId());
+        ticketTypeRepository.deleteById(ticketType.getId());
+        eventRepository.deleteById(event.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void qrCodeIsRevalidatedWithAnETagOfItsContent() throws Exception {
+        String eTag = mockMvc.perform(get("/api/v1/tickets/{ticketId}/qr-codes", ticket.getId())
+                        .with(jwt().jwt(jwt -> jwt.subject(user.getId().toString()))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        mockMvc.perform(get("/api/v1/tickets/{ticketId}/qr-codes", ticket.getId())
+                        .with(jwt().jwt(jwt -> jwt.subject(user.getId().toString())))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void movingTheEventChangesTheQrCodeETag() throws Exception {
+        String eTag = mockMvc.perform(get("/api/v1/tickets/{ticketId}/qr-codes", ticket.getId())
+                        .with(jwt().jwt(jwt -> jwt.subject(user.getId().toString()))))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        event.setStart(event.getStart().plusDays(1));
+        event.setEnd(event.getEnd().plusDays(1));
+        event = eventRepository.save(event);
+
+        String movedETag = mockMvc.perform(get("/api/v1/tickets/{ticketId}/qr-codes", ticket.getId())
+                        .with(jwt().jwt(jwt -> jwt.subject(user.getId().toString())))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, movedETag);
+    }
+
+    @Test
+    void reschedulingClearsTheStoredQrCodeImage() throws Exception {
+        byte[] image = mockMvc.perform(get("/api/v1/tickets/{ticketId}/qr-codes", ticket.getId())
+                        .with(jwt().jwt(jwt -> jwt.subject(user.getId().toString()))))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertNotNull(qrCodeRepository.findById(qrCode.getId()).orElseThrow().getValue());
+
+        UpdateEventRequest request = new UpdateEventRequest(
+                event.getId(),
+                event.getName(),
+                event.getStart().plusDays(1),
+                event.getEnd().plusDays(1),
+                event.getVenue(),
+                null,
+                null,
+                event.getStatus(),
+                event.getVersion(),
+                List.of(new UpdateTicketTypeRequest(
+                        ticketType.getId(), ticketType.getName(), ticketType.getPrice(), null, null, null)));
+        eventService.updateEventForOrganizer(user.getId(), event.getId(), request);
+        assertNull(qrCodeRepository.findById(qrCode.getId()).orElseThrow().getValue());
+
+        byte[] rescheduledImage = mockMvc.perform(get("/api/v1/tickets/{ticketId}/qr-codes", ticket.getId())
+                        .with(jwt().jwt(jwt -> jwt.subject(user.getId().toString()))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertFalse(Arrays.equals(image, rescheduledImage));
+    }
+}
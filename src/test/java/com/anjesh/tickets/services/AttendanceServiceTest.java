@@ -0,0 +1,185 @@
+package com.anjesh.tickets.services;
+
+import com.anjesh.tickets.domain.dtos.EventAttendanceResponseDto;
+import com.anjesh.tickets.domain.dtos.TicketTypeAttendanceResponseDto;
+import com.anjesh.tickets.domain.entities.*;
+import com.anjesh.tickets.exceptions.EventNotFoundException;
+import com.anjesh.tickets.repositories.EventRepository;
+import com.anjesh.tickets.repositories.TicketRepository;
+import com.anjesh.tickets.repositories.TicketTypeRepository;
+import com.anjesh.tickets.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AttendanceServiceTest {
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private Event event;
+    private TicketType general;
+    private TicketType vip;
+    private final List<Ticket> tickets = new ArrayList<>();
+
+    @BeforeEach
+    void issueTickets() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setName("Organizer");
+        user.setEmail(user.getId() + "@example.com");
+        user = userRepository.save(user);
+
+        event = new Event();
+        event.setName("Attendance event");
+        event.setVenue("Venue");
+        event.setStatus(EventStatusEnum.PUBLISHED);
+        event.setOrganizer(user);
+        event = eventRepository.save(event);
+
+        general = createTicketType("General");
+        vip = createTicketType("VIP");
+        for (TicketType ticketType : List.of(general, general, general, vip)) {
+            Ticket ticket = new Ticket();
+            ticket.setStatus(TicketStatusEnum.PURCHASED);
+            ticket.setTicketType(ticketType);
+            ticket.setPurchaser(user);
+            tickets.add(ticketRepository.save(ticket));
+        }
+    }
+
+    @AfterEach
+    void deleteTickets() {
+        ticketRepository.deleteAll(tickets);
+        ticketTypeRepository.deleteAll(List.of(general, vip));
+        eventRepository.deleteById(event.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void admissionsAreCountedPerTicketTypeOnceCommitted() {
+        assertEquals(Map.of("General", 0L, "VIP", 0L), admittedByTicketType(attendance()));
+
+        admit(tickets.get(0), true);
+        admit(tickets.get(1), false);
+        admit(tickets.get(3), true);
+
+        EventAttendanceResponseDto attendance = attendance();
+        assertEquals(2, attendance.getAdmitted());
+        assertEquals(Map.of("General", 1L, "VIP", 1L), admittedByTicketType(attendance));
+
+        // The new baseline holds both admissions, they are not added on top of it
+        attendanceService.reconcile();
+        assertEquals(2, attendance().getAdmitted());
+    }
+
+    @Test
+    void admissionCommittedWhileReconcilingIsCountedOnce() {
+        assertEquals(0, attendance().getAdmitted());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            redeem(tickets.get(0));
+            // Runs after the commit but before the admission is counted
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    CompletableFuture.runAsync(attendanceService::reconcile).join();
+                }
+            });
+            recordAdmission(tickets.get(0));
+        });
+
+        assertEquals(1, attendance().getAdmitted());
+        attendanceService.reconcile();
+        assertEquals(1, attendance().getAdmitted());
+    }
+
+    @Test
+    void admissionsOnOtherNodesArePickedUpByReconcile() {
+        assertEquals(0, attendance().getAdmitted());
+
+        transactionTemplate.executeWithoutResult(status -> redeem(tickets.get(2)));
+
+        attendanceService.reconcile();
+        assertEquals(Map.of("General", 1L, "VIP", 0L), admittedByTicketType(attendance()));
+    }
+
+    @Test
+    void attendanceOfAnotherOrganizersEventIsNotFound() {
+        assertThrows(EventNotFoundException.class,
+                () -> attendanceService.getAttendanceForOrganizer(UUID.randomUUID(), event.getId()));
+        assertThrows(EventNotFoundException.class,
+                () -> attendanceService.streamAttendanceForOrganizer(UUID.randomUUID(), event.getId()));
+    }
+
+    private TicketType createTicketType(String name) {
+        TicketType ticketType = new TicketType();
+        ticketType.setName(name);
+        ticketType.setPrice(10.0);
+        ticketType.setTicketsSold(0);
+        ticketType.setEvent(event);
+        return ticketTypeRepository.save(ticketType);
+    }
+
+    private EventAttendanceResponseDto attendance() {
+        return attendanceService.getAttendanceForOrganizer(user.getId(), event.getId());
+    }
+
+    private static Map<String, Long> admittedByTicketType(EventAttendanceResponseDto attendance) {
+        return attendance.getTicketTypes().stream().collect(Collectors.toMap(
+                TicketTypeAttendanceResponseDto::getName, TicketTypeAttendanceResponseDto::getAdmitted));
+    }
+
+    private void admit(Ticket ticket, boolean commit) {
+        transactionTemplate.executeWithoutResult(status -> {
+            redeem(ticket);
+            recordAdmission(ticket);
+            if (!commit) {
+                status.setRollbackOnly();
+            }
+        });
+    }
+
+    private void redeem(Ticket ticket) {
+        Ticket redeemed = ticketRepository.findById(ticket.getId()).orElseThrow();
+        redeemed.setRedeemedAt(LocalDateTime.now());
+    }
+
+    private void recordAdmission(Ticket ticket) {
+        attendanceService.recordAdmission(event.getId(), ticket.getTicketType().getId(), ticket.getId());
+    }
+}
@@ -0,0 +1,119 @@
+package com.anjesh.tickets.services;
+
+import com.anjesh.tickets.domain.dtos.ListPublishedEventResponseDto;
+import com.anjesh.tickets.domain.entities.Event;
+import com.anjesh.tickets.domain.entities.EventStatusEnum;
+import com.anjesh.tickets.domain.entities.User;
+import com.anjesh.tickets.repositories.EventRepository;
+import com.anjesh.tickets.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the generated search column, its GIN index and the search query against PostgreSQL.
+ * H2 has none of them, so this only runs with {@code TEST_DB_URL} pointing at a throwaway database.
+ */
+@SpringBootTest
+@ActiveProfiles({"test", "postgres"})
+@EnabledIfEnvironmentVariable(named = "TEST_DB_URL", matches = ".+")
+class EventSearchPostgresTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private final List<Event> events = new ArrayList<>();
+
+    @BeforeEach
+    void createEvents() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setName("Organizer");
+        user.setEmail(user.getId() + "@example.com");
+        user = userRepository.save(user);
+
+        createEvent("Jazz Festival", "Town Hall", EventStatusEnum.PUBLISHED);
+        createEvent("Summer Sounds", "Jazz Cafe", EventStatusEnum.PUBLISHED);
+        createEvent("Jazz Rehearsal", "Studio", EventStatusEnum.DRAFT);
+        createEvent("Rock Night", "Arena", EventStatusEnum.PUBLISHED);
+    }
+
+    @AfterEach
+    void deleteEvents() {
+        eventRepository.deleteAll(events);
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void searchRanksNameMatchesAboveVenueMatches() {
+        Page<ListPublishedEventResponseDto> page =
+                eventService.searchPublishedEvents("jaz", PageRequest.of(0, 10)).getBody();
+
+        assertEquals(List.of("Jazz Festival", "Summer Sounds"),
+                page.getContent().stream().map(ListPublishedEventResponseDto::getName).toList());
+        assertEquals(2, page.getTotalElements());
+        assertEquals(List.of("Jazz Festival"), eventService.searchPublishedEvents("jazz fes", PageRequest.of(0, 10))
+                .getBody().getContent().stream().map(ListPublishedEventResponseDto::getName).toList());
+    }
+
+    @Test
+    void searchCanUseThePartialGinIndex() throws InterruptedException {
+        awaitSearchIndex();
+
+        String plan = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return String.join("\n", jdbcTemplate.queryForList("EXPLAIN SELECT e.id FROM events e " +
+                    "WHERE e.status = 'PUBLISHED' AND e.search_vector @@ to_tsquery('english', 'jazz:*')", String.class));
+        });
+        assertTrue(plan.contains("idx_events_search_vector"), plan);
+    }
+
+    private void createEvent(String name, String venue, EventStatusEnum status) {
+        Event event = new Event();
+        event.setName(name);
+        event.setVenue(venue);
+        event.setStatus(status);
+        event.setOrganizer(user);
+        events.add(eventRepository.save(event));
+    }
+
+    // DatabaseMigrationRunner builds the index in the background
+    private void awaitSearchIndex() throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            List<Boolean> valid = jdbcTemplate.queryForList("SELECT i.indisvalid FROM pg_index i " +
+                    "JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = 'idx_events_search_vector'", Boolean.class);
+            if (valid.contains(Boolean.TRUE)) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        fail("idx_events_search_vector was not built");
+    }
+}
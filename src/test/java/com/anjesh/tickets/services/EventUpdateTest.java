@@ -0,0 +1,145 @@
+package com.anjesh.tickets.services;
+
+import com.anjesh.tickets.domain.UpdateEventRequest;
+import com.anjesh.tickets.domain.UpdateTicketTypeRequest;
+import com.anjesh.tickets.domain.entities.*;
+import com.anjesh.tickets.domain.events.PublishedEventChangedEvent;
+import com.anjesh.tickets.repositories.EventRepository;
+import com.anjesh.tickets.repositories.TicketTypeRepository;
+import com.anjesh.tickets.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.anjesh.tickets.services.EventUpdateTest$WriteCountingStatementInspector")
+@ActiveProfiles("test")
+@Transactional
+@RecordApplicationEvents
+class EventUpdateTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    private User user;
+    private Event event;
+
+    @BeforeEach
+    void createEvent() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setName("Organizer");
+        user.setEmail(user.getId() + "@example.com");
+        user = userRepository.save(user);
+
+        event = new Event();
+        event.setName("Event");
+        event.setVenue("Venue");
+        event.setStart(LocalDateTime.now().plusDays(7));
+        event.setStatus(EventStatusEnum.PUBLISHED);
+        event.setOrganizer(user);
+        event = eventRepository.save(event);
+
+        for (int i = 0; i < 2; i++) {
+            TicketType ticketType = new TicketType();
+            ticketType.setName("Ticket type " + i);
+            ticketType.setPrice(10.0 * i);
+            ticketType.setTotalAvailable(100);
+            ticketType.setTicketsSold(0);
+            ticketType.setEvent(event);
+            event.getTicketTypes().add(ticketTypeRepository.save(ticketType));
+        }
+        // Written and detached up front, so only the update's own statements are counted
+        entityManager.flush();
+        entityManager.clear();
+
+        // Read back as a client would, the database keeps fewer fractional digits than LocalDateTime.now()
+        event = eventRepository.findByIdAndOrganizerId(event.getId(), user.getId()).orElseThrow();
+        event.getTicketTypes().size();
+        entityManager.clear();
+    }
+
+    @Test
+    void unchangedUpdateWritesNothingAndInvalidatesNothing() {
+        WriteCountingStatementInspector.reset();
+        eventService.updateEventForOrganizer(user.getId(), event.getId(), update(event.getName()));
+        // Writes left to dirty checking would only show up at flush
+        entityManager.flush();
+
+        assertEquals(0, WriteCountingStatementInspector.writes());
+        assertEquals(0, applicationEvents.stream(PublishedEventChangedEvent.class).count());
+    }
+
+    @Test
+    void changedUpdateWritesTheEventAndInvalidatesIt() {
+        WriteCountingStatementInspector.reset();
+        eventService.updateEventForOrganizer(user.getId(), event.getId(), update("Renamed event"));
+        entityManager.flush();
+
+        assertEquals(1, WriteCountingStatementInspector.writes());
+        assertEquals(1, applicationEvents.stream(PublishedEventChangedEvent.class)
+                .filter(changed -> changed.getEventId().equals(event.getId()))
+                .count());
+    }
+
+    private UpdateEventRequest update(String name) {
+        return new UpdateEventRequest(
+                event.getId(), name, event.getStart(), event.getEnd(), event.getVenue(),
+                event.getSalesStart(), event.getSalesEnd(), event.getStatus(), event.getVersion(),
+                event.getTicketTypes().stream()
+                        .map(ticketType -> new UpdateTicketTypeRequest(
+                                ticketType.getId(), ticketType.getName(), ticketType.getPrice(),
+                                ticketType.getDescription(), ticketType.getTotalAvailable(),
+                                ticketType.getInventoryShardCount()))
+                        .toList());
+    }
+
+    // Counts INSERT, UPDATE and DELETE statements per thread, so scheduled jobs are not included
+    public static class WriteCountingStatementInspector implements StatementInspector {
+
+        private static final ThreadLocal<int[]> WRITES = ThreadLocal.withInitial(() -> new int[1]);
+
+        static void reset() {
+            WRITES.get()[0] = 0;
+        }
+
+        static int writes() {
+            return WRITES.get()[0];
+        }
+
+        @Override
+        public String inspect(String sql) {
+            if (!sql.stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+                WRITES.get()[0]++;
+            }
+            return sql;
+        }
+    }
+}
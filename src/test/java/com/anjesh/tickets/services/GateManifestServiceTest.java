@@ -0,0 +1,200 @@
+package com.anjesh.tickets.services;
+
+import com.anjesh.tickets.domain.UpdateEventRequest;
+import com.anjesh.tickets.domain.UpdateTicketTypeRequest;
+import com.anjesh.tickets.domain.entities.*;
+import com.anjesh.tickets.repositories.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class GateManifestServiceTest {
+
+    @Autowired
+    private GateManifestService gateManifestService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private QrCodeRepository qrCodeRepository;
+
+    @Autowired
+    private DeletedQrCodeRepository deletedQrCodeRepository;
+
+    private User user;
+    private Event event;
+    private TicketType general;
+    private TicketType vip;
+    private UUID active;
+    private UUID redeemed;
+    private UUID expired;
+    private UUID cancelled;
+
+    @BeforeEach
+    void issueTickets() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setName("Organizer");
+        user.setEmail(user.getId() + "@example.com");
+        user = userRepository.save(user);
+
+        event = new Event();
+        event.setName("Gate event");
+        event.setVenue("Venue");
+        event.setStatus(EventStatusEnum.PUBLISHED);
+        event.setOrganizer(user);
+        event = eventRepository.save(event);
+
+        general = createTicketType("General");
+        vip = createTicketType("VIP");
+        active = issue(general, TicketStatusEnum.PURCHASED, null, QrCodeStatusEnum.ACTIVE);
+        redeemed = issue(general, TicketStatusEnum.PURCHASED, LocalDateTime.now(), QrCodeStatusEnum.ACTIVE);
+        expired = issue(vip, TicketStatusEnum.PURCHASED, null, QrCodeStatusEnum.EXPIRED);
+        cancelled = issue(vip, TicketStatusEnum.CANCELLED, null, QrCodeStatusEnum.ACTIVE);
+    }
+
+    @AfterEach
+    void deleteEvent() {
+        eventService.deleteEventForOrganizer(user.getId(), event.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void fullManifestListsEveryCodeWithItsState() throws IOException {
+        Manifest manifest = Manifest.parse(gateManifestService.getManifest(event.getId(), null));
+
+        assertFalse(manifest.delta);
+        assertEquals(event.getId(), manifest.eventId);
+        List<UUID> typeIds = new ArrayList<>(List.of(general.getId(), vip.getId()));
+        typeIds.sort(GateManifestServiceTest::compareUnsigned);
+        assertEquals(typeIds, manifest.ticketTypeIds);
+
+        assertEquals(Set.of(active, redeemed, expired, cancelled), manifest.flags.keySet());
+        assertEquals(0, manifest.flags.get(active));
+        assertEquals(1, manifest.flags.get(redeemed));
+        assertEquals(2, manifest.flags.get(expired));
+        assertEquals(2, manifest.flags.get(cancelled));
+        assertEquals(typeIds.indexOf(general.getId()), manifest.ticketTypeCodes.get(active));
+        assertEquals(typeIds.indexOf(vip.getId()), manifest.ticketTypeCodes.get(expired));
+        assertTrue(manifest.tombstones.isEmpty());
+
+        List<UUID> ids = new ArrayList<>(manifest.flags.keySet());
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(compareUnsigned(ids.get(i - 1), ids.get(i)) < 0);
+        }
+    }
+
+    @Test
+    void deltaRevokesCodesOfRemovedTicketTypes() throws IOException {
+        long version = Manifest.parse(gateManifestService.getManifest(event.getId(), null)).version;
+
+        UpdateEventRequest request = new UpdateEventRequest(
+                event.getId(), event.getName(), null, null, event.getVenue(), null, null, event.getStatus(), event.getVersion(),
+                List.of(new UpdateTicketTypeRequest(general.getId(), general.getName(), general.getPrice(), null, null, null)));
+        eventService.updateEventForOrganizer(user.getId(), event.getId(), request);
+
+        Manifest delta = Manifest.parse(gateManifestService.getManifest(event.getId(), version));
+        assertTrue(delta.delta);
+        assertEquals(List.of(general.getId()), delta.ticketTypeIds);
+        assertFalse(delta.flags.containsKey(expired));
+        assertEquals(Set.of(expired, cancelled), new HashSet<>(delta.tombstones));
+        assertEquals(2, deletedQrCodeRepository.count());
+    }
+
+    private TicketType createTicketType(String name) {
+        TicketType ticketType = new TicketType();
+        ticketType.setName(name);
+        ticketType.setPrice(10.0);
+        ticketType.setTicketsSold(2);
+        ticketType.setEvent(event);
+        return ticketTypeRepository.save(ticketType);
+    }
+
+    private UUID issue(TicketType ticketType, TicketStatusEnum status, LocalDateTime redeemedAt,
+                       QrCodeStatusEnum qrCodeStatus) {
+        Ticket ticket = new Ticket();
+        ticket.setStatus(status);
+        ticket.setTicketType(ticketType);
+        ticket.setPurchaser(user);
+        ticket.setRedeemedAt(redeemedAt);
+        ticket = ticketRepository.save(ticket);
+
+        QrCode qrCode = new QrCode();
+        qrCode.setId(UUID.randomUUID());
+        qrCode.setStatus(qrCodeStatus);
+        qrCode.setTicket(ticket);
+        return qrCodeRepository.save(qrCode).getId();
+    }
+
+    private static int compareUnsigned(UUID a, UUID b) {
+        int msb = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return msb != 0 ? msb : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    private static final class Manifest {
+        private boolean delta;
+        private long version;
+        private UUID eventId;
+        private final List<UUID> ticketTypeIds = new ArrayList<>();
+        private final Map<UUID, Integer> flags = new LinkedHashMap<>();
+        private final Map<UUID, Integer> ticketTypeCodes = new HashMap<>();
+        private final List<UUID> tombstones = new ArrayList<>();
+
+        private static Manifest parse(byte[] bytes) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            Manifest manifest = new Manifest();
+            assertEquals("TKGM", new String(in.readNBytes(4)));
+            assertEquals(2, in.readUnsignedByte());
+            manifest.delta = (in.readUnsignedByte() & 1) != 0;
+            manifest.version = in.readLong();
+            manifest.eventId = readUuid(in);
+            int ticketTypeCount = in.readUnsignedShort();
+            for (int i = 0; i < ticketTypeCount; i++) {
+                manifest.ticketTypeIds.add(readUuid(in));
+                in.readUTF();
+            }
+            int records = in.readInt();
+            for (int i = 0; i < records; i++) {
+                UUID qrCodeId = readUuid(in);
+                manifest.ticketTypeCodes.put(qrCodeId, in.readUnsignedShort());
+                manifest.flags.put(qrCodeId, in.readUnsignedByte());
+            }
+            int tombstones = in.readInt();
+            for (int i = 0; i < tombstones; i++) {
+                manifest.tombstones.add(readUuid(in));
+            }
+            assertEquals(0, in.available());
+            return manifest;
+        }
+
+        private static UUID readUuid(DataInputStream in) throws IOException {
+            return new UUID(in.readLong(), in.readLong());
+        }
+    }
+}
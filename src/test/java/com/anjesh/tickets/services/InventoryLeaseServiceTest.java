@@ -0,0 +1,205 @@
+package com.anjesh.tickets.services;
+
+import com.anjesh.tickets.domain.entities.*;
+import com.anjesh.tickets.repositories.EventRepository;
+import com.anjesh.tickets.repositories.InventoryLeaseRepository;
+import com.anjesh.tickets.repositories.TicketTypeRepository;
+import com.anjesh.tickets.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "tickets.inventory.lease.block-size=10",
+        "tickets.inventory.lease.ttl=PT30S"
+})
+@ActiveProfiles("test")
+class InventoryLeaseServiceTest {
+
+    @Autowired
+    private InventoryLeaseService inventoryLeaseService;
+
+    @Autowired
+    private InventoryLeaseRepository inventoryLeaseRepository;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private Event event;
+    private TicketType ticketType;
+
+    @BeforeEach
+    void createTicketType() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setName("Organizer");
+        user.setEmail(user.getId() + "@example.com");
+        user = userRepository.save(user);
+
+        event = new Event();
+        event.setName("Leased event");
+        event.setVenue("Venue");
+        event.setStatus(EventStatusEnum.PUBLISHED);
+        event.setOrganizer(user);
+        event = eventRepository.save(event);
+
+        ticketType = new TicketType();
+        ticketType.setName("General admission");
+        ticketType.setPrice(10.0);
+        ticketType.setTotalAvailable(25);
+        ticketType.setTicketsSold(0);
+        ticketType.setEvent(event);
+        ticketType = ticketTypeRepository.save(ticketType);
+    }
+
+    @AfterEach
+    void deleteTicketType() {
+        inventoryLeaseRepository.deleteAll(leases());
+        ticketTypeRepository.deleteById(ticketType.getId());
+        eventRepository.deleteById(event.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void acquiringLeasesABlockWithAnExpiry() {
+        LocalDateTime before = LocalDateTime.now();
+        assertTrue(inventoryLeaseService.reserve(ticketType, 2));
+
+        assertEquals(10, ticketsSold());
+        InventoryLease lease = leases().getFirst();
+        assertEquals(8, lease.getRemaining());
+        assertFalse(lease.getExpiresAt().isBefore(before.plusSeconds(30)));
+    }
+
+    @Test
+    void purchasesSellFromTheLease() {
+        assertTrue(inventoryLeaseService.reserve(ticketType, 2));
+        assertTrue(inventoryLeaseService.reserve(ticketType, 3));
+
+        assertEquals(10, ticketsSold());
+        assertEquals(5, leases().getFirst().getRemaining());
+    }
+
+    @Test
+    void rolledBackPurchaseLeavesTheLeaseUntouched() {
+        assertTrue(inventoryLeaseService.reserve(ticketType, 2));
+        transactionTemplate.executeWithoutResult(status -> {
+            assertTrue(inventoryLeaseService.reserve(ticketType, 3));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(8, leases().getFirst().getRemaining());
+    }
+
+    @Test
+    void renewingTopsUpTheLeaseAndMovesItsExpiry() {
+        assertTrue(inventoryLeaseService.reserve(ticketType, 2));
+        InventoryLease acquired = leases().getFirst();
+
+        assertTrue(inventoryLeaseService.reserve(ticketType, 9));
+
+        assertEquals(20, ticketsSold());
+        InventoryLease renewed = leases().getFirst();
+        assertEquals(acquired.getId(), renewed.getId());
+        assertEquals(9, renewed.getRemaining());
+        assertTrue(renewed.getExpiresAt().isAfter(acquired.getExpiresAt()));
+    }
+
+    @Test
+    void purchaseLargerThanWhatIsLeftBypassesTheLease() {
+        assertTrue(inventoryLeaseService.reserve(ticketType, 2));
+        assertTrue(inventoryLeaseService.reserve(ticketType, 9));
+        assertTrue(inventoryLeaseService.reserve(ticketType, 5));
+
+        // Four left in the lease and five on the row, too few for another block
+        assertTrue(inventoryLeaseService.reserve(ticketType, 5));
+        assertFalse(inventoryLeaseService.reserve(ticketType, 5));
+
+        assertEquals(25, ticketsSold());
+        assertEquals(4, leases().getFirst().getRemaining());
+    }
+
+    @Test
+    void expiredLeasesAreReturned() {
+        assertTrue(inventoryLeaseService.reserve(ticketType, 2));
+        expireLeases();
+
+        inventoryLeaseService.releaseExpiredLeases();
+
+        assertEquals(2, ticketsSold());
+        assertTrue(leases().isEmpty());
+
+        // The next purchase starts a new lease instead of selling from the returned one
+        assertTrue(inventoryLeaseService.reserve(ticketType, 1));
+        assertEquals(12, ticketsSold());
+        assertEquals(9, leases().getFirst().getRemaining());
+    }
+
+    @Test
+    void leasesOfOtherNodesAreReturnedOnceExpired() {
+        InventoryLease orphan = new InventoryLease();
+        orphan.setTicketType(ticketType);
+        orphan.setRemaining(6);
+        orphan.setExpiresAt(LocalDateTime.now().plusSeconds(30));
+        inventoryLeaseRepository.save(orphan);
+        ticketTypeRepository.findById(ticketType.getId()).ifPresent(saved -> {
+            saved.setTicketsSold(10);
+            ticketTypeRepository.save(saved);
+        });
+
+        inventoryLeaseService.releaseExpiredLeases();
+        assertEquals(10, ticketsSold());
+
+        expireLeases();
+        inventoryLeaseService.releaseExpiredLeases();
+        assertEquals(4, ticketsSold());
+        assertTrue(leases().isEmpty());
+    }
+
+    @Test
+    void shutdownReturnsUnexpiredLeases() {
+        assertTrue(inventoryLeaseService.reserve(ticketType, 3));
+
+        inventoryLeaseService.releaseAllLeases();
+
+        assertEquals(3, ticketsSold());
+        assertTrue(leases().isEmpty());
+    }
+
+    private int ticketsSold() {
+        return ticketTypeRepository.findById(ticketType.getId()).orElseThrow().getTicketsSold();
+    }
+
+    private List<InventoryLease> leases() {
+        return inventoryLeaseRepository.findAll().stream()
+                .filter(lease -> lease.getTicketType().getId().equals(ticketType.getId()))
+                .toList();
+    }
+
+    private void expireLeases() {
+        leases().forEach(lease -> {
+            lease.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+            inventoryLeaseRepository.save(lease);
+        });
+    }
+}
@@ -0,0 +1,167 @@
+package com.anjesh.tickets.services;
+
+import com.anjesh.tickets.domain.entities.*;
+import com.anjesh.tickets.repositories.EventRepository;
+import com.anjesh.tickets.repositories.InventoryShardRepository;
+import com.anjesh.tickets.repositories.TicketTypeRepository;
+import com.anjesh.tickets.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "tickets.inventory.shards.low-watermark=5")
+@ActiveProfiles("test")
+class InventoryShardServiceTest {
+
+    private static final int SHARDS = 4;
+
+    @Autowired
+    private InventoryShardService inventoryShardService;
+
+    @Autowired
+    private InventoryShardRepository inventoryShardRepository;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private Event event;
+    private TicketType ticketType;
+
+    @AfterEach
+    void deleteTicketType() {
+        inventoryShardRepository.deleteAll(
+                inventoryShardRepository.findByTicketTypeIdOrderByShardIndex(ticketType.getId()));
+        ticketTypeRepository.deleteById(ticketType.getId());
+        eventRepository.deleteById(event.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void evenShardsWithAnEmptyPoolAreNotRebalanced() {
+        createShardedTicketType(8);
+        assertEquals(List.of(2, 2, 2, 2), remaining());
+        assertFalse(isPickedUp());
+
+        take(0, 2);
+        assertTrue(isPickedUp());
+
+        inventoryShardService.rebalance(ticketType.getId());
+        assertEquals(List.of(1, 1, 2, 2), remaining());
+        assertFalse(isPickedUp());
+    }
+
+    @Test
+    void stockLeftOnTheTicketTypeIsRebalanced() {
+        createShardedTicketType(3);
+        assertEquals(List.of(1, 1, 1, 0), remaining());
+        assertFalse(isPickedUp());
+
+        releaseToPool(2);
+        assertTrue(isPickedUp());
+
+        inventoryShardService.rebalance(ticketType.getId());
+        assertEquals(List.of(2, 2, 1, 0), remaining());
+        assertTrue(isPickedUp());
+
+        inventoryShardService.rebalance(ticketType.getId());
+        assertEquals(List.of(1, 2, 1, 1), remaining());
+        assertFalse(isPickedUp());
+    }
+
+    @Test
+    void soldOutTypesAreNotRebalanced() {
+        createShardedTicketType(8);
+        for (int shardIndex = 0; shardIndex < SHARDS; shardIndex++) {
+            take(shardIndex, 2);
+        }
+
+        assertEquals(List.of(0, 0, 0, 0), remaining());
+        assertFalse(isPickedUp());
+    }
+
+    @Test
+    void cuttingCapacityPullsStockBackOutOfTheShards() {
+        createShardedTicketType(40);
+        assertEquals(List.of(10, 10, 10, 10), remaining());
+        take(1, 4);
+
+        ticketType = ticketTypeRepository.findById(ticketType.getId()).orElseThrow();
+        ticketType.setTotalAvailable(20);
+        ticketType = ticketTypeRepository.save(ticketType);
+        inventoryShardService.provisionShards(ticketType);
+
+        // 4 were sold, the shards hold the other 16
+        assertEquals(16, remaining().stream().mapToInt(Integer::intValue).sum());
+        assertEquals(20, ticketTypeRepository.findById(ticketType.getId()).orElseThrow().getTicketsSold());
+
+        int sold = 4;
+        while (transactionTemplate.execute(status -> inventoryShardService.reserve(ticketType, UUID.randomUUID(), 1))) {
+            sold++;
+        }
+        assertEquals(20, sold);
+    }
+
+    private void createShardedTicketType(int totalAvailable) {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setName("Organizer");
+        user.setEmail(user.getId() + "@example.com");
+        user = userRepository.save(user);
+
+        event = new Event();
+        event.setName("Sharded event");
+        event.setVenue("Venue");
+        event.setStatus(EventStatusEnum.PUBLISHED);
+        event.setOrganizer(user);
+        event = eventRepository.save(event);
+
+        ticketType = new TicketType();
+        ticketType.setName("General admission");
+        ticketType.setPrice(10.0);
+        ticketType.setTotalAvailable(totalAvailable);
+        ticketType.setTicketsSold(0);
+        ticketType.setInventoryShardCount(SHARDS);
+        ticketType.setEvent(event);
+        ticketType = ticketTypeRepository.save(ticketType);
+
+        inventoryShardService.provisionShards(ticketType);
+    }
+
+    private boolean isPickedUp() {
+        return inventoryShardRepository.findTicketTypeIdsToRebalance(5).contains(ticketType.getId());
+    }
+
+    private List<Integer> remaining() {
+        return inventoryShardRepository.findByTicketTypeIdOrderByShardIndex(ticketType.getId()).stream()
+                .map(InventoryShard::getRemaining)
+                .toList();
+    }
+
+    private void take(int shardIndex, int quantity) {
+        transactionTemplate.executeWithoutResult(status ->
+                assertEquals(1, inventoryShardRepository.takeFromShard(ticketType.getId(), shardIndex, quantity)));
+    }
+
+    private void releaseToPool(int quantity) {
+        transactionTemplate.executeWithoutResult(status ->
+                assertEquals(1, ticketTypeRepository.releaseTickets(ticketType.getId(), quantity)));
+    }
+}
@@ -0,0 +1,172 @@
+package com.anjesh.tickets.services;
+
+import com.anjesh.tickets.domain.dtos.ListEventResponseDto;
+import com.anjesh.tickets.domain.dtos.ListTicketResponseDto;
+import com.anjesh.tickets.domain.dtos.SliceResponseDto;
+import com.anjesh.tickets.domain.entities.*;
+import com.anjesh.tickets.repositories.EventRepository;
+import com.anjesh.tickets.repositories.TicketRepository;
+import com.anjesh.tickets.repositories.TicketTypeRepository;
+import com.anjesh.tickets.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.anjesh.tickets.services.ListingStatementCountTest$CountingStatementInspector")
+@ActiveProfiles("test")
+@Transactional
+class ListingStatementCountTest {
+
+    private static final int EVENTS = 5;
+    private static final int TICKET_TYPES_PER_EVENT = 3;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void createEvents() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setName("Organizer");
+        user.setEmail(user.getId() + "@example.com");
+        user = userRepository.save(user);
+
+        for (int i = 0; i < EVENTS; i++) {
+            Event event = new Event();
+            event.setName("Event " + i);
+            event.setVenue("Venue " + i);
+            event.setStart(LocalDateTime.now().plusDays(i + 1));
+            event.setStatus(EventStatusEnum.PUBLISHED);
+            event.setOrganizer(user);
+            event = eventRepository.save(event);
+
+            for (int j = 0; j < TICKET_TYPES_PER_EVENT; j++) {
+                TicketType ticketType = new TicketType();
+                ticketType.setName("Ticket type " + j);
+                ticketType.setPrice(10.0 * j);
+                ticketType.setTicketsSold(1);
+                ticketType.setEvent(event);
+                ticketType = ticketTypeRepository.save(ticketType);
+
+                Ticket ticket = new Ticket();
+                ticket.setStatus(TicketStatusEnum.PURCHASED);
+                ticket.setTicketType(ticketType);
+                ticket.setPurchaser(user);
+                ticketRepository.save(ticket);
+            }
+        }
+        // Written and detached up front, so only the listing's own statements are counted
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void organizerEventsLoadTicketTypesInOneQuery() {
+        CountingStatementInspector.reset();
+        Page<ListEventResponseDto> events = eventService.listEventsForOrganizer(user.getId(), PageRequest.of(0, 20));
+
+        assertEquals(EVENTS, events.getNumberOfElements());
+        events.forEach(event -> assertEquals(TICKET_TYPES_PER_EVENT, event.getTicketTypes().size()));
+        assertEquals(2, CountingStatementInspector.count());
+
+        CountingStatementInspector.reset();
+        eventService.scrollEventsForOrganizer(user.getId(), null, 20);
+        assertEquals(2, CountingStatementInspector.count());
+    }
+
+    @Test
+    void userTicketsAreOneQuery() {
+        CountingStatementInspector.reset();
+        Page<ListTicketResponseDto> tickets = ticketService.listTicketsForUser(user.getId(), PageRequest.of(0, 20));
+
+        assertEquals(EVENTS * TICKET_TYPES_PER_EVENT, tickets.getNumberOfElements());
+        tickets.forEach(ticket -> assertTrue(ticket.getTicketType().getName().startsWith("Ticket type")));
+        assertEquals(1, CountingStatementInspector.count());
+
+        CountingStatementInspector.reset();
+        ticketService.scrollTicketsForUser(user.getId(), null, 20);
+        assertEquals(1, CountingStatementInspector.count());
+    }
+
+    @Test
+    void slicesSkipTheCountQuery() {
+        CountingStatementInspector.reset();
+        Page<ListTicketResponseDto> page = ticketService.listTicketsForUser(user.getId(), PageRequest.of(0, 2));
+        assertEquals(EVENTS * TICKET_TYPES_PER_EVENT, page.getTotalElements());
+        assertEquals(2, CountingStatementInspector.count());
+
+        CountingStatementInspector.reset();
+        SliceResponseDto<ListTicketResponseDto> slice = ticketService.sliceTicketsForUser(user.getId(), PageRequest.of(0, 2));
+        assertEquals(2, slice.getContent().size());
+        assertTrue(slice.isHasNext());
+        assertEquals(1, CountingStatementInspector.count());
+
+        CountingStatementInspector.reset();
+        SliceResponseDto<ListEventResponseDto> events = eventService.sliceEventsForOrganizer(user.getId(), PageRequest.of(2, 2));
+        assertEquals(1, events.getContent().size());
+        assertFalse(events.isHasNext());
+        assertEquals(2, CountingStatementInspector.count());
+    }
+
+    @Test
+    void publishedEventsAreOneQuery() {
+        CountingStatementInspector.reset();
+        eventService.scrollPublishedEvents(null, 20);
+        assertEquals(1, CountingStatementInspector.count());
+    }
+
+    // Counts per thread, so scheduled jobs running alongside the test are not included
+    public static class CountingStatementInspector implements StatementInspector {
+
+        private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+        static void reset() {
+            COUNT.get()[0] = 0;
+        }
+
+        static int count() {
+            return COUNT.get()[0];
+        }
+
+        @Override
+        public String inspect(String sql) {
+            COUNT.get()[0]++;
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.anjesh.tickets.services;
+
+import com.anjesh.tickets.domain.PublishedEventFilter;
+import com.anjesh.tickets.domain.dtos.DateFacetResponseDto;
+import com.anjesh.tickets.domain.dtos.ListPublishedEventResponseDto;
+import com.anjesh.tickets.domain.dtos.PriceFacetResponseDto;
+import com.anjesh.tickets.domain.dtos.PublishedEventFacetsResponseDto;
+import com.anjesh.tickets.domain.dtos.VenueFacetResponseDto;
+import com.anjesh.tickets.domain.entities.Event;
+import com.anjesh.tickets.domain.entities.EventStatusEnum;
+import com.anjesh.tickets.domain.entities.TicketType;
+import com.anjesh.tickets.domain.entities.User;
+import com.anjesh.tickets.exceptions.InvalidEventFilterException;
+import com.anjesh.tickets.repositories.EventRepository;
+import com.anjesh.tickets.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PublishedEventFacetsTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final String venue = "Hall " + UUID.randomUUID();
+    private final String otherVenue = "Club " + UUID.randomUUID();
+    private final List<Event> events = new ArrayList<>();
+    private User user;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void publishEvents() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setName("Organizer");
+        user.setEmail(user.getId() + "@example.com");
+        user = userRepository.save(user);
+
+        now = LocalDateTime.now();
+        publish("Matinee", venue, now.plusDays(2), now.plusDays(2).plusHours(3), 20.0);
+        publish("Open-ended later", venue, now.plusDays(10), null, 60.0);
+        publish("Elsewhere", otherVenue, now.plusDays(3), null, 30.0);
+        publish("Open-ended running", venue, now.minusHours(12), null, 120.0);
+        publish("Over", venue, now.minusDays(3), now.minusDays(2), 40.0);
+    }
+
+    @AfterEach
+    void deleteEvents() {
+        eventRepository.deleteAll(events);
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void openEndedEventsTakePlaceForADayAfterTheyStart() {
+        PublishedEventFilter filter = new PublishedEventFilter(now, now.plusDays(1), venue, null, null);
+
+        assertEquals(List.of("Open-ended running"), names(filter));
+    }
+
+    @Test
+    void filtersAreCombined() {
+        assertEquals(List.of("Open-ended later", "Open-ended running"),
+                names(new PublishedEventFilter(null, null, venue, 50.0, null)));
+        assertEquals(List.of("Matinee", "Over"),
+                names(new PublishedEventFilter(null, null, venue, null, 50.0)));
+        assertEquals(List.of("Matinee", "Open-ended later"),
+                names(new PublishedEventFilter(now.plusDays(1), now.plusDays(30), venue, null, null)));
+    }
+
+    @Test
+    void facetsIgnoreTheirOwnFilter() {
+        PublishedEventFacetsResponseDto facets = eventService.getPublishedEventFacets(
+                new PublishedEventFilter(null, null, venue, 50.0, null));
+
+        assertEquals(2, facets.getTotal());
+        // Without the venue filter, but still priced from 50
+        assertEquals(Map.of(venue, 2L), facets.getVenues().stream()
+                .filter(facet -> facet.getVenue().equals(venue) || facet.getVenue().equals(otherVenue))
+                .collect(Collectors.toMap(VenueFacetResponseDto::getVenue, VenueFacetResponseDto::getCount)));
+        // Without the price filter, but still at the venue
+        assertEquals(List.of(1L, 1L, 1L, 1L),
+                facets.getPrices().stream().map(PriceFacetResponseDto::getCount).toList());
+        assertEquals(Map.of("today", 1L, "next-7-days", 1L, "next-30-days", 2L), facets.getDates().stream()
+                .filter(facet -> !facet.getLabel().equals("this-weekend"))
+                .collect(Collectors.toMap(DateFacetResponseDto::getLabel, DateFacetResponseDto::getCount)));
+    }
+
+    @Test
+    void invalidFiltersAreRejected() {
+        assertThrows(InvalidEventFilterException.class, () -> eventService.getPublishedEventFacets(
+                new PublishedEventFilter(now.plusDays(1), now, null, null, null)));
+        assertThrows(InvalidEventFilterException.class, () -> eventService.filterPublishedEvents(
+                new PublishedEventFilter(null, null, null, -1.0, null), Pageable.unpaged()));
+        assertThrows(InvalidEventFilterException.class, () -> eventService.filterPublishedEvents(
+                new PublishedEventFilter(null, null, null, 50.0, 50.0), Pageable.unpaged()));
+    }
+
+    @Test
+    void priceFacetBoundsHaveToAscend() {
+        Object target = AopTestUtils.getTargetObject(eventService);
+        Object bounds = ReflectionTestUtils.getField(target, "priceFacetBounds");
+        try {
+            ReflectionTestUtils.setField(target, "priceFacetBounds", List.of(25.0, 100.0, 50.0));
+            assertThrows(IllegalStateException.class,
+                    () -> ReflectionTestUtils.invokeMethod(target, "checkPriceFacetBounds"));
+
+            ReflectionTestUtils.setField(target, "priceFacetBounds", List.of(-10.0, 50.0));
+            assertThrows(IllegalStateException.class,
+                    () -> ReflectionTestUtils.invokeMethod(target, "checkPriceFacetBounds"));
+        } finally {
+            ReflectionTestUtils.setField(target, "priceFacetBounds", bounds);
+        }
+    }
+
+    private List<String> names(PublishedEventFilter filter) {
+        return eventService.filterPublishedEvents(filter, Pageable.unpaged()).stream()
+                .map(ListPublishedEventResponseDto::getName)
+                .sorted()
+                .toList();
+    }
+
+    private void publish(String name, String eventVenue, LocalDateTime start, LocalDateTime end, Double price) {
+        Event event = new Event();
+        event.setName(name);
+        event.setVenue(eventVenue);
+        event.setStart(start);
+        event.setEnd(end);
+        event.setStatus(EventStatusEnum.PUBLISHED);
+        event.setOrganizer(user);
+
+        TicketType ticketType = new TicketType();
+        ticketType.setName("General admission");
+        ticketType.setPrice(price);
+        ticketType.setTicketsSold(0);
+        ticketType.setEvent(event);
+        event.getTicketTypes().add(ticketType);
+        events.add(eventRepository.save(event));
+    }
+}
@@ -0,0 +1,94 @@
+package com.anjesh.tickets.services;
+
+import com.anjesh.tickets.domain.PurchaseTicketsItemRequest;
+import com.anjesh.tickets.domain.PurchaseTicketsRequest;
+import com.anjesh.tickets.domain.entities.*;
+import com.anjesh.tickets.repositories.EventRepository;
+import com.anjesh.tickets.repositories.TicketTypeRepository;
+import com.anjesh.tickets.repositories.UserRepository;
+import com.anjesh.tickets.services.ListingStatementCountTest.CountingStatementInspector;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.anjesh.tickets.services.ListingStatementCountTest$CountingStatementInspector")
+@ActiveProfiles("test")
+@Transactional
+class PurchaseStatementCountTest {
+
+    @Autowired
+    private TicketTypeService ticketTypeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+    private TicketType ticketType;
+
+    @BeforeEach
+    void createTicketType() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setName("Attendee");
+        user.setEmail(user.getId() + "@example.com");
+        user = userRepository.save(user);
+
+        Event event = new Event();
+        event.setName("Event");
+        event.setVenue("Venue");
+        event.setStatus(EventStatusEnum.PUBLISHED);
+        event.setOrganizer(user);
+        event = eventRepository.save(event);
+
+        ticketType = new TicketType();
+        ticketType.setName("General admission");
+        ticketType.setPrice(10.0);
+        ticketType.setTotalAvailable(100);
+        ticketType.setTicketsSold(0);
+        ticketType.setEvent(event);
+        ticketType = ticketTypeRepository.save(ticketType);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void purchaseStatementsDoNotGrowWithQuantity() {
+        int single = purchase(1);
+        int five = purchase(5);
+
+        // Tickets and QR codes go out as one batch each, new QR codes are not selected first
+        assertEquals(single, five);
+    }
+
+    private int purchase(int quantity) {
+        CountingStatementInspector.reset();
+        List<Ticket> tickets = ticketTypeService.purchaseTickets(user.getId(), new PurchaseTicketsRequest(
+                List.of(new PurchaseTicketsItemRequest(ticketType.getId(), quantity))));
+        entityManager.flush();
+        int count = CountingStatementInspector.count();
+
+        assertEquals(quantity, tickets.size());
+        entityManager.clear();
+        return count;
+    }
+}
@@ -0,0 +1,98 @@
+package com.anjesh.tickets.services;
+
+import com.anjesh.tickets.domain.QrCodePayload;
+import com.anjesh.tickets.services.impl.QrCodePayloadServiceImpl;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QrCodePayloadServiceTest {
+
+    private static final String KEY = "0123456789abcdef0123456789abcdef";
+
+    private final QrCodePayloadService qrCodePayloadService = new QrCodePayloadServiceImpl(KEY);
+
+    private final QrCodePayload payload = new QrCodePayload(
+            UUID.randomUUID(),
+            UUID.randomUUID(),
+            UUID.randomUUID(),
+            LocalDateTime.of(2026, 6, 1, 18, 0),
+            LocalDateTime.of(2026, 6, 1, 23, 30));
+
+    @Test
+    void signedPayloadRoundTrips() {
+        String content = qrCodePayloadService.sign(payload);
+
+        assertTrue(content.startsWith("T1."));
+        assertEquals(Optional.of(payload), qrCodePayloadService.verify(content));
+    }
+
+    @Test
+    void openEndedWindowRoundTrips() {
+        QrCodePayload openEnded = new QrCodePayload(
+                payload.getQrCodeId(), payload.getTicketId(), payload.getEventId(), null, null);
+
+        assertEquals(Optional.of(openEnded), qrCodePayloadService.verify(qrCodePayloadService.sign(openEnded)));
+    }
+
+    @Test
+    void tamperedPayloadIsRejected() {
+        byte[] bytes = decode(qrCodePayloadService.sign(payload));
+
+        // Shift validUntil, the last field before the signature, by one second
+        bytes[63] ^= 0x01;
+
+        assertTrue(qrCodePayloadService.verify(encode(bytes)).isEmpty());
+    }
+
+    @Test
+    void tamperedSignatureIsRejected() {
+        byte[] bytes = decode(qrCodePayloadService.sign(payload));
+        bytes[bytes.length - 1] ^= 0x01;
+
+        assertTrue(qrCodePayloadService.verify(encode(bytes)).isEmpty());
+    }
+
+    @Test
+    void payloadSignedWithAnotherKeyIsRejected() {
+        QrCodePayloadService other = new QrCodePayloadServiceImpl("fedcba9876543210fedcba9876543210");
+
+        assertTrue(qrCodePayloadService.verify(other.sign(payload)).isEmpty());
+    }
+
+    @Test
+    void malformedContentIsRejected() {
+        String content = qrCodePayloadService.sign(payload);
+
+        assertTrue(qrCodePayloadService.verify(null).isEmpty());
+        assertTrue(qrCodePayloadService.verify(payload.getQrCodeId().toString()).isEmpty());
+        assertTrue(qrCodePayloadService.verify("T1.not base64!").isEmpty());
+        assertTrue(qrCodePayloadService.verify(content.substring(0, content.length() - 4)).isEmpty());
+    }
+
+    @Test
+    void shortSigningKeyIsRejectedAtStartup() {
+        assertThrows(IllegalStateException.class, () -> new QrCodePayloadServiceImpl("too-short"));
+    }
+
+    @Test
+    void blankSigningKeyDisablesSigning() {
+        QrCodePayloadService unsigned = new QrCodePayloadServiceImpl("");
+
+        assertFalse(unsigned.isSigningEnabled());
+        assertTrue(unsigned.verify(qrCodePayloadService.sign(payload)).isEmpty());
+    }
+
+    private static byte[] decode(String content) {
+        return Base64.getUrlDecoder().decode(content.substring(3));
+    }
+
+    private static String encode(byte[] bytes) {
+        return "T1." + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
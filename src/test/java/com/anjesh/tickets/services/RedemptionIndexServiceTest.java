@@ -0,0 +1,192 @@
+package com.anjesh.tickets.services;
+
+import com.anjesh.tickets.domain.entities.TicketValidation;
+import com.anjesh.tickets.domain.entities.TicketValidationStatusEnum;
+import com.anjesh.tickets.domain.projections.TicketRedemptionState;
+import com.anjesh.tickets.repositories.EventRepository;
+import com.anjesh.tickets.repositories.QrCodeRepository;
+import com.anjesh.tickets.repositories.TicketRepository;
+import com.anjesh.tickets.repositories.TicketValidationRepository;
+import com.anjesh.tickets.services.impl.RedemptionIndexServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RedemptionIndexServiceTest {
+
+    private final UUID eventId = UUID.randomUUID();
+    private final UUID ticketTypeId = UUID.randomUUID();
+    private final UUID poisonTicketId = UUID.randomUUID();
+    private final UUID poisonQrCodeId = UUID.randomUUID();
+    private final UUID ticketId = UUID.randomUUID();
+
+    private final EventRepository eventRepository = mock(EventRepository.class);
+    private final TicketRepository ticketRepository = mock(TicketRepository.class);
+    private final QrCodeRepository qrCodeRepository = mock(QrCodeRepository.class);
+    private final TicketValidationRepository ticketValidationRepository = mock(TicketValidationRepository.class);
+
+    private RedemptionIndexServiceImpl redemptionIndexService;
+
+    @BeforeEach
+    void loadIndex() {
+        redemptionIndexService = new RedemptionIndexServiceImpl(
+                eventRepository,
+                ticketRepository,
+                qrCodeRepository,
+                ticketValidationRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                mock(AttendanceService.class));
+        ReflectionTestUtils.setField(redemptionIndexService, "loadBeforeStart", Duration.ofHours(3));
+        ReflectionTestUtils.setField(redemptionIndexService, "flushBatchSize", 500);
+        ReflectionTestUtils.setField(redemptionIndexService, "flushMaxAttempts", 3);
+
+        when(eventRepository.findIdsWithDoorsOpen(any(), any(), any())).thenReturn(List.of(eventId));
+        when(ticketRepository.streamRedemptionStateByEventId(eventId)).thenAnswer(invocation -> Stream.of(
+                state(poisonTicketId, poisonQrCodeId),
+                state(ticketId, UUID.randomUUID())));
+        when(ticketRepository.findRedeemedIdsByEventId(eventId)).thenReturn(List.of());
+        redemptionIndexService.refreshIndexes();
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void rowThatKeepsFailingIsDroppedAndDoesNotBlockTheRest() {
+        List<List<UUID>> written = new ArrayList<>();
+        when(ticketValidationRepository.redeemTickets(anyMap())).thenAnswer(invocation -> Set.copyOf(
+                invocation.<Map<UUID, LocalDateTime>>getArgument(0).keySet()));
+        doAnswer(invocation -> {
+            List<UUID> ticketIds = invocation.<List<TicketValidation>>getArgument(0).stream()
+                    .map(ticketValidation -> ticketValidation.getTicket().getId())
+                    .toList();
+            if (ticketIds.contains(poisonTicketId)) {
+                throw new DataIntegrityViolationException("constraint violated");
+            }
+            written.add(ticketIds);
+            return null;
+        }).when(ticketValidationRepository).insertValidations(anyList());
+
+        assertValid(redemptionIndexService.redeemByTicket(poisonTicketId).orElseThrow());
+        assertValid(redemptionIndexService.redeemByTicket(ticketId).orElseThrow());
+
+        // One failed batch, then three failures of the bad row on its own before it is dropped
+        for (int i = 0; i < 4; i++) {
+            redemptionIndexService.flush();
+        }
+        assertTrue(written.isEmpty());
+
+        redemptionIndexService.flush();
+        assertEquals(List.of(List.of(ticketId)), written);
+
+        // Never written, so the ticket is not redeemed and may be scanned again
+        assertValid(redemptionIndexService.redeemByTicket(poisonTicketId).orElseThrow());
+    }
+
+    @Test
+    void failedBatchIsRetriedUntilItIsWritten() {
+        when(ticketValidationRepository.redeemTickets(anyMap())).thenReturn(Set.of(ticketId));
+        doThrow(new DataIntegrityViolationException("connection lost"))
+                .doNothing()
+                .when(ticketValidationRepository).insertValidations(anyList());
+
+        assertValid(redemptionIndexService.redeemByTicket(ticketId).orElseThrow());
+        redemptionIndexService.flush();
+        redemptionIndexService.flush();
+        redemptionIndexService.flush();
+
+        verify(ticketValidationRepository, times(2)).insertValidations(anyList());
+        assertEquals(TicketValidationStatusEnum.INVALID,
+                redemptionIndexService.redeemByTicket(ticketId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void rolledBackRedemptionFreesTheTicket() {
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(redemptionIndexService.markRedeemed(ticketId));
+        assertFalse(redemptionIndexService.markRedeemed(ticketId));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertValid(redemptionIndexService.redeemByTicket(ticketId).orElseThrow());
+    }
+
+    @Test
+    void committedRedemptionStaysRedeemed() {
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(redemptionIndexService.markRedeemed(ticketId));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertFalse(redemptionIndexService.markRedeemed(ticketId));
+    }
+
+    @Test
+    void deactivatedQrCodesGoToTheDatabase() {
+        assertTrue(redemptionIndexService.redeemByQrCode(poisonQrCodeId).isPresent());
+
+        when(qrCodeRepository.findInactiveIdsByEventIdIn(eq(Set.of(eventId)), any(), any()))
+                .thenReturn(List.of(poisonQrCodeId));
+        redemptionIndexService.revokeDeactivatedQrCodes();
+
+        assertTrue(redemptionIndexService.redeemByQrCode(poisonQrCodeId).isEmpty());
+        assertTrue(redemptionIndexService.isIndexed(poisonTicketId));
+    }
+
+    private static void assertValid(TicketValidation ticketValidation) {
+        assertEquals(TicketValidationStatusEnum.VALID, ticketValidation.getStatus());
+    }
+
+    private TicketRedemptionState state(UUID ticketId, UUID qrCodeId) {
+        return new TicketRedemptionState() {
+            @Override
+            public UUID getTicketId() {
+                return ticketId;
+            }
+
+            @Override
+            public UUID getQrCodeId() {
+                return qrCodeId;
+            }
+
+            @Override
+            public UUID getTicketTypeId() {
+                return ticketTypeId;
+            }
+
+            @Override
+            public LocalDateTime getRedeemedAt() {
+                return null;
+            }
+        };
+    }
+}
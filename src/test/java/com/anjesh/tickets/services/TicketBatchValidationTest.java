@@ -0,0 +1,161 @@
+package com.anjesh.tickets.services;
+
+import com.anjesh.tickets.domain.TicketScan;
+import com.anjesh.tickets.domain.ValidateTicketsRequest;
+import com.anjesh.tickets.domain.entities.*;
+import com.anjesh.tickets.repositories.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TicketBatchValidationTest {
+
+    @Autowired
+    private TicketValidationService ticketValidationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private Event event;
+    private TicketType ticketType;
+    private Ticket ticket;
+
+    @BeforeEach
+    void issueTicket() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setName("Attendee");
+        user.setEmail(user.getId() + "@example.com");
+        user = userRepository.save(user);
+
+        event = new Event();
+        event.setName("Gate event");
+        event.setVenue("Venue");
+        event.setStatus(EventStatusEnum.PUBLISHED);
+        event.setOrganizer(user);
+        event = eventRepository.save(event);
+
+        ticketType = new TicketType();
+        ticketType.setName("General admission");
+        ticketType.setPrice(10.0);
+        ticketType.setTicketsSold(1);
+        ticketType.setEvent(event);
+        ticketType = ticketTypeRepository.save(ticketType);
+
+        ticket = new Ticket();
+        ticket.setStatus(TicketStatusEnum.PURCHASED);
+        ticket.setTicketType(ticketType);
+        ticket.setPurchaser(user);
+        ticket = ticketRepository.save(ticket);
+    }
+
+    @AfterEach
+    void deleteTicket() {
+        jdbcTemplate.update("DELETE FROM ticket_validation WHERE ticket_id = ?", ticket.getId());
+        ticketRepository.deleteById(ticket.getId());
+        ticketTypeRepository.deleteById(ticketType.getId());
+        eventRepository.deleteById(event.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void earliestScanInAnUploadWins() {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<TicketValidation> results = ticketValidationService.validateTickets(upload(now, now.minusMinutes(5)));
+
+        assertEquals(TicketValidationStatusEnum.INVALID, results.get(0).getStatus());
+        assertEquals(TicketValidationStatusEnum.VALID, results.get(1).getStatus());
+        assertEquals(now.minusMinutes(5).withNano(0),
+                ticketRepository.findById(ticket.getId()).orElseThrow().getRedeemedAt().withNano(0));
+    }
+
+    @Test
+    void ticketRedeemedByAnEarlierUploadIsInvalid() {
+        LocalDateTime now = LocalDateTime.now();
+        assertEquals(TicketValidationStatusEnum.VALID,
+                ticketValidationService.validateTickets(upload(now)).getFirst().getStatus());
+
+        // Already let in, a device that uploads an earlier scan later cannot take the admission back
+        assertEquals(TicketValidationStatusEnum.INVALID,
+                ticketValidationService.validateTickets(upload(now.minusMinutes(5))).getFirst().getStatus());
+        assertEquals(1, validAdmissions());
+    }
+
+    @Test
+    void concurrentUploadsAdmitATicketOnce() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        CountDownLatch firstRedeemed = new CountDownLatch(1);
+
+        CompletableFuture<TicketValidationStatusEnum> first = CompletableFuture.supplyAsync(() ->
+                transactionTemplate.execute(status -> {
+                    TicketValidationStatusEnum result =
+                            ticketValidationService.validateTickets(upload(now)).getFirst().getStatus();
+                    firstRedeemed.countDown();
+                    // Holds the ticket row while the second upload tries to redeem it
+                    sleep(300);
+                    return result;
+                }));
+        assertTrue(firstRedeemed.await(10, TimeUnit.SECONDS));
+        CompletableFuture<TicketValidationStatusEnum> second = CompletableFuture.supplyAsync(() ->
+                ticketValidationService.validateTickets(upload(now.minusSeconds(1))).getFirst().getStatus());
+
+        assertEquals(TicketValidationStatusEnum.VALID, first.get(10, TimeUnit.SECONDS));
+        assertEquals(TicketValidationStatusEnum.INVALID, second.get(10, TimeUnit.SECONDS));
+        assertEquals(1, validAdmissions());
+    }
+
+    private ValidateTicketsRequest upload(LocalDateTime... scannedAt) {
+        List<TicketScan> scans = Arrays.stream(scannedAt)
+                .map(at -> new TicketScan(ticket.getId(), null, TicketValidationMethod.MANUAL, at))
+                .toList();
+        return new ValidateTicketsRequest(event.getId(), scans);
+    }
+
+    private long validAdmissions() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ticket_validation WHERE ticket_id = ? AND status = 'VALID'",
+                Long.class, ticket.getId());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.anjesh.tickets.services;
+
+import com.anjesh.tickets.domain.entities.*;
+import com.anjesh.tickets.domain.projections.TicketRedemption;
+import com.anjesh.tickets.repositories.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the single-statement redemptions, writable CTEs H2 cannot execute, against PostgreSQL.
+ * Only runs with {@code TEST_DB_URL} pointing at a throwaway database.
+ */
+@SpringBootTest
+@ActiveProfiles({"test", "postgres"})
+@EnabledIfEnvironmentVariable(named = "TEST_DB_URL", matches = ".+")
+class TicketRedemptionPostgresTest {
+
+    @Autowired
+    private TicketValidationService ticketValidationService;
+
+    @Autowired
+    private TicketValidationRepository ticketValidationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private QrCodeRepository qrCodeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private Event event;
+    private TicketType ticketType;
+    private Ticket ticket;
+    private QrCode qrCode;
+
+    @BeforeEach
+    void issueTicket() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setName("Attendee");
+        user.setEmail(user.getId() + "@example.com");
+        user = userRepository.save(user);
+
+        // No start, so the redemption index never loads it and scans go to the database
+        event = new Event();
+        event.setName("Gate event");
+        event.setVenue("Venue");
+        event.setStatus(EventStatusEnum.PUBLISHED);
+        event.setOrganizer(user);
+        event = eventRepository.save(event);
+
+        ticketType = new TicketType();
+        ticketType.setName("General admission");
+        ticketType.setPrice(10.0);
+        ticketType.setTicketsSold(1);
+        ticketType.setEvent(event);
+        ticketType = ticketTypeRepository.save(ticketType);
+
+        ticket = new Ticket();
+        ticket.setStatus(TicketStatusEnum.PURCHASED);
+        ticket.setTicketType(ticketType);
+        ticket.setPurchaser(user);
+        ticket = ticketRepository.save(ticket);
+
+        qrCode = new QrCode();
+        qrCode.setId(UUID.randomUUID());
+        qrCode.setStatus(QrCodeStatusEnum.ACTIVE);
+        qrCode.setTicket(ticket);
+        qrCode = qrCodeRepository.save(qrCode);
+    }
+
+    @AfterEach
+    void deleteTicket() {
+        jdbcTemplate.update("DELETE FROM ticket_validation WHERE ticket_id = ?", ticket.getId());
+        qrCodeRepository.deleteById(qrCode.getId());
+        ticketRepository.deleteById(ticket.getId());
+        ticketTypeRepository.deleteById(ticketType.getId());
+        eventRepository.deleteById(event.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void secondScanOfATicketIsInvalid() {
+        TicketValidation first = ticketValidationService.validateTicketByQrCode(qrCode.getId());
+        assertEquals(TicketValidationStatusEnum.VALID, first.getStatus());
+        assertNotNull(ticketRepository.findById(ticket.getId()).orElseThrow().getRedeemedAt());
+
+        assertEquals(TicketValidationStatusEnum.INVALID,
+                ticketValidationService.validateTicketByQrCode(qrCode.getId()).getStatus());
+        assertEquals(TicketValidationStatusEnum.INVALID,
+                ticketValidationService.validateTicketManually(ticket.getId()).getStatus());
+        assertEquals(1, validations(TicketValidationStatusEnum.VALID));
+        assertEquals(2, validations(TicketValidationStatusEnum.INVALID));
+    }
+
+    @Test
+    void unknownAndInactiveQrCodesRedeemNothing() {
+        assertTrue(redeemByQrCode(UUID.randomUUID()).isEmpty());
+        assertTrue(ticketValidationRepository.redeemByTicket(
+                UUID.randomUUID(), UUID.randomUUID(), TicketValidationMethod.MANUAL.name(), LocalDateTime.now()).isEmpty());
+
+        qrCode.setStatus(QrCodeStatusEnum.EXPIRED);
+        qrCode = qrCodeRepository.save(qrCode);
+        assertTrue(redeemByQrCode(qrCode.getId()).isEmpty());
+
+        assertNull(ticketRepository.findById(ticket.getId()).orElseThrow().getRedeemedAt());
+        assertEquals(0, validations(TicketValidationStatusEnum.VALID) + validations(TicketValidationStatusEnum.INVALID));
+    }
+
+    @Test
+    void concurrentScansAdmitATicketOnce() throws Exception {
+        CountDownLatch firstRedeemed = new CountDownLatch(1);
+
+        CompletableFuture<TicketValidationStatusEnum> first = CompletableFuture.supplyAsync(() ->
+                transactionTemplate.execute(status -> {
+                    TicketValidationStatusEnum result = redeemByQrCode(qrCode.getId()).orElseThrow().getStatus();
+                    firstRedeemed.countDown();
+                    // Holds the ticket row while the second scan tries to redeem it
+                    sleep(300);
+                    return result;
+                }));
+        assertTrue(firstRedeemed.await(10, TimeUnit.SECONDS));
+        CompletableFuture<TicketValidationStatusEnum> second = CompletableFuture.supplyAsync(() ->
+                transactionTemplate.execute(status -> ticketValidationRepository.redeemByTicket(
+                                ticket.getId(), UUID.randomUUID(), TicketValidationMethod.MANUAL.name(), LocalDateTime.now())
+                        .orElseThrow().getStatus()));
+
+        assertEquals(TicketValidationStatusEnum.VALID, first.get(10, TimeUnit.SECONDS));
+        assertEquals(TicketValidationStatusEnum.INVALID, second.get(10, TimeUnit.SECONDS));
+        assertEquals(1, validations(TicketValidationStatusEnum.VALID));
+    }
+
+    private Optional<TicketRedemption> redeemByQrCode(UUID qrCodeId) {
+        return ticketValidationRepository.redeemByQrCode(
+                qrCodeId, UUID.randomUUID(), TicketValidationMethod.QR_SCAN.name(), LocalDateTime.now());
+    }
+
+    private long validations(TicketValidationStatusEnum status) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ticket_validation WHERE ticket_id = ? AND status = ?",
+                Long.class, ticket.getId(), status.name());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.anjesh.tickets.services;
+
+import com.anjesh.tickets.domain.PurchaseTicketsItemRequest;
+import com.anjesh.tickets.domain.PurchaseTicketsRequest;
+import com.anjesh.tickets.domain.entities.Event;
+import com.anjesh.tickets.domain.entities.TicketType;
+import com.anjesh.tickets.domain.entities.User;
+import com.anjesh.tickets.exceptions.InvalidPurchaseException;
+import com.anjesh.tickets.repositories.TicketRepository;
+import com.anjesh.tickets.repositories.TicketTypeRepository;
+import com.anjesh.tickets.repositories.UserRepository;
+import com.anjesh.tickets.services.impl.TicketTypeServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TicketTypeServiceTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TicketTypeRepository ticketTypeRepository = mock(TicketTypeRepository.class);
+    private final TicketRepository ticketRepository = mock(TicketRepository.class);
+
+    private final Map<UUID, TicketType> ticketTypes = new HashMap<>();
+
+    private TicketTypeService ticketTypeService;
+    private Event event;
+
+    @BeforeEach
+    void createService() {
+        ticketTypeService = new TicketTypeServiceImpl(
+                userRepository,
+                ticketTypeRepository,
+                ticketRepository,
+                mock(QrCodeService.class),
+                mock(InventoryShardService.class),
+                mock(InventoryLeaseService.class));
+
+        User user = new User();
+        user.setId(userId);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(ticketTypeRepository.reserveTickets(any(), anyInt())).thenReturn(1);
+        when(ticketRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(ticketTypeRepository.findAllById(any())).thenAnswer(invocation -> {
+            Iterable<UUID> ids = invocation.getArgument(0);
+            List<TicketType> found = new ArrayList<>();
+            ids.forEach(id -> found.add(ticketTypes.get(id)));
+            return found;
+        });
+
+        event = new Event();
+        event.setId(UUID.randomUUID());
+    }
+
+    @Test
+    void duplicateItemsAreReservedTogether() {
+        TicketType ticketType = ticketType(event);
+
+        assertEquals(20, ticketTypeService.purchaseTickets(userId, cart(
+                new PurchaseTicketsItemRequest(ticketType.getId(), 12),
+                new PurchaseTicketsItemRequest(ticketType.getId(), 8))).size());
+        verify(ticketTypeRepository).reserveTickets(ticketType.getId(), 20);
+    }
+
+    @Test
+    void duplicateItemsOverTheLimitAreRejected() {
+        TicketType ticketType = ticketType(event);
+
+        assertThrows(InvalidPurchaseException.class, () -> ticketTypeService.purchaseTickets(userId, cart(
+                new PurchaseTicketsItemRequest(ticketType.getId(), 20),
+                new PurchaseTicketsItemRequest(ticketType.getId(), 1))));
+        verify(ticketTypeRepository, never()).reserveTickets(any(), anyInt());
+    }
+
+    @Test
+    void ticketTypesOfDifferentEventsAreRejected() {
+        Event otherEvent = new Event();
+        otherEvent.setId(UUID.randomUUID());
+        TicketType ticketType = ticketType(event);
+        TicketType otherTicketType = ticketType(otherEvent);
+
+        assertThrows(InvalidPurchaseException.class, () -> ticketTypeService.purchaseTickets(userId, cart(
+                new PurchaseTicketsItemRequest(ticketType.getId(), 1),
+                new PurchaseTicketsItemRequest(otherTicketType.getId(), 1))));
+        verify(ticketTypeRepository, never()).reserveTickets(any(), anyInt());
+    }
+
+    private TicketType ticketType(Event ticketTypeEvent) {
+        TicketType ticketType = new TicketType();
+        ticketType.setId(UUID.randomUUID());
+        ticketType.setEvent(ticketTypeEvent);
+        ticketTypes.put(ticketType.getId(), ticketType);
+        return ticketType;
+    }
+
+    private static PurchaseTicketsRequest cart(PurchaseTicketsItemRequest... items) {
+        return new PurchaseTicketsRequest(List.of(items));
+    }
+}
@@ -0,0 +1,87 @@
+package com.anjesh.tickets.services;
+
+import com.anjesh.tickets.domain.QrCodePayload;
+import com.anjesh.tickets.domain.entities.TicketValidation;
+import com.anjesh.tickets.domain.entities.TicketValidationStatusEnum;
+import com.anjesh.tickets.repositories.QrCodeRepository;
+import com.anjesh.tickets.repositories.TicketRepository;
+import com.anjesh.tickets.repositories.TicketValidationRepository;
+import com.anjesh.tickets.services.impl.QrCodePayloadServiceImpl;
+import com.anjesh.tickets.services.impl.TicketValidationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TicketValidationServiceTest {
+
+    private final UUID eventId = UUID.randomUUID();
+    private final UUID qrCodeId = UUID.randomUUID();
+
+    private final QrCodePayloadService qrCodePayloadService =
+            new QrCodePayloadServiceImpl("0123456789abcdef0123456789abcdef");
+    private final RedemptionIndexService redemptionIndexService = mock(RedemptionIndexService.class);
+
+    private TicketValidationService ticketValidationService;
+
+    @BeforeEach
+    void createService() {
+        ticketValidationService = new TicketValidationServiceImpl(
+                mock(QrCodeRepository.class),
+                mock(TicketRepository.class),
+                mock(TicketValidationRepository.class),
+                qrCodePayloadService,
+                redemptionIndexService,
+                mock(AttendanceService.class));
+        ReflectionTestUtils.setField(ticketValidationService, "validityMargin", Duration.ofHours(1));
+
+        TicketValidation redeemed = new TicketValidation();
+        redeemed.setStatus(TicketValidationStatusEnum.VALID);
+        when(redemptionIndexService.redeemByQrCode(qrCodeId)).thenReturn(Optional.of(redeemed));
+    }
+
+    @Test
+    void codeIsRedeemedWithinTheEventWindow() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(TicketValidationStatusEnum.VALID, validate(now.minusHours(2), now.plusHours(2)));
+        // The margin covers doors opening early and stragglers after the end
+        assertEquals(TicketValidationStatusEnum.VALID, validate(now.plusMinutes(30), now.plusHours(4)));
+        assertEquals(TicketValidationStatusEnum.VALID, validate(now.minusHours(4), now.minusMinutes(30)));
+        assertEquals(TicketValidationStatusEnum.VALID, validate(null, null));
+    }
+
+    @Test
+    void codeOutsideTheEventWindowExpiresWithoutRedemption() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(TicketValidationStatusEnum.EXPIRED, validate(now.plusHours(2), now.plusHours(6)));
+        assertEquals(TicketValidationStatusEnum.EXPIRED, validate(now.minusHours(6), now.minusHours(2)));
+        assertEquals(TicketValidationStatusEnum.EXPIRED, validate(null, now.minusHours(2)));
+        verify(redemptionIndexService, never()).redeemByQrCode(any());
+    }
+
+    @Test
+    void codeForAnotherEventIsInvalid() {
+        String content = qrCodePayloadService.sign(
+                new QrCodePayload(qrCodeId, UUID.randomUUID(), UUID.randomUUID(), null, null));
+
+        assertEquals(TicketValidationStatusEnum.INVALID,
+                ticketValidationService.validateTicketByQrPayload(content, eventId).getStatus());
+        verify(redemptionIndexService, never()).redeemByQrCode(any());
+    }
+
+    private TicketValidationStatusEnum validate(LocalDateTime validFrom, LocalDateTime validUntil) {
+        String content = qrCodePayloadService.sign(
+                new QrCodePayload(qrCodeId, UUID.randomUUID(), eventId, validFrom, validUntil));
+        return ticketValidationService.validateTicketByQrPayload(content, eventId).getStatus();
+    }
+}
@@ -0,0 +1,32 @@
+package com.anjesh.tickets.util;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QrCodePngEncoderTest {
+
+    @Test
+    void encodedImageMatchesBitMatrix() throws Exception {
+        BitMatrix bitMatrix = new QRCodeWriter().encode(UUID.randomUUID().toString(), BarcodeFormat.QR_CODE, 300, 300);
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(QrCodePngEncoder.encode(bitMatrix)));
+
+        assertEquals(bitMatrix.getWidth(), image.getWidth());
+        assertEquals(bitMatrix.getHeight(), image.getHeight());
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int expected = bitMatrix.get(x, y) ? 0x000000 : 0xFFFFFF;
+                assertEquals(expected, image.getRGB(x, y) & 0xFFFFFF, "pixel " + x + "," + y);
+            }
+        }
+    }
+}
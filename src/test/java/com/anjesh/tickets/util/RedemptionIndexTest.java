@@ -0,0 +1,95 @@
+package com.anjesh.tickets.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedemptionIndexTest {
+
+    @Test
+    void findsTicketsByTicketAndQrCodeId() {
+        RedemptionIndex.Builder builder = RedemptionIndex.builder();
+        List<UUID> ticketIds = new ArrayList<>();
+        List<UUID> qrCodeIds = new ArrayList<>();
+        UUID[] ticketTypeIds = {UUID.randomUUID(), UUID.randomUUID()};
+        for (int i = 0; i < 1000; i++) {
+            UUID ticketId = UUID.randomUUID();
+            UUID qrCodeId = UUID.randomUUID();
+            builder.add(ticketId, qrCodeId, ticketTypeIds[i % 2], i % 3 == 0);
+            ticketIds.add(ticketId);
+            qrCodeIds.add(qrCodeId);
+        }
+        RedemptionIndex index = builder.build();
+
+        assertEquals(1000, index.size());
+        assertEquals(334, index.redeemedCount());
+        for (int i = 0; i < 1000; i++) {
+            int slot = index.slotOfTicket(ticketIds.get(i));
+            assertEquals(ticketIds.get(i), index.ticketId(slot));
+            assertEquals(slot, index.slotOfQrCode(qrCodeIds.get(i)));
+            assertEquals(ticketTypeIds[i % 2], index.ticketTypeId(slot));
+            assertEquals(i % 3 == 0, index.isRedeemed(slot));
+        }
+        assertEquals(-1, index.slotOfTicket(UUID.randomUUID()));
+        assertEquals(-1, index.slotOfQrCode(UUID.randomUUID()));
+    }
+
+    @Test
+    void concurrentScansRedeemOnce() throws Exception {
+        UUID ticketId = UUID.randomUUID();
+        RedemptionIndex index = RedemptionIndex.builder().add(ticketId, null, UUID.randomUUID(), false).build();
+        int slot = index.slotOfTicket(ticketId);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        List<Future<?>> scans = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            scans.add(executor.submit(() -> {
+                start.await();
+                if (index.markRedeemed(slot)) {
+                    admitted.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> scan : scans) {
+            scan.get();
+        }
+        executor.shutdown();
+
+        assertEquals(1, admitted.get());
+        assertTrue(index.isRedeemed(slot));
+    }
+
+    @Test
+    void clearedTicketsCanBeRedeemedAgain() {
+        UUID ticketId = UUID.randomUUID();
+        RedemptionIndex index = RedemptionIndex.builder().add(ticketId, null, UUID.randomUUID(), false).build();
+        int slot = index.slotOfTicket(ticketId);
+
+        assertTrue(index.markRedeemed(slot));
+        index.clearRedeemed(slot);
+        assertFalse(index.isRedeemed(slot));
+        assertTrue(index.markRedeemed(slot));
+    }
+
+    @Test
+    void revokedQrCodesNoLongerResolve() {
+        UUID ticketId = UUID.randomUUID();
+        UUID qrCodeId = UUID.randomUUID();
+        RedemptionIndex index = RedemptionIndex.builder().add(ticketId, qrCodeId, UUID.randomUUID(), false).build();
+
+        assertTrue(index.revokeQrCode(qrCodeId));
+        assertFalse(index.revokeQrCode(UUID.randomUUID()));
+        assertEquals(-1, index.slotOfQrCode(qrCodeId));
+        assertTrue(index.slotOfTicket(ticketId) >= 0);
+    }
+}
@@ -0,0 +1,23 @@
+package com.anjesh.tickets.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchQueryUtilTest {
+
+    @Test
+    void everyWordBecomesAPrefixTerm() {
+        assertEquals(Optional.of("jazz:* & fest:*"), SearchQueryUtil.toPrefixTsQuery("  Jazz FEST "));
+        assertEquals(Optional.of("café:* & 2025:*"), SearchQueryUtil.toPrefixTsQuery("Café-2025"));
+    }
+
+    @Test
+    void tsQueryOperatorsAreStripped() {
+        assertEquals(Optional.of("rock:* & roll:*"), SearchQueryUtil.toPrefixTsQuery("rock & !roll:*"));
+        assertEquals(Optional.empty(), SearchQueryUtil.toPrefixTsQuery("'&|!()<->:*"));
+        assertEquals(Optional.empty(), SearchQueryUtil.toPrefixTsQuery(null));
+    }
+}
@@ -0,0 +1,122 @@
+package com.anjesh.tickets.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TypeaheadIndexTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 6, 1, 20, 0);
+
+    @Test
+    void ranksNamePrefixesAboveVenueMatches() {
+        TypeaheadIndex index = new TypeaheadIndex(1 << 20);
+        UUID venueMatch = UUID.randomUUID();
+        UUID nameMatch = UUID.randomUUID();
+        UUID namePrefix = UUID.randomUUID();
+        index.put(venueMatch, "Summer Sounds", "Jazz Cafe", START);
+        index.put(nameMatch, "Late Night Jazz", "Town Hall", START);
+        index.put(namePrefix, "Jazzfest", "Riverside Park", START.plusDays(1));
+        index.put(UUID.randomUUID(), "Rock Night", "Town Hall", START);
+
+        assertEquals(List.of(namePrefix, nameMatch, venueMatch), ids(index.suggest("jaz", 10)));
+        assertEquals(List.of(nameMatch), ids(index.suggest("night JA", 10)));
+        assertEquals(List.of(namePrefix), ids(index.suggest("jaz", 1)));
+    }
+
+    @Test
+    void bestMatchesSurviveManyCandidates() {
+        TypeaheadIndex index = new TypeaheadIndex(64L << 20);
+        for (int i = 0; i < 5000; i++) {
+            index.put(UUID.randomUUID(), "Show", String.format("Cafe%05d", i), START);
+        }
+        UUID best = UUID.randomUUID();
+        UUID twoWords = UUID.randomUUID();
+        index.put(best, "Cat Power", "Arena", START);
+        index.put(twoWords, "Night Show", "Cafe99999", START);
+
+        // Both sort after thousands of matching venue words
+        assertEquals(best, index.suggest("ca", 5).getFirst().getId());
+        assertEquals(List.of(twoWords), ids(index.suggest("cafe n", 5)));
+        assertEquals(5, index.suggest("cafe", 5).size());
+    }
+
+    @Test
+    void updatesReplaceOldWordsAndRespectTheMemoryBound() {
+        TypeaheadIndex sizing = new TypeaheadIndex(Long.MAX_VALUE);
+        sizing.put(UUID.randomUUID(), "Blues Night", "Town Hall", START);
+        TypeaheadIndex index = new TypeaheadIndex(sizing.estimatedBytes());
+
+        UUID id = UUID.randomUUID();
+        assertTrue(index.put(id, "Jazz Night", "Town Hall", START));
+        assertFalse(index.put(UUID.randomUUID(), "Other", "Venue", START));
+
+        assertTrue(index.put(id, "Blues Night", "Town Hall", START));
+        assertEquals(sizing.estimatedBytes(), index.estimatedBytes());
+        assertEquals(List.of(), index.suggest("jazz", 10));
+        assertEquals(List.of(id), ids(index.suggest("blu", 10)));
+
+        index.remove(id);
+        assertEquals(0, index.size());
+        assertEquals(0, index.estimatedBytes());
+        assertEquals(List.of(), index.suggest("blu", 10));
+    }
+
+    @Test
+    void rankedPrefixesGiveTheSameTopMatchesAsRankingEveryCandidate() {
+        Random random = new Random(42);
+        String[] words = {"jazz", "jam", "java", "night", "nine", "cafe", "cat", "summer", "sun", "hall"};
+        TypeaheadIndex index = new TypeaheadIndex(64L << 20);
+        TypeaheadIndex unbounded = new TypeaheadIndex(64L << 20, Integer.MAX_VALUE);
+        for (int i = 0; i < 2000; i++) {
+            UUID id = UUID.randomUUID();
+            String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+            String venue = words[random.nextInt(words.length)] + " " + i;
+            LocalDateTime start = START.plusHours(random.nextInt(1000));
+            index.put(id, name, venue, start);
+            unbounded.put(id, name, venue, start);
+        }
+
+        for (String query : List.of("j", "ja", "jaz", "jazz", "n", "nig", "night s", "ca", "su hall", "x")) {
+            assertEquals(ids(unbounded.suggest(query, 10)), ids(index.suggest(query, 10)), query);
+        }
+    }
+
+    @Test
+    void candidatesLookedAtAreCapped() {
+        TypeaheadIndex index = new TypeaheadIndex(64L << 20, 100);
+        TypeaheadIndex unbounded = new TypeaheadIndex(64L << 20, Integer.MAX_VALUE);
+        for (int i = 0; i < 1000; i++) {
+            UUID id = UUID.randomUUID();
+            index.put(id, "Show Arena", "Arena", START.plusMinutes(i + 1));
+            unbounded.put(id, "Show Arena", "Arena", START.plusMinutes(i + 1));
+        }
+        for (int i = 0; i < 10; i++) {
+            UUID id = UUID.randomUUID();
+            index.put(id, "Shopping", "Mall", START);
+            unbounded.put(id, "Shopping", "Mall", START);
+        }
+        // The best match for "show arena", but last under "are" where only the venue matches
+        UUID soonest = UUID.randomUUID();
+        index.put(soonest, "Show", "Arena", START);
+        unbounded.put(soonest, "Show", "Arena", START);
+
+        assertEquals(List.of(soonest), ids(unbounded.suggest("show arena", 1)));
+        // Driven by the smaller "are", which does not rank like the query, so only its first 100 are looked at
+        assertEquals(1, index.suggest("show arena", 1).size());
+        assertFalse(ids(index.suggest("show arena", 1)).contains(soonest));
+        // Driven by the first word, the ranking lets it stop early and the cap is never reached
+        assertEquals(List.of(soonest), ids(index.suggest("show", 1)));
+    }
+
+    private static List<UUID> ids(List<TypeaheadIndex.Entry> entries) {
+        return entries.stream().map(TypeaheadIndex.Entry::getId).toList();
+    }
+}
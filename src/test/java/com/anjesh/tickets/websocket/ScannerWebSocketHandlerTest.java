@@ -0,0 +1,138 @@
+package com.anjesh.tickets.websocket;
+
+import com.anjesh.tickets.domain.dtos.ScanMessageDto;
+import com.anjesh.tickets.domain.dtos.ScanResultMessageDto;
+import com.anjesh.tickets.domain.entities.TicketValidation;
+import com.anjesh.tickets.domain.entities.TicketValidationStatusEnum;
+import com.anjesh.tickets.services.TicketValidationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ScannerWebSocketHandlerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TicketValidationService ticketValidationService = mock(TicketValidationService.class);
+    private final Map<String, Object> attributes = new HashMap<>();
+    private final WebSocketSession session = mock(WebSocketSession.class);
+
+    private ScannerWebSocketHandler handler;
+
+    @BeforeEach
+    void createHandler() {
+        handler = new ScannerWebSocketHandler(ticketValidationService, objectMapper, 2, 10);
+        when(session.getId()).thenReturn("scanner-session");
+        when(session.getAttributes()).thenReturn(attributes);
+        when(session.isOpen()).thenReturn(true);
+    }
+
+    @AfterEach
+    void shutdownHandler() {
+        handler.shutdown();
+    }
+
+    @Test
+    void resultsAreSentInScanOrder() throws Exception {
+        UUID slowId = UUID.randomUUID();
+        UUID fastId = UUID.randomUUID();
+        CountDownLatch fastValidated = new CountDownLatch(1);
+        when(ticketValidationService.validateTicketByQrCode(slowId)).thenAnswer(invocation -> {
+            fastValidated.await();
+            return validation(TicketValidationStatusEnum.VALID);
+        });
+        when(ticketValidationService.validateTicketByQrCode(fastId)).thenAnswer(invocation -> {
+            fastValidated.countDown();
+            return validation(TicketValidationStatusEnum.INVALID);
+        });
+        connect(Instant.now().plusSeconds(3600));
+
+        handler.handleTextMessage(session, scan(1L, slowId));
+        handler.handleTextMessage(session, scan(2L, fastId));
+        handler.handleTextMessage(session, new TextMessage("not json"));
+
+        List<ScanResultMessageDto> results = sentResults(3);
+        assertEquals(1L, results.get(0).getSeq());
+        assertEquals(TicketValidationStatusEnum.VALID, results.get(0).getStatus());
+        assertEquals(2L, results.get(1).getSeq());
+        assertEquals(TicketValidationStatusEnum.INVALID, results.get(1).getStatus());
+        assertEquals("Malformed scan", results.get(2).getError());
+    }
+
+    @Test
+    void idleSessionIsClosedWhenTheTokenExpires() throws Exception {
+        connect(Instant.now().plusMillis(200));
+
+        verify(session, timeout(5000)).close(CloseStatus.POLICY_VIOLATION.withReason("Token expired"));
+        verifyNoInteractions(ticketValidationService);
+    }
+
+    @Test
+    void closedSessionIsNotClosedAgainAtExpiry() throws Exception {
+        connect(Instant.now().plusMillis(200));
+        handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+
+        Thread.sleep(500);
+        verify(session, never()).close(any());
+    }
+
+    @Test
+    void scanWithAnExpiredTokenIsNotValidated() throws Exception {
+        connect(Instant.now().minusSeconds(1));
+
+        handler.handleTextMessage(session, scan(1L, UUID.randomUUID()));
+
+        verify(session, timeout(5000).atLeastOnce()).close(CloseStatus.POLICY_VIOLATION.withReason("Token expired"));
+        verifyNoInteractions(ticketValidationService);
+    }
+
+    private void connect(Instant expiresAt) {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .subject(UUID.randomUUID().toString())
+                .expiresAt(expiresAt)
+                .build();
+        when(session.getPrincipal()).thenReturn(new JwtAuthenticationToken(jwt));
+        handler.afterConnectionEstablished(session);
+    }
+
+    private TextMessage scan(Long seq, UUID id) throws Exception {
+        return new TextMessage(objectMapper.writeValueAsString(new ScanMessageDto(seq, id, null, null, null)));
+    }
+
+    private List<ScanResultMessageDto> sentResults(int count) throws Exception {
+        ArgumentCaptor<TextMessage> sent = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, timeout(5000).times(count)).sendMessage(sent.capture());
+        return sent.getAllValues().stream()
+                .map(message -> {
+                    try {
+                        return objectMapper.readValue(message.getPayload(), ScanResultMessageDto.class);
+                    } catch (Exception ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                })
+                .toList();
+    }
+
+    private static TicketValidation validation(TicketValidationStatusEnum status) {
+        TicketValidation ticketValidation = new TicketValidation();
+        ticketValidation.setStatus(status);
+        return ticketValidation;
+    }
+}